@@ -0,0 +1,63 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntLongHashMap;
+import com.company.util.IntLongHashMapOffHeap;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Common parameters of the benchmark suites: implementation, map size, load factor, multiplier and key distribution.
+ */
+@State(Scope.Thread)
+public abstract class AbstractMapBenchmark {
+    protected static final int INIT_CAPACITY = 16;
+
+    @Param({"OPEN_ADDR", "OPEN_ADDR_POW2_MURMUR3", "OPEN_ADDR_POW2_SEEDED", "ROBIN_HOOD",
+            "INCREMENTAL", "INTERLEAVED", "SWISS", "OFF_HEAP", "SEGMENTED",
+            "COPY_ON_WRITE", "CONCURRENT", "JDK_HASH_MAP"})
+    protected MapType mapType;
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    protected int size;
+
+    @Param({"0.5", "0.75", "0.9", "0.95"})
+    protected float loadFactor;
+
+    @Param({"2.0"})
+    protected float multiplier;
+
+    @Param({"SEQUENTIAL", "CLUSTERED", "UNIFORM", "ADVERSARIAL"})
+    protected KeyDistribution distribution;
+
+    protected IntLongHashMap newMap() {
+        return mapType.create(INIT_CAPACITY, loadFactor, multiplier);
+    }
+
+    // Keys with indexes 1..size
+    protected IntLongHashMap newFilledMap() {
+        IntLongHashMap result = newMap();
+        for (int i = 1; i <= size; i++) {
+            result.put(distribution.key(i), i);
+        }
+
+        return result;
+    }
+
+    // Releases the direct memory of an OFF_HEAP map at once, the other maps are left to the collector
+    protected static void closeMap(IntLongHashMap map) {
+        if (map instanceof IntLongHashMapOffHeap) {
+            ((IntLongHashMapOffHeap) map).close();
+        }
+    }
+
+    // Keys which are stored in the map filled by <newFilledMap>
+    protected int[] hitKeys() {
+        return distribution.shuffledKeys(1, size);
+    }
+
+    // Keys which are absent in the map filled by <newFilledMap>
+    protected int[] missKeys() {
+        return distribution.shuffledKeys(size + 1, size);
+    }
+}
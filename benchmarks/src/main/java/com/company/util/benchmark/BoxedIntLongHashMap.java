@@ -0,0 +1,90 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntLongCursor;
+import com.company.util.IntLongHashMap;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * {@link IntLongHashMap} view of a <b>java.util.HashMap&lt;Integer, Long&gt;</b>, used as the baseline.
+ */
+public class BoxedIntLongHashMap implements IntLongHashMap {
+    private static final long NO_ENTRY_VALUE = Long.MIN_VALUE;
+
+    private final Map<Integer, Long> map;
+
+    public BoxedIntLongHashMap(int initialCapacity, float loadFactor) {
+        map = new HashMap<>(initialCapacity, loadFactor);
+    }
+
+    @Override
+    public long getNoEntryValue() {
+        return NO_ENTRY_VALUE;
+    }
+
+    @Override
+    public long get(int key) {
+        Long result = map.get(key);
+
+        return (result == null) ? NO_ENTRY_VALUE : result;
+    }
+
+    @Override
+    public long put(int key, long value) {
+        Long result = map.put(key, value);
+
+        return (result == null) ? NO_ENTRY_VALUE : result;
+    }
+
+    @Override
+    public IntLongCursor cursor() {
+        return new IntLongCursor() {
+            private Iterator<Map.Entry<Integer, Long>> iterator = map.entrySet().iterator();
+            private Map.Entry<Integer, Long> entry;
+
+            @Override
+            public boolean advance() {
+                boolean result = iterator.hasNext();
+                if (result) {
+                    entry = iterator.next();
+                }
+
+                return result;
+            }
+
+            @Override
+            public int key() {
+                return entry.getKey();
+            }
+
+            @Override
+            public long value() {
+                return entry.getValue();
+            }
+
+            @Override
+            public void reset() {
+                iterator = map.entrySet().iterator();
+            }
+        };
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public long remove(int key) {
+        Long result = map.remove(key);
+
+        return (result == null) ? NO_ENTRY_VALUE : result;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+}
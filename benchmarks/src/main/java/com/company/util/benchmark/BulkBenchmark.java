@@ -0,0 +1,115 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk operations against the loops of the single-key ones: the time per key of looking up a batch of present keys
+ * by <b>getAll</b> and by <b>get</b>, and the time of filling an empty map by <b>putAll</b> and by <b>put</b>.
+ */
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkBenchmark extends AbstractMapBenchmark {
+    private static final int BATCH = 4096;
+
+    private IntLongHashMap map;
+    private int[] hitKeys;
+    private int[] batch;
+    private long[] out;
+    private int batchStart;
+    private int[] fillKeys;
+    private long[] fillValues;
+
+    @Setup
+    public void setUp() {
+        map = newFilledMap();
+        hitKeys = hitKeys();
+        batch = new int[BATCH];
+        out = new long[BATCH];
+
+        fillKeys = distribution.shuffledKeys(1, size);
+        fillValues = new long[size];
+        Arrays.fill(fillValues, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        closeMap(map);
+    }
+
+    // The next <BATCH> keys of <hitKeys>, cyclically
+    private int[] nextBatch() {
+        for (int i = 0; i < BATCH; i++) {
+            batch[i] = hitKeys[batchStart];
+            if (++batchStart == hitKeys.length) {
+                batchStart = 0;
+            }
+        }
+
+        return batch;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OperationsPerInvocation(BATCH)
+    public long[] getLoop() {
+        int[] keys = nextBatch();
+        for (int i = 0; i < keys.length; i++) {
+            out[i] = map.get(keys[i]);
+        }
+
+        return out;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OperationsPerInvocation(BATCH)
+    public long[] getAll() {
+        map.getAll(nextBatch(), out);
+
+        return out;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public void fillLoop(Blackhole blackhole) {
+        IntLongHashMap result = newMap();
+        for (int i = 0; i < fillKeys.length; i++) {
+            result.put(fillKeys[i], fillValues[i]);
+        }
+
+        blackhole.consume(result.size());
+        closeMap(result);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public void fillBulk(Blackhole blackhole) {
+        IntLongHashMap result = newMap();
+        result.putAll(fillKeys, fillValues, 0, fillKeys.length);
+
+        blackhole.consume(result.size());
+        closeMap(result);
+    }
+}
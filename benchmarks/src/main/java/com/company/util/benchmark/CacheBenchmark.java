@@ -0,0 +1,117 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntHashStrategy;
+import com.company.util.IntLongHashMap;
+import com.company.util.IntLongHashMapClockCache;
+import com.company.util.IntLongHashMapOpenAddr;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IntLongHashMapClockCache} of <b>size</b> entries: <b>getHit</b> against <b>get</b> of
+ * {@link IntLongHashMapOpenAddr} (power-of-two capacity, Murmur3) with the same keys and load factor, and
+ * <b>readThrough</b> (a lookup, and a <b>put</b> on a miss) with skewed keys from a universe of <b>10 * size</b>
+ * keys, which reports the hits and the misses of the cache (summed over the iterations).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+    private static final int ACCESS_COUNT = 1 << 22;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Lookups {
+        public long hits;
+        public long misses;
+    }
+
+    @Param({"100000", "10000000"})
+    private int size;
+
+    @Param({"0.75"})
+    private float loadFactor;
+
+    private IntLongHashMapClockCache cache;
+    private IntLongHashMap map;
+    private int[] hitKeys;
+    private int[] skewedKeys;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = new IntLongHashMapClockCache(size, loadFactor);
+        map = new IntLongHashMapOpenAddr(size, loadFactor, 2.0f, Long.MIN_VALUE, IntHashStrategy.MURMUR3, true);
+        for (int i = 1; i <= size; i++) {
+            cache.put(KeyDistribution.UNIFORM.key(i), i);
+            map.put(KeyDistribution.UNIFORM.key(i), i);
+        }
+        hitKeys = KeyDistribution.UNIFORM.shuffledKeys(1, size);
+
+        // A cube of a uniform number: about half of the accesses go to the first 1/8 of the universe
+        Random random = new Random(1);
+        skewedKeys = new int[ACCESS_COUNT];
+        for (int i = 0; i < ACCESS_COUNT; i++) {
+            double r = random.nextDouble();
+            skewedKeys[i] = KeyDistribution.UNIFORM.key(1 + (int) (10.0 * size * r * r * r));
+        }
+    }
+
+    private int nextHitKey() {
+        int result = hitKeys[index];
+        if (++index == hitKeys.length) {
+            index = 0;
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public long getHit() {
+        return cache.get(nextHitKey());
+    }
+
+    @Benchmark
+    public long mapGetHit() {
+        return map.get(nextHitKey());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public long readThrough(Lookups lookups) {
+        cache.resetCounters();
+        long result = 0;
+        for (int key : skewedKeys) {
+            long value = cache.get(key);
+            if (value == cache.getNoEntryValue()) {
+                value = key;
+                cache.put(key, value);
+            }
+            result += value;
+        }
+        lookups.hits = cache.getHitCount();
+        lookups.misses = cache.getMissCount();
+
+        return result;
+    }
+}
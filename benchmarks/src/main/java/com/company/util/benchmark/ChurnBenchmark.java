@@ -0,0 +1,81 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert/remove churn: the map keeps <b>size</b> entries as a sliding window over the keys of the distribution,
+ * every step removes the oldest key and puts a new one.
+ *
+ * <p>The cost of a miss is proportional to the probe length, so <b>getMiss</b> after <b>churnRounds * size</b>
+ * steps, compared with the one on the freshly filled map (<b>churnRounds = 0</b>), shows whether the probe lengths
+ * grow over time. <b>churn</b> measures the steps themselves.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChurnBenchmark extends AbstractMapBenchmark {
+    @Param({"0", "1", "10"})
+    private int churnRounds;
+
+    private IntLongHashMap map;
+    private int oldestIndex;
+    private int newestIndex;
+    private int[] missKeys;
+    private int missIndex;
+
+    @Setup
+    public void setUp() {
+        map = newFilledMap();
+        oldestIndex = 1;
+        newestIndex = size;
+
+        long steps = (long) churnRounds * size;
+        for (long i = 0; i < steps; i++) {
+            step();
+        }
+
+        // The keys after the sliding window were never put (<getMiss> does not move the window)
+        missKeys = distribution.shuffledKeys(newestIndex + 1, size);
+    }
+
+    @TearDown
+    public void tearDown() {
+        closeMap(map);
+    }
+
+    private long step() {
+        map.remove(distribution.key(oldestIndex++));
+
+        return map.put(distribution.key(++newestIndex), newestIndex);
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    public long churn() {
+        return step();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    public long getMiss() {
+        int key = missKeys[missIndex];
+        if (++missIndex == missKeys.length) {
+            missIndex = 0;
+        }
+
+        return map.get(key);
+    }
+}
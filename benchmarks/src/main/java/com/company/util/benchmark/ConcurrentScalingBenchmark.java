@@ -0,0 +1,98 @@
+package com.company.util.benchmark;
+
+import com.company.util.ConcurrentIntLongHashMap;
+import com.company.util.IntLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded throughput of a map shared by all the benchmark threads: {@link ConcurrentIntLongHashMap}
+ * against {@link com.company.util.IntLongHashMapOpenAddr} guarded by a global lock.
+ *
+ * <p>The thread count is set by JMH option <b>-t</b>; {@link #main(String[])} runs the benchmark with
+ * 1, 2, 4, ... threads up to the number of available processors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentScalingBenchmark {
+    @Param({"CONCURRENT", "SYNCHRONIZED_OPEN_ADDR"})
+    private MapType mapType;
+
+    @Param({"100000", "10000000"})
+    private int size;
+
+    private IntLongHashMap map;
+    private int[] keys;
+
+    @Setup
+    public void setUp() {
+        map = mapType.create(AbstractMapBenchmark.INIT_CAPACITY, 0.75f, 2.0f);
+        for (int i = 1; i <= size; i++) {
+            map.put(KeyDistribution.UNIFORM.key(i), i);
+        }
+        keys = KeyDistribution.UNIFORM.shuffledKeys(1, size);
+    }
+
+    private int nextKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+
+    @Benchmark
+    public long get() {
+        return map.get(nextKey());
+    }
+
+    @Benchmark
+    public long put() {
+        return map.put(nextKey(), 1);
+    }
+
+    @Benchmark
+    public long addTo() {
+        return map.addTo(nextKey(), 1);
+    }
+
+    // 90% of reads, 10% of increments
+    @Benchmark
+    public long mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = keys[random.nextInt(keys.length)];
+
+        return (random.nextInt(10) == 0) ? map.addTo(key, 1) : map.get(key);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads << 1, processors)) {
+            Options options = new OptionsBuilder()
+                    .include(ConcurrentScalingBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+
+            if (threads == processors) {
+                break;
+            }
+        }
+    }
+}
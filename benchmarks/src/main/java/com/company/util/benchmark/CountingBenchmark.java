@@ -0,0 +1,66 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counting workload: increments of counters keyed by present IDs, with the single-probe <b>addTo</b> and
+ * <b>merge</b> against the <b>get</b> + <b>put</b> pair.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CountingBenchmark extends AbstractMapBenchmark {
+    private IntLongHashMap map;
+    private int[] keys;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        map = newFilledMap();
+        keys = hitKeys();
+    }
+
+    @TearDown
+    public void tearDown() {
+        closeMap(map);
+    }
+
+    private int nextKey() {
+        int key = keys[index];
+        if (++index == keys.length) {
+            index = 0;
+        }
+
+        return key;
+    }
+
+    @Benchmark
+    public long getPut() {
+        int key = nextKey();
+
+        return map.put(key, map.get(key) + 1);
+    }
+
+    @Benchmark
+    public long addTo() {
+        return map.addTo(nextKey(), 1);
+    }
+
+    @Benchmark
+    public long merge() {
+        return map.merge(nextKey(), 1, Long::sum);
+    }
+}
@@ -0,0 +1,83 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntHashStrategy;
+import com.company.util.IntLongHashMap;
+import com.company.util.IntLongHashMapOpenAddr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups in a map which is built once and only read: {@link IntLongHashMapOpenAddr} (power-of-two, Murmur3) as
+ * it is (<b>-p frozen=false</b>) and its copy made by {@link IntLongHashMap#freeze()} (<b>-p frozen=true</b>), and
+ * the time of the freezing itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FreezeBenchmark {
+    @Param({"false", "true"})
+    private boolean frozen;
+
+    @Param({"1000", "10000000"})
+    private int size;
+
+    private IntLongHashMapOpenAddr source;
+    private IntLongHashMap map;
+    private int[] hitKeys;
+    private int[] missKeys;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        source = new IntLongHashMapOpenAddr(AbstractMapBenchmark.INIT_CAPACITY, 0.75f, 2.0f, Long.MIN_VALUE,
+                IntHashStrategy.MURMUR3, true);
+        for (int i = 1; i <= size; i++) {
+            source.put(KeyDistribution.UNIFORM.key(i), i);
+        }
+        map = frozen ? source.freeze() : source;
+        hitKeys = KeyDistribution.UNIFORM.shuffledKeys(1, size);
+        missKeys = KeyDistribution.UNIFORM.shuffledKeys(size + 1, size);
+    }
+
+    private int nextIndex() {
+        int result = index;
+        if (++index == hitKeys.length) {
+            index = 0;
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public long getHit() {
+        return map.get(hitKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public long getMiss() {
+        return map.get(missKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public IntLongHashMap freeze() {
+        return source.freeze();
+    }
+}
@@ -0,0 +1,62 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency percentiles of <b>get</b> for present ("hit") and absent ("miss") keys.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetBenchmark extends AbstractMapBenchmark {
+    private IntLongHashMap map;
+    private int[] hitKeys;
+    private int[] missKeys;
+    private int hitIndex;
+    private int missIndex;
+
+    @Setup
+    public void setUp() {
+        map = newFilledMap();
+        hitKeys = hitKeys();
+        missKeys = missKeys();
+    }
+
+    @TearDown
+    public void tearDown() {
+        closeMap(map);
+    }
+
+    @Benchmark
+    public long getHit() {
+        int key = hitKeys[hitIndex];
+        if (++hitIndex == hitKeys.length) {
+            hitIndex = 0;
+        }
+
+        return map.get(key);
+    }
+
+    @Benchmark
+    public long getMiss() {
+        int key = missKeys[missIndex];
+        if (++missIndex == missKeys.length) {
+            missIndex = 0;
+        }
+
+        return map.get(key);
+    }
+}
@@ -0,0 +1,91 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntLongHashMap;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of <b>put</b> of new keys into a growing map.
+ *
+ * <p><b>putGrowing</b>: every operation puts the next key, and the map is re-created when it reaches <b>size</b>
+ * entries, so the table re-allocations fall into the measurement; JMH times only a sample of the operations, so
+ * the rare long ones can be missed. <b>fill</b> times every <b>put</b> while the map grows from empty to <b>size</b>
+ * entries, and reports the longest one as <b>maxPutMicros</b> (as well as the time of the whole fill).
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrowthBenchmark extends AbstractMapBenchmark {
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class MaxLatency {
+        public long maxPutMicros;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            maxPutMicros = 0;
+        }
+    }
+
+    private IntLongHashMap map;
+    private int[] keys;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        keys = hitKeys();
+        map = newMap();
+    }
+
+    @TearDown
+    public void tearDown() {
+        closeMap(map);
+    }
+
+    @Benchmark
+    public long putGrowing() {
+        if (index == keys.length) {
+            closeMap(map);
+            map = newMap();
+            index = 0;
+        }
+
+        return map.put(keys[index++], index);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public int fill(MaxLatency latency) {
+        IntLongHashMap filled = newMap();
+
+        long max = 0;
+        for (int i = 0; i < keys.length; i++) {
+            long start = System.nanoTime();
+            filled.put(keys[i], i);
+            max = Math.max(max, System.nanoTime() - start);
+        }
+        latency.maxPutMicros = Math.max(latency.maxPutMicros, TimeUnit.NANOSECONDS.toMicros(max));
+        int result = filled.size();
+        closeMap(filled);
+
+        return result;
+    }
+}
@@ -0,0 +1,89 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntHashSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generated {@link IntHashSet} against <b>HashSet&lt;Integer&gt;</b> with <b>size</b> uniform keys:
+ * the fill of an empty set, and <b>contains</b> of the present keys.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntHashSetBenchmark {
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+
+    private int[] keys;
+    private IntHashSet set;
+    private Set<Integer> boxedSet;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = KeyDistribution.UNIFORM.shuffledKeys(1, size);
+        set = fill();
+        boxedSet = boxedFill();
+    }
+
+    private int nextKey() {
+        int result = keys[index];
+        if (++index == keys.length) {
+            index = 0;
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public IntHashSet fill() {
+        IntHashSet result = new IntHashSet(AbstractMapBenchmark.INIT_CAPACITY);
+        for (int key : keys) {
+            result.add(key);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Set<Integer> boxedFill() {
+        Set<Integer> result = new HashSet<>(AbstractMapBenchmark.INIT_CAPACITY);
+        for (int key : keys) {
+            result.add(key);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return set.contains(nextKey());
+    }
+
+    @Benchmark
+    public boolean boxedContains() {
+        return boxedSet.contains(nextKey());
+    }
+}
@@ -0,0 +1,89 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntIntHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generated {@link IntIntHashMap} against <b>HashMap&lt;Integer, Integer&gt;</b> with <b>size</b> uniform keys:
+ * the fill of an empty map, and <b>get</b> of the present keys.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntIntHashMapBenchmark {
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+
+    private int[] keys;
+    private IntIntHashMap map;
+    private Map<Integer, Integer> boxedMap;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = KeyDistribution.UNIFORM.shuffledKeys(1, size);
+        map = fill();
+        boxedMap = boxedFill();
+    }
+
+    private int nextKey() {
+        int result = keys[index];
+        if (++index == keys.length) {
+            index = 0;
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public IntIntHashMap fill() {
+        IntIntHashMap result = new IntIntHashMap(AbstractMapBenchmark.INIT_CAPACITY);
+        for (int key : keys) {
+            result.put(key, key);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<Integer, Integer> boxedFill() {
+        Map<Integer, Integer> result = new HashMap<>(AbstractMapBenchmark.INIT_CAPACITY);
+        for (int key : keys) {
+            result.put(key, key);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public int get() {
+        return map.get(nextKey());
+    }
+
+    @Benchmark
+    public Integer boxedGet() {
+        return boxedMap.get(nextKey());
+    }
+}
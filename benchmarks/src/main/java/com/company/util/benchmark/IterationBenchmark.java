@@ -0,0 +1,71 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntLongCursor;
+import com.company.util.IntLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of a full pass over the entries: <b>forEach</b>, a reused cursor, and the sequential and parallel value
+ * streams. Run with <b>-prof gc</b> to see that <b>forEach</b> and the cursor allocate nothing per entry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IterationBenchmark extends AbstractMapBenchmark {
+    private IntLongHashMap map;
+    private IntLongCursor cursor;
+    private long sum;
+
+    @Setup
+    public void setUp() {
+        map = newFilledMap();
+        cursor = map.cursor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        closeMap(map);
+    }
+
+    @Benchmark
+    public long forEach() {
+        sum = 0;
+        map.forEach((key, value) -> sum += value);
+
+        return sum;
+    }
+
+    @Benchmark
+    public long cursor() {
+        long result = 0;
+
+        cursor.reset();
+        while (cursor.advance()) {
+            result += cursor.value();
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public long stream() {
+        return map.valueStream().sum();
+    }
+
+    @Benchmark
+    public long parallelStream() {
+        return map.valueStream().parallel().sum();
+    }
+}
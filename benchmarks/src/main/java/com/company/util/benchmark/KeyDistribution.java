@@ -0,0 +1,91 @@
+package com.company.util.benchmark;
+
+import java.util.Random;
+
+/**
+ * Key sets used by the benchmarks. {@link #key(int)} is a bijection, so keys with different indexes never repeat:
+ * keys <b>1..size</b> are stored in a map and keys <b>size + 1..2 * size</b> are guaranteed misses. Index 0 is never
+ * used, so the "null key" is never generated.
+ */
+public enum KeyDistribution {
+    // 1, 2, 3, ...
+    SEQUENTIAL {
+        @Override
+        public int key(int index) {
+            return index;
+        }
+    },
+
+    // Runs of CLUSTER_SIZE consecutive keys, the runs themselves are scattered over the whole int range
+    CLUSTERED {
+        @Override
+        public int key(int index) {
+            int cluster = (index >>> CLUSTER_SHIFT) * GOLDEN_RATIO & CLUSTER_MASK;
+
+            return (cluster << CLUSTER_SHIFT) | (index & (CLUSTER_SIZE - 1));
+        }
+    },
+
+    // Uniform "random" keys: Murmur3 finalizer is a bijection of int
+    UNIFORM {
+        @Override
+        public int key(int index) {
+            int h = index;
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            h ^= h >>> 16;
+
+            return h;
+        }
+    },
+
+    // Bit-reversed indexes: the low bits of all the "first" keys are the same, so a table indexed by low bits of
+    // identity hash puts them all into the same bucket
+    ADVERSARIAL {
+        @Override
+        public int key(int index) {
+            return Integer.reverse(index);
+        }
+    };
+
+    private static final int CLUSTER_SHIFT = 6;
+    private static final int CLUSTER_SIZE = 1 << CLUSTER_SHIFT;
+    private static final int CLUSTER_MASK = (1 << (Integer.SIZE - CLUSTER_SHIFT)) - 1;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private static final long SHUFFLE_SEED = 20170621L;
+
+    /**
+     * Returns the key with given index.
+     *
+     * @param index positive index of the key
+     * @return non-zero key, unique for given index
+     */
+    public abstract int key(int index);
+
+    /**
+     * Returns keys with indexes <b>from..from + count - 1</b> in the shuffled (but reproducible) order.
+     *
+     * @param from  index of the first key
+     * @param count quantity of keys
+     * @return shuffled keys
+     */
+    public int[] shuffledKeys(int from, int count) {
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = key(from + i);
+        }
+
+        Random random = new Random(SHUFFLE_SEED);
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int key = result[i];
+            result[i] = result[j];
+            result[j] = key;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,94 @@
+package com.company.util.benchmark;
+
+import com.company.util.LongHashSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generated {@link LongHashSet} against <b>HashSet&lt;Long&gt;</b> with <b>size</b> uniform keys:
+ * the fill of an empty set, and <b>contains</b> of the present keys.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongHashSetBenchmark {
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+
+    private long[] keys;
+    private LongHashSet set;
+    private Set<Long> boxedSet;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The keys differ in the high 32 bits as well as in the low ones
+        int[] intKeys = KeyDistribution.UNIFORM.shuffledKeys(1, size);
+        keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) intKeys[i] << 32) ^ intKeys[(i + 1) % size];
+        }
+        set = fill();
+        boxedSet = boxedFill();
+    }
+
+    private long nextKey() {
+        long result = keys[index];
+        if (++index == keys.length) {
+            index = 0;
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public LongHashSet fill() {
+        LongHashSet result = new LongHashSet(AbstractMapBenchmark.INIT_CAPACITY);
+        for (long key : keys) {
+            result.add(key);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Set<Long> boxedFill() {
+        Set<Long> result = new HashSet<>(AbstractMapBenchmark.INIT_CAPACITY);
+        for (long key : keys) {
+            result.add(key);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return set.contains(nextKey());
+    }
+
+    @Benchmark
+    public boolean boxedContains() {
+        return boxedSet.contains(nextKey());
+    }
+}
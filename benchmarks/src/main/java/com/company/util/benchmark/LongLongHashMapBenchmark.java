@@ -0,0 +1,94 @@
+package com.company.util.benchmark;
+
+import com.company.util.LongLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generated {@link LongLongHashMap} against <b>HashMap&lt;Long, Long&gt;</b> with <b>size</b> uniform keys:
+ * the fill of an empty map, and <b>get</b> of the present keys.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongLongHashMapBenchmark {
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+
+    private long[] keys;
+    private LongLongHashMap map;
+    private Map<Long, Long> boxedMap;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The keys differ in the high 32 bits as well as in the low ones
+        int[] intKeys = KeyDistribution.UNIFORM.shuffledKeys(1, size);
+        keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) intKeys[i] << 32) ^ intKeys[(i + 1) % size];
+        }
+        map = fill();
+        boxedMap = boxedFill();
+    }
+
+    private long nextKey() {
+        long result = keys[index];
+        if (++index == keys.length) {
+            index = 0;
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public LongLongHashMap fill() {
+        LongLongHashMap result = new LongLongHashMap(AbstractMapBenchmark.INIT_CAPACITY);
+        for (long key : keys) {
+            result.put(key, key);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<Long, Long> boxedFill() {
+        Map<Long, Long> result = new HashMap<>(AbstractMapBenchmark.INIT_CAPACITY);
+        for (long key : keys) {
+            result.put(key, key);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public long get() {
+        return map.get(nextKey());
+    }
+
+    @Benchmark
+    public Long boxedGet() {
+        return boxedMap.get(nextKey());
+    }
+}
@@ -0,0 +1,125 @@
+package com.company.util.benchmark;
+
+import com.company.util.ConcurrentIntLongHashMap;
+import com.company.util.IntHashStrategy;
+import com.company.util.IntLongHashMap;
+import com.company.util.IntLongHashMapCopyOnWrite;
+import com.company.util.IntLongHashMapIncremental;
+import com.company.util.IntLongHashMapInterleaved;
+import com.company.util.IntLongHashMapOffHeap;
+import com.company.util.IntLongHashMapOpenAddr;
+import com.company.util.IntLongHashMapRobinHood;
+import com.company.util.IntLongHashMapSegmented;
+import com.company.util.IntLongHashMapSwiss;
+
+/**
+ * The implementations under benchmark. Every new implementation of {@link IntLongHashMap} should be registered
+ * here to take part in all the benchmark suites.
+ */
+public enum MapType {
+    OPEN_ADDR {
+        @Override
+        public IntLongHashMap create(int initialCapacity, float loadFactor, float multiplier) {
+            return new IntLongHashMapOpenAddr(initialCapacity, loadFactor, multiplier);
+        }
+    },
+
+    OPEN_ADDR_POW2_MURMUR3 {
+        @Override
+        public IntLongHashMap create(int initialCapacity, float loadFactor, float multiplier) {
+            return new IntLongHashMapOpenAddr(initialCapacity, loadFactor, multiplier, Long.MIN_VALUE,
+                    IntHashStrategy.MURMUR3, true);
+        }
+    },
+
+    OPEN_ADDR_POW2_SEEDED {
+        @Override
+        public IntLongHashMap create(int initialCapacity, float loadFactor, float multiplier) {
+            return new IntLongHashMapOpenAddr(initialCapacity, loadFactor, multiplier, Long.MIN_VALUE,
+                    IntHashStrategy.randomSeeded(), true);
+        }
+    },
+
+    // Multiplier is ignored, the capacity is always doubled
+    ROBIN_HOOD {
+        @Override
+        public IntLongHashMap create(int initialCapacity, float loadFactor, float multiplier) {
+            return new IntLongHashMapRobinHood(initialCapacity, loadFactor);
+        }
+    },
+
+    // Multiplier is ignored, the capacity is always doubled
+    INCREMENTAL {
+        @Override
+        public IntLongHashMap create(int initialCapacity, float loadFactor, float multiplier) {
+            return new IntLongHashMapIncremental(initialCapacity, loadFactor);
+        }
+    },
+
+    // The same probing as OPEN_ADDR_POW2_MURMUR3 with the interleaved key/value layout, multiplier is ignored
+    INTERLEAVED {
+        @Override
+        public IntLongHashMap create(int initialCapacity, float loadFactor, float multiplier) {
+            return new IntLongHashMapInterleaved(initialCapacity, loadFactor);
+        }
+    },
+
+    // SwissTable-style control bytes and group probing, multiplier is ignored
+    SWISS {
+        @Override
+        public IntLongHashMap create(int initialCapacity, float loadFactor, float multiplier) {
+            return new IntLongHashMapSwiss(initialCapacity, loadFactor);
+        }
+    },
+
+    // The same probing as OPEN_ADDR_POW2_MURMUR3 with the table in direct memory, multiplier is ignored
+    OFF_HEAP {
+        @Override
+        public IntLongHashMap create(int initialCapacity, float loadFactor, float multiplier) {
+            return new IntLongHashMapOffHeap(initialCapacity, loadFactor);
+        }
+    },
+
+    // 64 independently growing segments with the same probing as OPEN_ADDR_POW2_MURMUR3, multiplier is ignored
+    SEGMENTED {
+        @Override
+        public IntLongHashMap create(int initialCapacity, float loadFactor, float multiplier) {
+            return new IntLongHashMapSegmented(initialCapacity, loadFactor);
+        }
+    },
+
+    // The same probing as OPEN_ADDR_POW2_MURMUR3 with the tables split into copy-on-write pages, multiplier is ignored
+    COPY_ON_WRITE {
+        @Override
+        public IntLongHashMap create(int initialCapacity, float loadFactor, float multiplier) {
+            return new IntLongHashMapCopyOnWrite(initialCapacity, loadFactor);
+        }
+    },
+
+    // Multiplier is ignored, the capacity is always doubled
+    CONCURRENT {
+        @Override
+        public IntLongHashMap create(int initialCapacity, float loadFactor, float multiplier) {
+            return new ConcurrentIntLongHashMap(initialCapacity, loadFactor);
+        }
+    },
+
+    // Baseline for CONCURRENT: IntLongHashMapOpenAddr (power-of-two, Murmur3) guarded by a global lock
+    SYNCHRONIZED_OPEN_ADDR {
+        @Override
+        public IntLongHashMap create(int initialCapacity, float loadFactor, float multiplier) {
+            return new SynchronizedIntLongHashMap(OPEN_ADDR_POW2_MURMUR3.create(initialCapacity, loadFactor,
+                    multiplier));
+        }
+    },
+
+    // Baseline: java.util.HashMap<Integer, Long>, multiplier is ignored
+    JDK_HASH_MAP {
+        @Override
+        public IntLongHashMap create(int initialCapacity, float loadFactor, float multiplier) {
+            return new BoxedIntLongHashMap(initialCapacity, loadFactor);
+        }
+    };
+
+    public abstract IntLongHashMap create(int initialCapacity, float loadFactor, float multiplier);
+}
@@ -0,0 +1,88 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntHashStrategy;
+import com.company.util.IntLongHashMapOffHeap;
+import com.company.util.IntLongHashMapOpenAddr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to get a map of <b>size</b> entries ready for the lookups: mapping of a file which is written by
+ * {@link IntLongHashMapOffHeap} (plus the lookups of the sample keys, which load their pages) against building of
+ * {@link IntLongHashMapOpenAddr} by a <b>put</b> loop, which is what a heap map needs on every start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class OffHeapStartupBenchmark {
+    private static final int SAMPLE_SIZE = 1000;
+
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    private Path file;
+    private int[] sampleKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("int-long-map", ".bin");
+        try (IntLongHashMapOffHeap map = IntLongHashMapOffHeap.create(file, size, 0.75f, Long.MIN_VALUE)) {
+            for (int i = 1; i <= size; i++) {
+                map.put(KeyDistribution.UNIFORM.key(i), i);
+            }
+        }
+        sampleKeys = KeyDistribution.UNIFORM.shuffledKeys(1, SAMPLE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long openFile() throws IOException {
+        long result = 0;
+        try (IntLongHashMapOffHeap map = IntLongHashMapOffHeap.open(file, false)) {
+            for (int key : sampleKeys) {
+                result += map.get(key);
+            }
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public long rebuildOnHeap() {
+        IntLongHashMapOpenAddr map = new IntLongHashMapOpenAddr(AbstractMapBenchmark.INIT_CAPACITY, 0.75f, 2.0f,
+                Long.MIN_VALUE, IntHashStrategy.MURMUR3, true);
+        for (int i = 1; i <= size; i++) {
+            map.put(KeyDistribution.UNIFORM.key(i), i);
+        }
+
+        long result = 0;
+        for (int key : sampleKeys) {
+            result += map.get(key);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,87 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntHashStrategy;
+import com.company.util.IntLongHashMapOpenAddr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building of {@link IntLongHashMapOpenAddr} (power-of-two capacity, Murmur3) of <b>size</b> entries from arrays:
+ * by {@link IntLongHashMapOpenAddr#build} with a pool of <b>threads</b> threads (<b>0</b> means the number of the
+ * processors) against a loop of <b>put</b> into a growing map and <b>putAll</b> into an empty one. The speedup of
+ * <b>build</b> is measured by its runs with different <b>threads</b>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelBuildBenchmark {
+    @Param({"10000000", "100000000"})
+    private int size;
+
+    @Param({"1", "0"})
+    private int threads;
+
+    private int[] keys;
+    private long[] values;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = KeyDistribution.UNIFORM.shuffledKeys(1, size);
+        values = new long[size];
+        Arrays.fill(values, 1);
+        pool = new ForkJoinPool((threads > 0) ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private static IntLongHashMapOpenAddr newMap() {
+        return new IntLongHashMapOpenAddr(AbstractMapBenchmark.INIT_CAPACITY, 0.75f, 2.0f, Long.MIN_VALUE,
+                IntHashStrategy.MURMUR3, true);
+    }
+
+    @Benchmark
+    public IntLongHashMapOpenAddr putLoop() {
+        IntLongHashMapOpenAddr result = newMap();
+        for (int i = 0; i < keys.length; i++) {
+            result.put(keys[i], values[i]);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public IntLongHashMapOpenAddr putAll() {
+        IntLongHashMapOpenAddr result = newMap();
+        result.putAll(keys, values, 0, keys.length);
+
+        return result;
+    }
+
+    @Benchmark
+    public IntLongHashMapOpenAddr build() {
+        return IntLongHashMapOpenAddr.build(keys, values, 0.75f, 2.0f, Long.MIN_VALUE, IntHashStrategy.MURMUR3, true,
+                pool);
+    }
+}
@@ -0,0 +1,64 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <b>put</b> benchmarks: throughput and latency percentiles of replacing the value of a present key ("hit"), and
+ * the time of filling an empty map with <b>size</b> new keys ("miss", including all the table re-allocations; the
+ * filled map is closed, so only its size is returned).
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PutBenchmark extends AbstractMapBenchmark {
+    private IntLongHashMap map;
+    private int[] hitKeys;
+    private int hitIndex;
+
+    @Setup
+    public void setUp() {
+        map = newFilledMap();
+        hitKeys = hitKeys();
+    }
+
+    @TearDown
+    public void tearDown() {
+        closeMap(map);
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    public long putHit() {
+        int key = hitKeys[hitIndex];
+        if (++hitIndex == hitKeys.length) {
+            hitIndex = 0;
+        }
+
+        return map.put(key, hitIndex);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public int fill() {
+        IntLongHashMap filled = newFilledMap();
+        int result = filled.size();
+        closeMap(filled);
+
+        return result;
+    }
+}
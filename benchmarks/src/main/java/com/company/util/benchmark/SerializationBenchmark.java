@@ -0,0 +1,142 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntHashStrategy;
+import com.company.util.IntLongHashMapOpenAddr;
+import com.company.util.IntLongHashMapSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving and loading of a map of <b>size</b> entries to and from a file: both formats of
+ * {@link IntLongHashMapSerializer} against the Java serialization of <b>HashMap&lt;Integer, Long&gt;</b>, which
+ * is what a map has to be converted to without the binary format. The throughput in GB/s is the size of the
+ * entries (12 bytes each) divided by the time of an operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    private IntLongHashMapOpenAddr map;
+    private Map<Integer, Long> boxedMap;
+    private Path rawFile;
+    private Path compactFile;
+    private Path javaFile;
+    private Path outputFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        map = new IntLongHashMapOpenAddr(AbstractMapBenchmark.INIT_CAPACITY, 0.75f, 2.0f, Long.MIN_VALUE,
+                IntHashStrategy.MURMUR3, true);
+        boxedMap = new HashMap<>();
+        for (int i = 1; i <= size; i++) {
+            map.put(KeyDistribution.UNIFORM.key(i), i);
+            boxedMap.put(KeyDistribution.UNIFORM.key(i), (long) i);
+        }
+
+        rawFile = Files.createTempFile("int-long-map", ".raw");
+        compactFile = Files.createTempFile("int-long-map", ".compact");
+        javaFile = Files.createTempFile("int-long-map", ".ser");
+        outputFile = Files.createTempFile("int-long-map", ".out");
+        writeRaw(rawFile);
+        writeCompact(compactFile);
+        writeJava(javaFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(rawFile);
+        Files.deleteIfExists(compactFile);
+        Files.deleteIfExists(javaFile);
+        Files.deleteIfExists(outputFile);
+    }
+
+    private void writeRaw(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            IntLongHashMapSerializer.writeRaw(map, channel);
+        }
+    }
+
+    private void writeCompact(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            IntLongHashMapSerializer.writeCompact(map, channel);
+        }
+    }
+
+    private void writeJava(Path file) throws IOException {
+        try (ObjectOutputStream output = new ObjectOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.TRUNCATE_EXISTING)))) {
+            output.writeObject(boxedMap);
+        }
+    }
+
+    private static IntLongHashMapOpenAddr read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return IntLongHashMapSerializer.read(channel);
+        }
+    }
+
+    @Benchmark
+    public void saveRaw() throws IOException {
+        writeRaw(outputFile);
+    }
+
+    @Benchmark
+    public void saveCompact() throws IOException {
+        writeCompact(outputFile);
+    }
+
+    @Benchmark
+    public void saveJava() throws IOException {
+        writeJava(outputFile);
+    }
+
+    @Benchmark
+    public IntLongHashMapOpenAddr loadRaw() throws IOException {
+        return read(rawFile);
+    }
+
+    @Benchmark
+    public IntLongHashMapOpenAddr loadCompact() throws IOException {
+        return read(compactFile);
+    }
+
+    @Benchmark
+    public Object loadJava() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream input = new ObjectInputStream(new BufferedInputStream(
+                Files.newInputStream(javaFile)))) {
+            return input.readObject();
+        }
+    }
+}
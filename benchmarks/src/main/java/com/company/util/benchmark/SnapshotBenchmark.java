@@ -0,0 +1,79 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntHashStrategy;
+import com.company.util.IntLongHashMap;
+import com.company.util.IntLongHashMapCopyOnWrite;
+import com.company.util.IntLongHashMapOpenAddr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point-in-time copy of a map of <b>size</b> entries followed by <b>churn</b> updates of the map:
+ * {@link IntLongHashMapCopyOnWrite#snapshot()}, whose cost is the copying of the pages touched by the updates,
+ * against a full copy of {@link IntLongHashMapOpenAddr} (power-of-two capacity, Murmur3) into a presized map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    @Param({"1000", "100000"})
+    private int churn;
+
+    private IntLongHashMapCopyOnWrite copyOnWrite;
+    private IntLongHashMapOpenAddr openAddr;
+    private int[] churnKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        copyOnWrite = new IntLongHashMapCopyOnWrite(AbstractMapBenchmark.INIT_CAPACITY);
+        openAddr = newOpenAddr(AbstractMapBenchmark.INIT_CAPACITY);
+        for (int i = 1; i <= size; i++) {
+            copyOnWrite.put(KeyDistribution.UNIFORM.key(i), i);
+            openAddr.put(KeyDistribution.UNIFORM.key(i), i);
+        }
+        churnKeys = KeyDistribution.UNIFORM.shuffledKeys(1, churn);
+    }
+
+    private static IntLongHashMapOpenAddr newOpenAddr(int initialCapacity) {
+        return new IntLongHashMapOpenAddr(initialCapacity, 0.75f, 2.0f, Long.MIN_VALUE, IntHashStrategy.MURMUR3, true);
+    }
+
+    @Benchmark
+    public IntLongHashMap snapshot() {
+        IntLongHashMap result = copyOnWrite.snapshot();
+        for (int key : churnKeys) {
+            copyOnWrite.addTo(key, 1);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public IntLongHashMap fullCopy() {
+        IntLongHashMapOpenAddr result = newOpenAddr((int) (openAddr.size() / 0.75f) + 1);
+        openAddr.forEach(result::put);
+        for (int key : churnKeys) {
+            openAddr.addTo(key, 1);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntLongHashMapSpilling;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link IntLongHashMapSpilling} with the heap budget of <b>budgetMegabytes</b> as the working set of
+ * <b>size</b> uniform keys crosses the budget (a table slot takes 12 bytes, and a table is 1/0.75 to 2/0.75 times
+ * bigger than its keys): <b>get</b> of the present keys and <b>addTo</b> of them in a random order, which touches
+ * all the partitions, the spilled ones included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class SpillBenchmark {
+    @Param({"64"})
+    private int budgetMegabytes;
+
+    @Param({"1000000", "4000000", "16000000", "32000000"})
+    private int size;
+
+    private Path directory;
+    private IntLongHashMapSpilling map;
+    private int[] keys;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("spill");
+        map = new IntLongHashMapSpilling(directory, budgetMegabytes * 1024L * 1024L);
+        for (int i = 1; i <= size; i++) {
+            map.put(KeyDistribution.UNIFORM.key(i), i);
+        }
+        keys = KeyDistribution.UNIFORM.shuffledKeys(1, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        map.close();
+        Files.delete(directory);
+    }
+
+    private int nextKey() {
+        int result = keys[index];
+        if (++index == keys.length) {
+            index = 0;
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public long get() {
+        return map.get(nextKey());
+    }
+
+    @Benchmark
+    public long addTo() {
+        return map.addTo(nextKey(), 1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntHashStrategy;
+import com.company.util.IntLongHashMapOpenAddr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the statistics of {@link IntLongHashMapOpenAddr}: <b>get</b> and <b>put</b> with the statistics
+ * disabled (<b>-p stats=false</b>, which should match {@link GetBenchmark} and {@link PutBenchmark}) and enabled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsBenchmark {
+    @Param({"false", "true"})
+    private boolean stats;
+
+    @Param({"1000", "10000000"})
+    private int size;
+
+    private IntLongHashMapOpenAddr map;
+    private int[] hitKeys;
+    private int[] missKeys;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        map = new IntLongHashMapOpenAddr(AbstractMapBenchmark.INIT_CAPACITY, 0.75f, 2.0f, Long.MIN_VALUE,
+                IntHashStrategy.MURMUR3, true);
+        map.setStatsEnabled(stats);
+        for (int i = 1; i <= size; i++) {
+            map.put(KeyDistribution.UNIFORM.key(i), i);
+        }
+        hitKeys = KeyDistribution.UNIFORM.shuffledKeys(1, size);
+        missKeys = KeyDistribution.UNIFORM.shuffledKeys(size + 1, size);
+    }
+
+    private int nextIndex() {
+        int result = index;
+        if (++index == hitKeys.length) {
+            index = 0;
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public long getHit() {
+        return map.get(hitKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public long getMiss() {
+        return map.get(missKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public long putHit() {
+        int i = nextIndex();
+
+        return map.put(hitKeys[i], i);
+    }
+}
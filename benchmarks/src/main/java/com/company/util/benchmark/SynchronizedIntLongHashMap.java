@@ -0,0 +1,86 @@
+package com.company.util.benchmark;
+
+import com.company.util.IntLongCursor;
+import com.company.util.IntLongConsumer;
+import com.company.util.IntLongHashMap;
+
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * {@link IntLongHashMap} guarded by a global lock: the way a single-threaded implementation is shared between
+ * threads, and the baseline for the concurrent one. The cursor is not guarded: the iteration should be synchronized
+ * on the map by the caller.
+ */
+public class SynchronizedIntLongHashMap implements IntLongHashMap {
+    private final IntLongHashMap map;
+
+    public SynchronizedIntLongHashMap(IntLongHashMap map) {
+        this.map = map;
+    }
+
+    @Override
+    public long getNoEntryValue() {
+        return map.getNoEntryValue();
+    }
+
+    @Override
+    public synchronized long get(int key) {
+        return map.get(key);
+    }
+
+    @Override
+    public synchronized long put(int key, long value) {
+        return map.put(key, value);
+    }
+
+    @Override
+    public synchronized long getOrDefault(int key, long defaultValue) {
+        return map.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public synchronized long putIfAbsent(int key, long value) {
+        return map.putIfAbsent(key, value);
+    }
+
+    @Override
+    public synchronized long addTo(int key, long increment) {
+        return map.addTo(key, increment);
+    }
+
+    @Override
+    public synchronized long merge(int key, long value, LongBinaryOperator remappingFunction) {
+        return map.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public synchronized long compute(int key, LongUnaryOperator remappingFunction) {
+        return map.compute(key, remappingFunction);
+    }
+
+    @Override
+    public IntLongCursor cursor() {
+        return map.cursor();
+    }
+
+    @Override
+    public synchronized void forEach(IntLongConsumer action) {
+        map.forEach(action);
+    }
+
+    @Override
+    public synchronized boolean containsKey(int key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public synchronized long remove(int key) {
+        return map.remove(key);
+    }
+
+    @Override
+    public synchronized int size() {
+        return map.size();
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * JMH benchmarks for the {@link com.company.util.IntLongHashMap} implementations.
+ *
+ * <p>Build and run (the tested artifact has to be installed first):
+ * <pre>
+ *     mvn                                   # in the root directory
+ *     mvn -f benchmarks/pom.xml
+ *     java -jar benchmarks/target/benchmarks.jar -rf json -rff result.json
+ * </pre>
+ *
+ * Every benchmark is parameterized by {@link com.company.util.benchmark.MapType}, so adding a new implementation
+ * to that enum makes it a part of all the suites, and the JSON result of a run can be compared against the previous
+ * one as a regression gate. Large sizes need a large heap, e.g. <b>-jvmArgsAppend -Xmx16g</b> for 100M entries;
+ * a single point can be chosen with <b>-p size=1000000 -p distribution=UNIFORM</b>.
+ */
+package com.company.util.benchmark;
@@ -0,0 +1,48 @@
+package com.company.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the memory of a direct (or memory-mapped) buffer immediately, instead of waiting for the buffer to be
+ * collected. It uses <b>sun.misc.Unsafe.invokeCleaner</b>, which exists since Java 9; on the runtimes without it the
+ * release is left to the garbage collector.
+ *
+ * <p>The buffer must not be accessed after the release: it is the responsibility of the caller.
+ */
+final class BufferCleaner {
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // The release is left to the garbage collector
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private BufferCleaner() {
+    }
+
+    static void clean(ByteBuffer buffer) {
+        if (INVOKE_CLEANER != null && buffer != null && buffer.isDirect()) {
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // The release is left to the garbage collector
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.company.util;
+
+/**
+ * Helpers of the bulk operations of {@link IntLongHashMap} implementations.
+ */
+final class BulkOperations {
+    /**
+     * The number of keys whose table indexes are calculated (and whose first slots are loaded) before any of them is
+     * probed, so that the cache misses of the group overlap instead of being paid one after another.
+     */
+    static final int BATCH_SIZE = 16;
+
+    private static final String ILLEGAL_RANGE_PATTERN = "Illegal range: offset %d, length %d, array lengths %d and %d";
+
+    private BulkOperations() {
+    }
+
+    // Both arrays should contain the range [off, off + len)
+    static void checkRange(int keysLength, int valuesLength, int off, int len) {
+        if (off < 0 || len < 0 || off + len < 0 || off + len > keysLength || off + len > valuesLength) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_RANGE_PATTERN, off, len, keysLength, valuesLength));
+        }
+    }
+}
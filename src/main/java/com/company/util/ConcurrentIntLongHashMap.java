@@ -0,0 +1,934 @@
+package com.company.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Thread-safe {@link IntLongHashMap} implementation with open addressing and linear probing, without a map-wide
+ * lock: the lookups never wait, the removals and the moves of the entries to a new table are made by CAS, and the
+ * only threads which wait for each other are the writers of the same key (for the write of one value).
+ *
+ * <p>Every slot of the table is described by a long "keyword", which holds the key, the state of the slot and a
+ * stamp, and a long value. A slot is claimed by a key once and for all (until the table is replaced): a removed key
+ * leaves a "dead" slot, and its next insertion takes a new slot. Transitions between the states are made by CAS
+ * on the keyword, and every write of the value changes the stamp, so:
+ * <ul>
+ *     <li><b>get</b> and <b>containsKey</b> take no locks and never wait: they read the keyword, the value and check
+ *     that the key is still in the slot;</li>
+ *     <li>a writer holds the slot of a key (by CAS on its keyword) only for the time of a value write (<b>put</b>,
+ *     <b>addAndGet</b>; the functions of <b>merge</b> and <b>compute</b> are applied before it), the other writers
+ *     and the removals of the same key spin (with {@link Thread#yield()}) until it is released. This is blocking:
+ *     a writer which is descheduled while it holds the slot delays the other writers of its key;</li>
+ *     <li>a removal reads the value and replaces the keyword by a "dead" one by a single CAS, which fails if the
+ *     value has been written since the keyword was read (the stamp is changed);</li>
+ *     <li>when the table is full, a new one is allocated, and all the threads which modify the map help to move
+ *     the entries into it by chunks (cooperative resizing). An entry is "frozen" in its slot first, and any thread
+ *     which meets the frozen slot can complete its move, so a move never waits for the thread which has started
+ *     it; a slot which is held by a writer is left to that writer, which moves the entry after its write. The
+ *     readers follow the "moved" marks to the new table in the meantime.</li>
+ * </ul>
+ *
+ * <p>The "null key" (<b>0</b>) is kept separately, the same way as in {@link IntLongHashMapOpenAddr}, as an
+ * immutable holder, which is replaced by CAS (so only the modifications of the key <b>0</b> allocate memory).
+ * {@link #size()} is a sum of striped counters, which is exact only if there are no concurrent modifications.
+ *
+ * <p>The iteration ({@link #cursor()}, {@link #forEach(IntLongConsumer)} and the stream views) is weakly consistent:
+ * it never fails because of concurrent modifications, it reports every entry which is present during the whole
+ * iteration exactly once, and the entries which are inserted or removed concurrently may or may not be reported.
+ */
+
+public class ConcurrentIntLongHashMap implements IntLongHashMap {
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private static final int INIT_CAPACITY_DEFAULT_VALUE = 16;
+    private static final float LOAD_FACTOR_DEFAULT_VALUE = 0.75f;
+    private static final long NO_ENTRY_VALUE_DEFAULT_VALUE = Long.MIN_VALUE;
+
+    // How many slots are moved to the new table by a thread at a time
+    private static final int TRANSFER_CHUNK = 1024;
+
+    private static final String ILLEGAL_INITIAL_CAPACITY_PATTERN = "Illegal initial capacity: %d";
+    private static final String ILLEGAL_LOAD_FACTOR_PATTERN = "Illegal load factor: : %f";
+    private static final String ILLEGAL_HASH_STRATEGY = "Illegal hash strategy: null";
+
+    // Keyword: the low 32 bits are the key, the next 28 bits are the stamp, the high 4 bits are the state of the
+    // slot. "Empty" keyword is 0, "sealed" (an empty slot which can't be claimed any more because the table is being
+    // replaced) is MOVED with the key 0 (the "null key" is never kept in the table). The stamp is changed by every
+    // write of the value, so a keyword which is read twice tells that the value has not been written in between
+    private static final int STAMP_SHIFT = Integer.SIZE;
+    private static final int STATE_SHIFT = 60;
+    private static final long STAMP_MASK = (1L << (STATE_SHIFT - STAMP_SHIFT)) - 1;
+    private static final long EMPTY = 0;
+    private static final int INSERTING = 1;         // the slot is claimed by the key, the value is being written
+    private static final int PRESENT = 2;
+    private static final int LOCKED = 3;            // the value is being written
+    private static final int DEAD = 4;              // the key is removed, the slot is never used again
+    private static final int MOVED = 5;             // the key is moved to the new table
+    private static final int FROZEN = 6;            // the key is being moved to the new table, the value is final
+    private static final int INSERTING_MOVING = 7;  // INSERTING, then the writer moves the key to the new table
+    private static final int LOCKED_MOVING = 8;     // LOCKED, then the writer moves the key to the new table
+
+    // Modes of <update>
+    private static final int MODE_PUT = 0;
+    private static final int MODE_PUT_IF_ABSENT = 1;
+    private static final int MODE_ADD = 2;              // returns the previous value
+    private static final int MODE_ADD_AND_GET = 3;      // returns the new value
+    private static final int MODE_MERGE = 4;
+    private static final int MODE_COMPUTE = 5;
+    private static final int MODE_TRANSFER = 6;
+
+    private final float loadFactor;
+    private final long noEntryValue;
+    private final IntHashStrategy hashStrategy;
+
+    private final AtomicReference<Table> table;
+    private final AtomicReference<NullEntry> nullEntry = new AtomicReference<>();
+    private final LongAdder size = new LongAdder();
+
+    private static final class Table {
+        final int capacity;
+        final int mask;
+        final int limit;
+        final AtomicLongArray keywords;
+        final AtomicLongArray values;
+        // Quantity of claimed slots (including "dead" ones)
+        final LongAdder claimed = new LongAdder();
+
+        // Resizing: the table which replaces this one, the start of the next chunk to transfer
+        // and the quantity of transferred slots
+        final AtomicReference<Table> next = new AtomicReference<>();
+        final AtomicInteger resizing = new AtomicInteger();
+        final AtomicInteger transferIndex = new AtomicInteger();
+        final AtomicInteger transferred = new AtomicInteger();
+
+        Table(int capacity, float loadFactor) {
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+            this.limit = LinearProbing.limitFor(capacity, loadFactor);
+            keywords = new AtomicLongArray(capacity);
+            values = new AtomicLongArray(capacity);
+        }
+    }
+
+    private static final class NullEntry {
+        final long value;
+
+        NullEntry(long value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Constructs an empty <b>ConcurrentIntLongHashMap</b> with the specified initial capacity, load factor,
+     * long value that represents a null value in this map and hash strategy.
+     * The initial capacity is rounded up to the nearest power of two.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  noEntryValue    a long value that represents a null value in this map
+     * @param  hashStrategy    the hash strategy of the keys
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     *         or the hash strategy is null
+     */
+    public ConcurrentIntLongHashMap(int initialCapacity, float loadFactor, long noEntryValue,
+                                    IntHashStrategy hashStrategy) {
+        if (initialCapacity < 1 || initialCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_INITIAL_CAPACITY_PATTERN, initialCapacity));
+        }
+        if (Float.isNaN(loadFactor) || loadFactor <= 0 || loadFactor > 1.0) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_LOAD_FACTOR_PATTERN, loadFactor));
+        }
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException(ILLEGAL_HASH_STRATEGY);
+        }
+
+        this.loadFactor = loadFactor;
+        this.noEntryValue = noEntryValue;
+        this.hashStrategy = hashStrategy;
+
+        table = new AtomicReference<>(new Table(LinearProbing.tableSizeFor(initialCapacity), loadFactor));
+    }
+
+    /**
+     * Constructs an empty <b>ConcurrentIntLongHashMap</b> with the specified initial capacity, load factor and
+     * long value that represents a null value in this map, and Murmur3 hash strategy.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  noEntryValue    a long value that represents a null value in this map
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public ConcurrentIntLongHashMap(int initialCapacity, float loadFactor, long noEntryValue) {
+        this(initialCapacity, loadFactor, noEntryValue, IntHashStrategy.MURMUR3);
+    }
+
+    /**
+     * Constructs an empty <b>ConcurrentIntLongHashMap</b> with the specified initial capacity and load factor,
+     * Murmur3 hash strategy and the default long value that represents a null value in
+     * this map (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public ConcurrentIntLongHashMap(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, NO_ENTRY_VALUE_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>ConcurrentIntLongHashMap</b> with the specified initial capacity,
+     * the default load factor (<b>0.75</b>), Murmur3 hash strategy and default
+     * long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     */
+    public ConcurrentIntLongHashMap(int initialCapacity) {
+        this(initialCapacity, LOAD_FACTOR_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>ConcurrentIntLongHashMap</b> with the default initial capacity (<b>16</b>),
+     * default load factor (<b>0.75</b>), Murmur3 hash strategy and default
+     * long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     */
+    public ConcurrentIntLongHashMap() {
+        this(INIT_CAPACITY_DEFAULT_VALUE);
+    }
+
+    /**
+     * Returns the value that will be returned from {@link #get(int)} or {@link #put(int, long)} if no entry exists for a given key.
+     * The default value is <b>-9223372036854775808</b>, but can be changed during construction of the map.
+     *
+     * @return the value that represents a null value in this map
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    private static long keyword(int key, int state, long stamp) {
+        return ((long) state << STATE_SHIFT) | ((stamp & STAMP_MASK) << STAMP_SHIFT) | (key & 0xFFFFFFFFL);
+    }
+
+    private static long keyword(int key, int state) {
+        return keyword(key, state, 0);
+    }
+
+    // The same keyword in another state
+    private static long withState(long keyword, int state) {
+        return keyword(keyOf(keyword), state, stampOf(keyword));
+    }
+
+    private static int keyOf(long keyword) {
+        return (int) keyword;
+    }
+
+    private static int stateOf(long keyword) {
+        return (int) (keyword >>> STATE_SHIFT);
+    }
+
+    private static long stampOf(long keyword) {
+        return (keyword >>> STAMP_SHIFT) & STAMP_MASK;
+    }
+
+    // Whether the key of the slot is in the table (the keyword of a claimed slot never changes its key)
+    private static boolean isLive(long keyword) {
+        int state = stateOf(keyword);
+
+        return state == PRESENT || state == LOCKED || state == LOCKED_MOVING || state == FROZEN;
+    }
+
+    // Whether the slot is held by a writer of its key
+    private static boolean isHeld(int state) {
+        return state == INSERTING || state == LOCKED || state == INSERTING_MOVING || state == LOCKED_MOVING;
+    }
+
+    // The slot is held by another writer of the same key (for a few writes, the functions of merge and compute are
+    // never applied while a slot is held), or the new table is being allocated
+    private static void waitForSlot() {
+        Thread.yield();
+    }
+
+    // The value to associate with the key in the given mode; <current> is ignored if the key is absent
+    private long newValue(int mode, boolean present, long current, long value, LongBinaryOperator merger,
+                          LongUnaryOperator computer) {
+        long result = value;
+
+        if (mode == MODE_ADD || mode == MODE_ADD_AND_GET) {
+            result = present ? current + value : value;
+        } else if (mode == MODE_MERGE) {
+            result = present ? merger.applyAsLong(current, value) : value;
+        } else if (mode == MODE_COMPUTE) {
+            result = computer.applyAsLong(present ? current : noEntryValue);
+        }
+
+        return result;
+    }
+
+    // The result of <update> in the given mode
+    private long updateResult(int mode, boolean present, long current, long newValue) {
+        long result;
+
+        if (mode == MODE_ADD_AND_GET || mode == MODE_MERGE || mode == MODE_COMPUTE) {
+            result = newValue;
+        } else {
+            result = present ? current : noEntryValue;
+        }
+
+        return result;
+    }
+
+    private int indexFor(Table table, int key) {
+        return hashStrategy.hash(key) & table.mask;
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // Resizing
+    // ----------------------------------------------------------------------------------------------------------------
+
+    private void startResize(Table table) {
+        if (table.resizing.compareAndSet(0, 1)) {
+            // Only "dead" slots can be dropped: the table is rebuilt with the same capacity if there are many of them
+            long liveSize = size.sum();
+            int newCapacity = (liveSize >= table.limit / 2) ? Math.min(table.capacity << 1, MAXIMUM_CAPACITY) :
+                    table.capacity;
+            table.next.set(new Table(newCapacity, loadFactor));
+        }
+    }
+
+    // Returns the table which replaces the given one (waiting if it is being allocated by another thread)
+    private Table nextTable(Table table) {
+        Table result;
+        while ((result = table.next.get()) == null) {
+            startResize(table);
+            waitForSlot();
+        }
+
+        return result;
+    }
+
+    private void helpTransfer(Table table) {
+        Table next = nextTable(table);
+
+        int start;
+        while (table.transferIndex.get() < table.capacity &&
+                (start = table.transferIndex.getAndAdd(TRANSFER_CHUNK)) < table.capacity) {
+            int end = Math.min(start + TRANSFER_CHUNK, table.capacity);
+            int moved = 0;
+            for (int index = start; index < end; index++) {
+                if (transferSlot(table, next, index)) {
+                    moved++;
+                }
+            }
+            if (moved > 0 && table.transferred.addAndGet(moved) == table.capacity) {
+                promote();
+            }
+        }
+    }
+
+    // Replaces the current table by its successor if all the entries are transferred into it
+    private void promote() {
+        Table current;
+        Table next;
+        while ((current = table.get()).transferred.get() == current.capacity && (next = current.next.get()) != null) {
+            table.compareAndSet(current, next);
+        }
+    }
+
+    // Moves the entry of the slot to the new table, or leaves it to the writer which holds the slot; returns whether
+    // the slot is done (otherwise the writer counts it as transferred)
+    private boolean transferSlot(Table table, Table next, int index) {
+        AtomicLongArray keywords = table.keywords;
+
+        while (true) {
+            long keyword = keywords.get(index);
+            int state = stateOf(keyword);
+
+            if (keyword == EMPTY) {
+                if (keywords.compareAndSet(index, EMPTY, keyword(0, MOVED))) {
+                    return true;
+                }
+            } else if (state == PRESENT) {
+                long frozen = withState(keyword, FROZEN);
+                if (keywords.compareAndSet(index, keyword, frozen)) {
+                    moveFrozen(table, next, index, frozen);
+                    return true;
+                }
+            } else if (state == INSERTING || state == LOCKED) {
+                int moving = (state == INSERTING) ? INSERTING_MOVING : LOCKED_MOVING;
+                if (keywords.compareAndSet(index, keyword, withState(keyword, moving))) {
+                    return false;
+                }
+            } else {
+                // Dead: there is nothing to move
+                return true;
+            }
+        }
+    }
+
+    // Puts the entry of the frozen slot into the new table, unless it is there already, and marks the slot "moved".
+    // Any thread which meets the frozen slot can do it, the value of the slot is never written any more
+    private void moveFrozen(Table table, Table next, int index, long frozen) {
+        int key = keyOf(frozen);
+        update(next, key, table.values.get(index), MODE_TRANSFER, null, null);
+        table.keywords.compareAndSet(index, frozen, keyword(key, MOVED));
+    }
+
+    // Releases the slot which is held by this writer: if a resize has met the slot in the meantime, the writer moves
+    // the entry itself and counts the slot as transferred
+    private void release(Table table, int index, long held, long released) {
+        if (!table.keywords.compareAndSet(index, held, released)) {
+            // Only the resize changes a held keyword
+            long frozen = withState(released, FROZEN);
+            table.keywords.set(index, frozen);
+            moveFrozen(table, table.next.get(), index, frozen);
+            if (table.transferred.incrementAndGet() == table.capacity) {
+                promote();
+            }
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // Table operations
+    // ----------------------------------------------------------------------------------------------------------------
+
+    private Table writableTable() {
+        Table result = table.get();
+        if (result.next.get() != null) {
+            helpTransfer(result);
+            result = table.get();
+        }
+
+        return result;
+    }
+
+    private long find(Table table, int key, long defaultValue) {
+        while (true) {
+            AtomicLongArray keywords = table.keywords;
+            int index = indexFor(table, key);
+
+            probing:
+            for (int probes = 0; probes < table.capacity; probes++, index = (index + 1) & table.mask) {
+                while (true) {
+                    long keyword = keywords.get(index);
+                    if (keyword == EMPTY) {
+                        return defaultValue;
+                    }
+
+                    int state = stateOf(keyword);
+                    if (keyOf(keyword) != key) {
+                        if (keyOf(keyword) == 0) {
+                            // Sealed slot: the key can be only in the new table
+                            break probing;
+                        }
+                        continue probing;
+                    }
+
+                    if (isLive(keyword)) {
+                        long value = table.values.get(index);
+                        if (isLive(keywords.get(index))) {
+                            return value;
+                        }
+                    } else if (state == INSERTING || state == INSERTING_MOVING) {
+                        return defaultValue;
+                    } else if (state == DEAD) {
+                        continue probing;
+                    } else {
+                        break probing;
+                    }
+                }
+            }
+
+            Table next = table.next.get();
+            if (next == null) {
+                return defaultValue;
+            }
+            table = next;
+        }
+    }
+
+    // The functions are applied before the CAS, so they can be applied several times under contention
+    private long update(Table table, int key, long value, int mode, LongBinaryOperator merger,
+                        LongUnaryOperator computer) {
+        while (true) {
+            AtomicLongArray keywords = table.keywords;
+            AtomicLongArray values = table.values;
+            int index = indexFor(table, key);
+
+            probing:
+            for (int probes = 0; probes < table.capacity; probes++, index = (index + 1) & table.mask) {
+                while (true) {
+                    long keyword = keywords.get(index);
+                    if (keyword == EMPTY) {
+                        long newValue = newValue(mode, false, 0, value, merger, computer);
+                        long inserting = keyword(key, INSERTING);
+                        if (keywords.compareAndSet(index, EMPTY, inserting)) {
+                            values.set(index, newValue);
+                            release(table, index, inserting, keyword(key, PRESENT));
+                            if (mode != MODE_TRANSFER) {
+                                size.increment();
+                            }
+                            table.claimed.increment();
+                            if (table.claimed.sum() >= table.limit) {
+                                startResize(table);
+                            }
+
+                            return updateResult(mode, false, 0, newValue);
+                        }
+                        continue;
+                    }
+
+                    int state = stateOf(keyword);
+                    if (keyOf(keyword) != key) {
+                        if (keyOf(keyword) == 0) {
+                            break probing;
+                        }
+                        continue probing;
+                    }
+
+                    if (mode == MODE_TRANSFER && state != INSERTING && state != INSERTING_MOVING) {
+                        // The key is moved here already (a key is never put to the new table before its move)
+                        return noEntryValue;
+                    }
+
+                    if (state == PRESENT) {
+                        long current = values.get(index);
+                        if (mode == MODE_PUT_IF_ABSENT) {
+                            if (keywords.get(index) == keyword) {
+                                return current;
+                            }
+                            continue;
+                        }
+
+                        // The stamp is the same, so the value is not written since <current> is read
+                        long newValue = newValue(mode, true, current, value, merger, computer);
+                        long locked = withState(keyword, LOCKED);
+                        if (keywords.compareAndSet(index, keyword, locked)) {
+                            values.set(index, newValue);
+                            release(table, index, locked, keyword(key, PRESENT, stampOf(keyword) + 1));
+
+                            return updateResult(mode, true, current, newValue);
+                        }
+                    } else if (state == FROZEN) {
+                        moveFrozen(table, table.next.get(), index, keyword);
+                    } else if (state == DEAD) {
+                        continue probing;
+                    } else if (state == MOVED) {
+                        break probing;
+                    } else {
+                        waitForSlot();
+                    }
+                }
+            }
+
+            // There is no place for the key in this table: it is (or has to be) in the new one
+            startResize(table);
+            helpTransfer(table);
+            table = nextTable(table);
+        }
+    }
+
+    private long delete(Table table, int key) {
+        while (true) {
+            AtomicLongArray keywords = table.keywords;
+            int index = indexFor(table, key);
+
+            probing:
+            for (int probes = 0; probes < table.capacity; probes++, index = (index + 1) & table.mask) {
+                while (true) {
+                    long keyword = keywords.get(index);
+                    if (keyword == EMPTY) {
+                        return noEntryValue;
+                    }
+
+                    int state = stateOf(keyword);
+                    if (keyOf(keyword) != key) {
+                        if (keyOf(keyword) == 0) {
+                            break probing;
+                        }
+                        continue probing;
+                    }
+
+                    if (state == PRESENT) {
+                        // The stamp is changed by every write, so the value is the one of the replaced keyword
+                        long result = table.values.get(index);
+                        if (keywords.compareAndSet(index, keyword, keyword(key, DEAD))) {
+                            size.decrement();
+
+                            return result;
+                        }
+                    } else if (state == FROZEN) {
+                        moveFrozen(table, table.next.get(), index, keyword);
+                    } else if (isHeld(state)) {
+                        waitForSlot();
+                    } else if (state == DEAD) {
+                        continue probing;
+                    } else {
+                        break probing;
+                    }
+                }
+            }
+
+            Table next = table.next.get();
+            if (next == null) {
+                return noEntryValue;
+            }
+            helpTransfer(table);
+            table = next;
+        }
+    }
+
+    private boolean contains(Table table, int key) {
+        while (true) {
+            AtomicLongArray keywords = table.keywords;
+            int index = indexFor(table, key);
+
+            probing:
+            for (int probes = 0; probes < table.capacity; probes++, index = (index + 1) & table.mask) {
+                while (true) {
+                    long keyword = keywords.get(index);
+                    if (keyword == EMPTY) {
+                        return false;
+                    }
+
+                    int state = stateOf(keyword);
+                    if (keyOf(keyword) != key) {
+                        if (keyOf(keyword) == 0) {
+                            break probing;
+                        }
+                        continue probing;
+                    }
+
+                    if (isLive(keyword)) {
+                        return true;
+                    } else if (state == INSERTING || state == INSERTING_MOVING) {
+                        return false;
+                    } else if (state == DEAD) {
+                        continue probing;
+                    } else {
+                        break probing;
+                    }
+                }
+            }
+
+            Table next = table.next.get();
+            if (next == null) {
+                return false;
+            }
+            table = next;
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // "Null key"
+    // ----------------------------------------------------------------------------------------------------------------
+
+    private long updateNullEntry(long value, int mode, LongBinaryOperator merger, LongUnaryOperator computer) {
+        while (true) {
+            NullEntry current = nullEntry.get();
+            boolean present = current != null;
+            long currentValue = present ? current.value : noEntryValue;
+            if (present && mode == MODE_PUT_IF_ABSENT) {
+                return currentValue;
+            }
+
+            long newValue = newValue(mode, present, currentValue, value, merger, computer);
+            if (nullEntry.compareAndSet(current, new NullEntry(newValue))) {
+                return updateResult(mode, present, currentValue, newValue);
+            }
+        }
+    }
+
+    private long update(int key, long value, int mode, LongBinaryOperator merger, LongUnaryOperator computer) {
+        return (key == 0) ? updateNullEntry(value, mode, merger, computer) :
+                update(writableTable(), key, value, mode, merger, computer);
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // Public API
+    // ----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or the value which is returned by {@link #getNoEntryValue()} if this map contains no mapping for the key.
+     *
+     * <p>A return {@link #getNoEntryValue()} value does not <i>necessarily</i>
+     * indicate that the map contains no mapping for the key; it's also
+     * possible that the map explicitly maps the key to {@link #getNoEntryValue()}.
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@link #getNoEntryValue()} if this map contains no mapping for the key
+     * @see #getNoEntryValue
+     * @see #put(int, long)
+     */
+    @Override
+    public long get(int key) {
+        long result;
+
+        if (key == 0) {
+            NullEntry entry = nullEntry.get();
+            result = (entry == null) ? noEntryValue : entry.value;
+        } else {
+            result = find(table.get(), key, noEntryValue);
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old value is replaced by the specified value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     * @see #get(int)
+     */
+    @Override
+    public long put(int key, long value) {
+        return update(key, value, MODE_PUT, null, null);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     * no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the value to return if this map contains no mapping for the key
+     * @return the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     *         no mapping for the key
+     */
+    @Override
+    public long getOrDefault(int key, long defaultValue) {
+        long result;
+
+        if (key == 0) {
+            NullEntry entry = nullEntry.get();
+            result = (entry == null) ? defaultValue : entry.value;
+        } else {
+            result = find(table.get(), key, defaultValue);
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map, if the key is not already associated
+     * with a value. The check and the association are made atomically.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the current value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key (and the value is associated now)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long putIfAbsent(int key, long value) {
+        return update(key, value, MODE_PUT_IF_ABSENT, null, null);
+    }
+
+    /**
+     * Atomically adds the increment to the value associated with the specified key. If there is no mapping for
+     * the key, the key is associated with the increment (as if it was associated with <b>0</b>).
+     *
+     * @param key key with which the value is associated
+     * @param increment the value to add
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long addTo(int key, long increment) {
+        return update(key, increment, MODE_ADD, null, null);
+    }
+
+    /**
+     * Atomically adds the given delta to the value associated with the specified key. If there is no mapping for
+     * the key, the key is associated with the delta.
+     *
+     * @param key key with which the value is associated
+     * @param delta the value to add
+     * @return the updated value
+     */
+    public long addAndGet(int key, long delta) {
+        return update(key, delta, MODE_ADD_AND_GET, null, null);
+    }
+
+    /**
+     * Atomically associates the specified key with the specified value if there is no mapping for the key,
+     * otherwise replaces the associated value with the result of <b>remappingFunction</b> applied to the associated
+     * value and the specified value. The function can be applied several times if the value is changed concurrently,
+     * so it should have no side effects.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be associated if there is no mapping for the key
+     * @param remappingFunction the function to combine the associated value and the specified value
+     * @return the new value associated with the specified key
+     */
+    @Override
+    public long merge(int key, long value, LongBinaryOperator remappingFunction) {
+        return update(key, value, MODE_MERGE, remappingFunction, null);
+    }
+
+    /**
+     * Atomically associates the specified key with the result of <b>remappingFunction</b> applied to the value which
+     * is associated with the key, or to {@link #getNoEntryValue()} if there is no mapping for the key. The function
+     * can be applied several times if the value is changed concurrently, so it should have no side effects.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param remappingFunction the function to compute the value
+     * @return the new value associated with the specified key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long compute(int key, LongUnaryOperator remappingFunction) {
+        return update(key, 0, MODE_COMPUTE, null, remappingFunction);
+    }
+
+    /**
+     * Returns <b>true</b> if this map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return <b>true</b> if this map contains a mapping for the specified key
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return (key == 0) ? nullEntry.get() != null : contains(table.get(), key);
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     * The slot of the key is not reused until the table is rebuilt.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long remove(int key) {
+        long result;
+
+        if (key == 0) {
+            NullEntry entry = nullEntry.getAndSet(null);
+            result = (entry == null) ? noEntryValue : entry.value;
+        } else {
+            result = delete(writableTable(), key);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a new weakly consistent cursor over the entries of this map, the entry with the key <b>0</b> included.
+     * The cursor goes over the table which is current at its creation (or reset); the entries which are moved by a
+     * concurrent resize are looked up in the new table. The cursor does not create any objects while it moves over
+     * the entries.
+     *
+     * @return a cursor over the entries of this map
+     */
+    @Override
+    public IntLongCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     * The result is exact only if there are no concurrent modifications of the map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    @Override
+    public int size() {
+        int result = (int) size.sum();
+
+        return (nullEntry.get() != null) ? result + 1 : result;
+    }
+
+    private final class Cursor implements IntLongCursor {
+        private Table cursorTable;
+        private int index;
+        private NullEntry cursorNullEntry;
+        private int key;
+        private long value;
+
+        Cursor() {
+            reset();
+        }
+
+        @Override
+        public boolean advance() {
+            boolean result = false;
+
+            while (!result && index < cursorTable.capacity) {
+                result = readSlot(index++);
+            }
+
+            if (!result && cursorNullEntry != null) {
+                key = 0;
+                value = cursorNullEntry.value;
+                cursorNullEntry = null;
+                result = true;
+            }
+
+            return result;
+        }
+
+        // Reads the entry of the slot into <key> and <value>, returns <b>false</b> if there is no entry
+        private boolean readSlot(int index) {
+            while (true) {
+                long keyword = cursorTable.keywords.get(index);
+                int state = stateOf(keyword);
+
+                if (isLive(keyword)) {
+                    long slotValue = cursorTable.values.get(index);
+                    if (isLive(cursorTable.keywords.get(index))) {
+                        key = keyOf(keyword);
+                        value = slotValue;
+                        return true;
+                    }
+                } else if (state == MOVED && keyOf(keyword) != 0) {
+                    // The entry can be reported only from here: the new table is not iterated
+                    Table next = cursorTable.next.get();
+                    key = keyOf(keyword);
+                    value = find(next, key, noEntryValue);
+                    return value != noEntryValue || contains(next, key);
+                } else {
+                    // Empty, inserting (not visible yet), dead or sealed
+                    return false;
+                }
+            }
+        }
+
+        @Override
+        public int key() {
+            return key;
+        }
+
+        @Override
+        public long value() {
+            return value;
+        }
+
+        @Override
+        public void reset() {
+            cursorTable = writableTable();
+            index = 0;
+            cursorNullEntry = nullEntry.get();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.util;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Adapters of {@link IntLongCursor} to the primitive iterators of its keys and its values, which the default stream
+ * views of {@link IntLongHashMap} are built on.
+ */
+final class CursorIterators {
+    private CursorIterators() {
+    }
+
+    static PrimitiveIterator.OfInt keys(IntLongCursor cursor) {
+        return new PrimitiveIterator.OfInt() {
+            private final Lookahead lookahead = new Lookahead(cursor);
+
+            @Override
+            public boolean hasNext() {
+                return lookahead.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                lookahead.next();
+
+                return cursor.key();
+            }
+        };
+    }
+
+    static PrimitiveIterator.OfLong values(IntLongCursor cursor) {
+        return new PrimitiveIterator.OfLong() {
+            private final Lookahead lookahead = new Lookahead(cursor);
+
+            @Override
+            public boolean hasNext() {
+                return lookahead.hasNext();
+            }
+
+            @Override
+            public long nextLong() {
+                lookahead.next();
+
+                return cursor.value();
+            }
+        };
+    }
+
+    // <hasNext> advances the cursor ahead of <next>, so it has to remember whether it has done it
+    private static final class Lookahead {
+        private final IntLongCursor cursor;
+        private boolean advanced;
+        private boolean hasNext;
+
+        Lookahead(IntLongCursor cursor) {
+            this.cursor = cursor;
+        }
+
+        boolean hasNext() {
+            if (!advanced) {
+                hasNext = cursor.advance();
+                advanced = true;
+            }
+
+            return hasNext;
+        }
+
+        void next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            advanced = false;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.company.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Strategy of calculation of the hash code of an int key, which is used to determine the index of the key in a hash
+ * table. Hash tables with power-of-two capacity use only the low bits of the hash code, so the strategy should mix
+ * all the bits of the key into them.
+ */
+public interface IntHashStrategy {
+    /**
+     * The key itself. It is the cheapest one, but sequential or strided keys form long clusters in the table.
+     */
+    IntHashStrategy IDENTITY = key -> key;
+
+    /**
+     * Murmur3 finalizer (fmix32): all the bits of the key affect all the bits of the hash code.
+     */
+    IntHashStrategy MURMUR3 = IntHashStrategy::fmix32;
+
+    /**
+     * Calculates the hash code of the key.
+     *
+     * @param key the key
+     * @return the hash code of the key
+     */
+    int hash(int key);
+
+    /**
+     * Returns Murmur3 hash strategy, that mixes the given seed into every key, so the key set which forces the
+     * worst-case probing can not be chosen without knowledge of the seed.
+     *
+     * @param seed the seed
+     * @return seeded hash strategy
+     */
+    static IntHashStrategy seeded(int seed) {
+        return key -> fmix32(key ^ seed);
+    }
+
+    /**
+     * Returns Murmur3 hash strategy with a random seed, to be used by a single map instance.
+     *
+     * @return hash strategy with a random seed
+     * @see #seeded(int)
+     */
+    static IntHashStrategy randomSeeded() {
+        return seeded(ThreadLocalRandom.current().nextInt());
+    }
+
+    /**
+     * Murmur3 32-bit finalizer. It is a bijection, so different keys always have different hash codes.
+     *
+     * @param value the value to mix
+     * @return mixed value
+     */
+    static int fmix32(int value) {
+        int h = value;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+
+        return h;
+    }
+}
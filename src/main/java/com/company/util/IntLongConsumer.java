@@ -0,0 +1,18 @@
+package com.company.util;
+
+/**
+ * Operation that accepts an <b>int</b> key and a <b>long</b> value of an entry of {@link IntLongHashMap}
+ * and returns no result.
+ *
+ * @see IntLongHashMap#forEach(IntLongConsumer)
+ */
+@FunctionalInterface
+public interface IntLongConsumer {
+    /**
+     * Performs this operation on the given entry.
+     *
+     * @param key the key of the entry
+     * @param value the value of the entry
+     */
+    void accept(int key, long value);
+}
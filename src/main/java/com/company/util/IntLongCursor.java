@@ -0,0 +1,49 @@
+package com.company.util;
+
+/**
+ * Cursor over the entries of {@link IntLongHashMap}. Unlike an iterator, it does not create any objects while it
+ * moves over the entries, and it can be reused for another pass by {@link #reset()}.
+ *
+ * <p>Typical usage:
+ * <pre>
+ *     IntLongCursor cursor = map.cursor();
+ *     while (cursor.advance()) {
+ *         sum += cursor.value();
+ *     }
+ * </pre>
+ *
+ * <p>The result of the iteration is unspecified if the map is structurally modified during it, unless the
+ * implementation of the map states otherwise.
+ *
+ * @see IntLongHashMap#cursor()
+ */
+public interface IntLongCursor {
+    /**
+     * Moves the cursor to the next entry of the map.
+     *
+     * @return <b>true</b> if the cursor is moved to an entry, <b>false</b> if there are no more entries
+     */
+    boolean advance();
+
+    /**
+     * Returns the key of the current entry. The result is unspecified if the last call of {@link #advance()} returned
+     * <b>false</b> or there was no such call.
+     *
+     * @return the key of the current entry
+     */
+    int key();
+
+    /**
+     * Returns the value of the current entry. The result is unspecified if the last call of {@link #advance()}
+     * returned <b>false</b> or there was no such call.
+     *
+     * @return the value of the current entry
+     */
+    long value();
+
+    /**
+     * Moves the cursor before the first entry of the map, so that the map can be iterated again. The entries which
+     * are put after the cursor creation are visible after the reset.
+     */
+    void reset();
+}
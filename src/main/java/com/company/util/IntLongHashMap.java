@@ -1,5 +1,13 @@
 package com.company.util;
 
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
 /**
  * Implemented by Yevhen Khomiak on 21.06.2017.
  */
@@ -42,6 +50,226 @@ public interface IntLongHashMap {
      */
     long put(int key, long value);
 
+    /**
+     * Returns <b>true</b> if this map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return <b>true</b> if this map contains a mapping for the specified key
+     */
+    boolean containsKey(int key);
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     */
+    long remove(int key);
+
+    /**
+     * Returns the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     * no mapping for the key.
+     *
+     * <p>The default implementation probes the map twice; implementations are encouraged to override it.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the value to return if this map contains no mapping for the key
+     * @return the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     *         no mapping for the key
+     */
+    default long getOrDefault(int key, long defaultValue) {
+        return containsKey(key) ? get(key) : defaultValue;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map, if the key is not already associated
+     * with a value.
+     *
+     * <p>The default implementation probes the map twice; implementations are encouraged to override it.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the current value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key (and the value is associated now)
+     * @see #getNoEntryValue
+     */
+    default long putIfAbsent(int key, long value) {
+        return containsKey(key) ? get(key) : put(key, value);
+    }
+
+    /**
+     * Adds the increment to the value associated with the specified key. If there is no mapping for the key,
+     * the key is associated with the increment (as if it was associated with <b>0</b>).
+     *
+     * <p>The default implementation probes the map twice; implementations are encouraged to override it.
+     *
+     * @param key key with which the value is associated
+     * @param increment the value to add
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key
+     * @see #getNoEntryValue
+     */
+    default long addTo(int key, long increment) {
+        return containsKey(key) ? put(key, get(key) + increment) : put(key, increment);
+    }
+
+    /**
+     * Associates the specified key with the specified value if there is no mapping for the key, otherwise
+     * replaces the associated value with the result of <b>remappingFunction</b> applied to the associated value
+     * and the specified value.
+     *
+     * <p>The default implementation probes the map twice; implementations are encouraged to override it.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be associated if there is no mapping for the key
+     * @param remappingFunction the function to combine the associated value and the specified value
+     * @return the new value associated with the specified key
+     */
+    default long merge(int key, long value, LongBinaryOperator remappingFunction) {
+        long result = containsKey(key) ? remappingFunction.applyAsLong(get(key), value) : value;
+        put(key, result);
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the result of <b>remappingFunction</b> applied to the value which is
+     * associated with the key, or to {@link #getNoEntryValue()} if there is no mapping for the key.
+     *
+     * <p>The default implementation probes the map twice; implementations are encouraged to override it.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param remappingFunction the function to compute the value
+     * @return the new value associated with the specified key
+     * @see #getNoEntryValue
+     */
+    default long compute(int key, LongUnaryOperator remappingFunction) {
+        long result = remappingFunction.applyAsLong(get(key));
+        put(key, result);
+
+        return result;
+    }
+
+    /**
+     * Associates the values from <b>values[off .. off + len - 1]</b> with the keys from <b>keys[off .. off + len - 1]</b>
+     * in this map, as if by <b>put(keys[i], values[i])</b> for each index in ascending order (so the last value wins
+     * for a repeated key).
+     *
+     * <p>The default implementation puts the entries one by one; implementations are encouraged to override it.
+     *
+     * @param keys the keys with which the values are to be associated
+     * @param values the values to be associated with the keys
+     * @param off the index of the first entry in the arrays
+     * @param len the number of the entries
+     * @throws IllegalArgumentException if the range is out of the bounds of either array
+     */
+    default void putAll(int[] keys, long[] values, int off, int len) {
+        BulkOperations.checkRange(keys.length, values.length, off, len);
+
+        for (int i = off; i < off + len; i++) {
+            put(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Writes to <b>out[i]</b> the value to which <b>keys[i]</b> is mapped, or {@link #getNoEntryValue()} if this map
+     * contains no mapping for the key, for each index of <b>keys</b>.
+     *
+     * <p>The default implementation looks the keys up one by one; implementations are encouraged to override it.
+     *
+     * @param keys the keys whose associated values are to be returned
+     * @param out the array for the values, which is not shorter than <b>keys</b>
+     * @throws IllegalArgumentException if <b>out</b> is shorter than <b>keys</b>
+     * @see #getNoEntryValue
+     */
+    default void getAll(int[] keys, long[] out) {
+        BulkOperations.checkRange(keys.length, out.length, 0, keys.length);
+
+        for (int i = 0; i < keys.length; i++) {
+            out[i] = get(keys[i]);
+        }
+    }
+
+    /**
+     * Returns a new cursor over the entries of this map, the entry with the key <b>0</b> included. The cursor does not
+     * create any objects while it moves over the entries; the order of the entries is unspecified.
+     *
+     * @return a cursor over the entries of this map
+     */
+    IntLongCursor cursor();
+
+    /**
+     * Performs the given action for each entry of this map, the entry with the key <b>0</b> included, in unspecified
+     * order. The result is unspecified if the action modifies the map.
+     *
+     * <p>The default implementation iterates over the entries by a {@link #cursor()}.
+     *
+     * @param action the action to be performed for each entry
+     */
+    default void forEach(IntLongConsumer action) {
+        IntLongCursor cursor = cursor();
+        while (cursor.advance()) {
+            action.accept(cursor.key(), cursor.value());
+        }
+    }
+
+    /**
+     * Returns a sequential stream of the keys of this map, the key <b>0</b> included if it is mapped. The stream can
+     * be made parallel by {@link IntStream#parallel()}.
+     *
+     * <p>The default implementation is based on a {@link #cursor()}, so it splits poorly; implementations are
+     * encouraged to override it.
+     *
+     * @return a stream of the keys of this map
+     */
+    default IntStream keyStream() {
+        return StreamSupport.intStream(Spliterators.spliteratorUnknownSize(CursorIterators.keys(cursor()),
+                Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns a sequential stream of the values of this map, the value of the key <b>0</b> included if it is mapped.
+     * The stream can be made parallel by {@link LongStream#parallel()}.
+     *
+     * <p>The default implementation is based on a {@link #cursor()}, so it splits poorly; implementations are
+     * encouraged to override it.
+     *
+     * @return a stream of the values of this map
+     */
+    default LongStream valueStream() {
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(CursorIterators.values(cursor()),
+                Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this map (probe lengths, rebuildings, load and memory), or <b>null</b>
+     * if the implementation does not collect them. The implementations which collect the statistics keep them
+     * disabled by default, so that they cost (almost) nothing.
+     *
+     * <p>The default implementation returns <b>null</b>.
+     *
+     * @return a snapshot of the statistics of this map, or <b>null</b>
+     * @see IntLongHashMapStats#register(String, IntLongHashMap)
+     */
+    default IntLongHashMapStats getStats() {
+        return null;
+    }
+
+    /**
+     * Returns an immutable copy of this map for the read-only workloads: {@link IntLongHashMapFrozen}, which finds
+     * a key by a minimal perfect hash with two memory accesses and keeps the entries at 99% occupancy. The copy is
+     * independent of this map and can be shared between threads without synchronization.
+     *
+     * @return an immutable copy of this map
+     */
+    default IntLongHashMap freeze() {
+        return IntLongHashMapFrozen.of(this);
+    }
+
     /**
      * Returns the number of key-value mappings in this map.
      *
@@ -0,0 +1,680 @@
+package com.company.util;
+
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Bounded {@link IntLongHashMap} for the lookup caches: it holds up to <b>maximumSize</b> entries in a table of
+ * fixed capacity (open addressing, linear probing, power-of-two capacity, Murmur3 hashing), which is never
+ * re-allocated. When a new key is put into a full cache, an entry is evicted by the CLOCK algorithm: a "hand" walks
+ * over the slots, clears the reference bits of the entries which were used since its previous pass, and evicts the
+ * first entry whose bit is already clear.
+ *
+ * <p>The reference bits are kept in a <b>boolean[]</b> parallel to the keys and values (and moved with them by the
+ * backward-shift deletion), so neither a lookup nor an eviction creates any objects. {@link #get(int)} and
+ * {@link #getOrDefault(int, long)} are the lookups of the cache: they set the reference bit of a found entry and
+ * count the hits and the misses; the entries put or updated by the other methods are marked as referenced too.
+ *
+ * <p>The entry with the key <b>0</b> is kept aside of the table, as in the other implementations: it is never
+ * evicted and does not count against <b>maximumSize</b>.
+ */
+
+public class IntLongHashMapClockCache implements IntLongHashMap {
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final int MAXIMUM_SIZE = 1 << 29;
+
+    private static final float LOAD_FACTOR_DEFAULT_VALUE = 0.75f;
+    private static final long NO_ENTRY_VALUE_DEFAULT_VALUE = Long.MIN_VALUE;
+
+    private static final String ILLEGAL_MAXIMUM_SIZE_PATTERN = "Illegal maximum size: %d";
+    private static final String ILLEGAL_LOAD_FACTOR_PATTERN = "Illegal load factor: : %f";
+
+    private final int maximumSize;
+    private final long noEntryValue;
+    private final IntHashStrategy hashStrategy = IntHashStrategy.MURMUR3;
+
+    private final int[] keys;
+    private final long[] values;
+    private final boolean[] referenced;
+    private final int mask;
+    private int size;
+    private int hand;
+    private boolean entryWithNullKeyIsAssociated;
+    private long nullValue;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    // Null while the statistics are disabled
+    private StatsRecorder stats;
+
+    /**
+     * Constructs an empty <b>IntLongHashMapClockCache</b> with the specified maximum size, load factor and
+     * long value that represents a null value in this map. The capacity of the table is the smallest power of two
+     * which holds <b>maximumSize</b> entries at the load factor (with at least one free slot).
+     *
+     * @param  maximumSize  the maximum number of the entries (besides the one with the key <b>0</b>)
+     * @param  loadFactor   the load factor of the full cache
+     * @param  noEntryValue a long value that represents a null value in this map
+     * @throws IllegalArgumentException if the maximum size is less than <b>1</b> or more than <b>536870912</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapClockCache(int maximumSize, float loadFactor, long noEntryValue) {
+        if (maximumSize < 1 || maximumSize > MAXIMUM_SIZE) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_MAXIMUM_SIZE_PATTERN, maximumSize));
+        }
+        if (Float.isNaN(loadFactor) || loadFactor <= 0 || loadFactor > 1.0) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_LOAD_FACTOR_PATTERN, loadFactor));
+        }
+
+        this.maximumSize = maximumSize;
+        this.noEntryValue = noEntryValue;
+        nullValue = noEntryValue;
+
+        int capacity = LinearProbing.tableSizeFor(
+                (int) Math.min((long) Math.ceil(maximumSize / (double) loadFactor), MAXIMUM_CAPACITY));
+        // The table never grows, so a full cache should still leave an "empty" slot
+        if (capacity == maximumSize) {
+            capacity <<= 1;
+        }
+
+        keys = new int[capacity];
+        values = new long[capacity];
+        referenced = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapClockCache</b> with the specified maximum size and load factor,
+     * and the default long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     * @param  maximumSize the maximum number of the entries (besides the one with the key <b>0</b>)
+     * @param  loadFactor  the load factor of the full cache
+     * @throws IllegalArgumentException if the maximum size is less than <b>1</b> or more than <b>536870912</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapClockCache(int maximumSize, float loadFactor) {
+        this(maximumSize, loadFactor, NO_ENTRY_VALUE_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapClockCache</b> with the specified maximum size, the default load factor
+     * (<b>0.75</b>) and default long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     * @param  maximumSize the maximum number of the entries (besides the one with the key <b>0</b>)
+     * @throws IllegalArgumentException if the maximum size is less than <b>1</b> or more than <b>536870912</b>
+     */
+    public IntLongHashMapClockCache(int maximumSize) {
+        this(maximumSize, LOAD_FACTOR_DEFAULT_VALUE);
+    }
+
+    /**
+     * Returns the value that will be returned from {@link #get(int)} or {@link #put(int, long)} if no entry exists for a given key.
+     * The default value is <b>-9223372036854775808</b>, but can be changed during construction of the map.
+     *
+     * @return the value that represents a null value in this map
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    /**
+     * Returns the maximum number of the entries of this cache (besides the one with the key <b>0</b>).
+     *
+     * @return the maximum number of the entries
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the number of the lookups ({@link #get(int)} and {@link #getOrDefault(int, long)}) which found the key.
+     *
+     * @return the number of the hits
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of the lookups ({@link #get(int)} and {@link #getOrDefault(int, long)}) which did not find
+     * the key.
+     *
+     * @return the number of the misses
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of the entries which were evicted to make room for new keys.
+     *
+     * @return the number of the evictions
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Sets the hit, miss and eviction counters to <b>0</b>.
+     */
+    public void resetCounters() {
+        hitCount = 0;
+        missCount = 0;
+        evictionCount = 0;
+    }
+
+    private int nextIndex(int index) {
+        return (index + 1) & mask;
+    }
+
+    // The index of the key, or <-1> if the key is absent
+    private int getIndex(int key) {
+        int result = -1;
+
+        int index = hashStrategy.hash(key) & mask;
+        while (keys[index] != 0 && keys[index] != key) {
+            index = nextIndex(index);
+        }
+        if (keys[index] == key) {
+            result = index;
+        }
+
+        return result;
+    }
+
+    // <getIndex> for the single-key lookups, which records the probe length while the statistics are enabled
+    private int lookup(int key) {
+        int result = getIndex(key);
+
+        if (stats != null) {
+            recordLookup(hashStrategy.hash(key) & mask, result);
+        }
+
+        return result;
+    }
+
+    // The probe length of a hit is counted up to the key, of a miss up to the "empty" slot
+    private void recordLookup(int home, int index) {
+        if (index >= 0) {
+            stats.recordHit(((index - home) & mask) + 1);
+        } else {
+            int probeLength = 1;
+            for (int i = home; keys[i] != 0; i = nextIndex(i)) {
+                probeLength++;
+            }
+            stats.recordMiss(probeLength);
+        }
+    }
+
+    // Single probe for the modifying operations: returns the index of the key if it is present, or
+    // <-(index of the "empty" slot where the key should be put) - 1>. A full cache evicts an entry first, and
+    // probes again, because the eviction can shift the cluster of the key
+    private int getInsertionIndex(int key) {
+        int index = hashStrategy.hash(key) & mask;
+        while (keys[index] != 0 && keys[index] != key) {
+            index = nextIndex(index);
+        }
+
+        int result = index;
+        if (keys[index] != key) {
+            if (size >= maximumSize) {
+                evict();
+                result = getInsertionIndex(key);
+            } else {
+                result = -index - 1;
+            }
+        }
+
+        return result;
+    }
+
+    private void insert(int insertionIndex, int key, long value) {
+        int index = -insertionIndex - 1;
+
+        keys[index] = key;
+        values[index] = value;
+        referenced[index] = true;
+        size++;
+    }
+
+    // CLOCK: the hand gives a second chance to the referenced entries and evicts the first unreferenced one.
+    // The hand stays at the evicted slot, which can receive the next entry of the cluster by the backward shift
+    private void evict() {
+        boolean evicted = false;
+
+        while (!evicted) {
+            if (keys[hand] != 0) {
+                if (referenced[hand]) {
+                    referenced[hand] = false;
+                } else {
+                    rawRemove(hand);
+                    evictionCount++;
+                    evicted = true;
+                }
+            }
+            if (!evicted) {
+                hand = nextIndex(hand);
+            }
+        }
+    }
+
+    // The reference bits move back with the entries
+    private void rawRemove(int index) {
+        int gap = index;
+        int current = nextIndex(gap);
+        while (keys[current] != 0) {
+            if (LinearProbing.isOnProbePath(gap, hashStrategy.hash(keys[current]) & mask, current, mask)) {
+                keys[gap] = keys[current];
+                values[gap] = values[current];
+                referenced[gap] = referenced[current];
+                gap = current;
+            }
+            current = nextIndex(current);
+        }
+
+        keys[gap] = 0;
+        values[gap] = 0;
+        referenced[gap] = false;
+        size--;
+    }
+
+    // Sets the reference bit only if it is clear, so that the hot entries do not dirty the cache lines of the bits
+    private void reference(int index) {
+        if (!referenced[index]) {
+            referenced[index] = true;
+        }
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or the value which is returned by {@link #getNoEntryValue()} if this map contains no mapping for the key.
+     * A found entry is marked as referenced, and the lookup is counted as a hit or a miss.
+     *
+     * <p>A return {@link #getNoEntryValue()} value does not <i>necessarily</i>
+     * indicate that the map contains no mapping for the key; it's also
+     * possible that the map explicitly maps the key to {@link #getNoEntryValue()}.
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@link #getNoEntryValue()} if this map contains no mapping for the key
+     * @see #getNoEntryValue
+     * @see #put(int, long)
+     */
+    @Override
+    public long get(int key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old value is replaced by the specified value.
+     * If the key is new and the cache is full, an entry is evicted.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     * @see #get(int)
+     */
+    @Override
+    public long put(int key, long value) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = value;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = values[index];
+                values[index] = value;
+                reference(index);
+            } else {
+                insert(index, key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns <b>true</b> if this map contains a mapping for the specified key. The entry is not marked as
+     * referenced, and the counters are not changed.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return <b>true</b> if this map contains a mapping for the specified key
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return (key == 0) ? entryWithNullKeyIsAssociated : lookup(key) >= 0;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long remove(int key) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = noEntryValue;
+            entryWithNullKeyIsAssociated = false;
+        } else {
+            int index = lookup(key);
+            if (index >= 0) {
+                result = values[index];
+                rawRemove(index);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     * no mapping for the key. A found entry is marked as referenced, and the lookup is counted as a hit or a miss.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the value to return if this map contains no mapping for the key
+     * @return the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     *         no mapping for the key
+     */
+    @Override
+    public long getOrDefault(int key, long defaultValue) {
+        long result = defaultValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        } else {
+            int index = lookup(key);
+            if (index >= 0) {
+                result = values[index];
+                reference(index);
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map, if the key is not already associated
+     * with a value. If the key is new and the cache is full, an entry is evicted.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the current value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key (and the value is associated now)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long putIfAbsent(int key, long value) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+            } else {
+                nullValue = value;
+                entryWithNullKeyIsAssociated = true;
+            }
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = values[index];
+                reference(index);
+            } else {
+                insert(index, key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds the increment to the value associated with the specified key. If there is no mapping for the key, the key
+     * is associated with the increment (as if it was associated with <b>0</b>), and an entry is evicted if the cache
+     * is full.
+     *
+     * @param key key with which the value is associated
+     * @param increment the value to add
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long addTo(int key, long increment) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+                nullValue += increment;
+            } else {
+                nullValue = increment;
+                entryWithNullKeyIsAssociated = true;
+            }
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = values[index];
+                values[index] += increment;
+                reference(index);
+            } else {
+                insert(index, key, increment);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the specified value if there is no mapping for the key (an entry is evicted
+     * if the cache is full), otherwise replaces the associated value with the result of <b>remappingFunction</b>
+     * applied to the associated value and the specified value.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be associated if there is no mapping for the key
+     * @param remappingFunction the function to combine the associated value and the specified value
+     * @return the new value associated with the specified key
+     */
+    @Override
+    public long merge(int key, long value, LongBinaryOperator remappingFunction) {
+        long result = value;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = remappingFunction.applyAsLong(nullValue, value);
+            }
+            nullValue = result;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = remappingFunction.applyAsLong(values[index], value);
+                values[index] = result;
+                reference(index);
+            } else {
+                insert(index, key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the result of <b>remappingFunction</b> applied to the value which is
+     * associated with the key, or to {@link #getNoEntryValue()} if there is no mapping for the key (an entry is
+     * evicted if the cache is full).
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param remappingFunction the function to compute the value
+     * @return the new value associated with the specified key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long compute(int key, LongUnaryOperator remappingFunction) {
+        long result;
+
+        if (key == 0) {
+            result = remappingFunction.applyAsLong(nullValue);
+            nullValue = result;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = remappingFunction.applyAsLong(values[index]);
+                values[index] = result;
+                reference(index);
+            } else {
+                result = remappingFunction.applyAsLong(noEntryValue);
+                insert(index, key, result);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a new cursor over the entries of this map, the entry with the key <b>0</b> included. The cursor reads
+     * the table directly, does not create any objects while it moves over the entries and does not mark them as
+     * referenced.
+     *
+     * @return a cursor over the entries of this map
+     */
+    @Override
+    public IntLongCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Performs the given action for each entry of this map, the entry with the key <b>0</b> included, in unspecified
+     * order. No objects are created by the iteration, and the entries are not marked as referenced. The result is
+     * unspecified if the action modifies the map.
+     *
+     * @param action the action to be performed for each entry
+     */
+    @Override
+    public void forEach(IntLongConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+
+        if (entryWithNullKeyIsAssociated) {
+            action.accept(0, nullValue);
+        }
+    }
+
+    /**
+     * Enables or disables the collection of the statistics of this map. Enabling starts the counters from zero;
+     * while the statistics are disabled, the cost of them is a null check per operation.
+     *
+     * @param enabled whether the statistics should be collected
+     * @see #getStats()
+     */
+    public void setStatsEnabled(boolean enabled) {
+        if (!enabled) {
+            stats = null;
+        } else if (stats == null) {
+            stats = new StatsRecorder();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this map. The probe lengths are recorded by the single-key lookups
+     * (<b>get</b>, <b>getOrDefault</b>, <b>containsKey</b> and <b>remove</b>) only while the statistics are enabled by
+     * {@link #setStatsEnabled(boolean)}; the table of the cache is never rebuilt, so no rebuildings are counted. The
+     * rest values are calculated by the snapshot (the longest cluster by a pass over the table).
+     *
+     * @return a snapshot of the statistics of this map
+     */
+    @Override
+    public IntLongHashMapStats getStats() {
+        long memoryBytes = StatsRecorder.arrayBytes(keys.length, Integer.BYTES)
+                + StatsRecorder.arrayBytes(values.length, Long.BYTES)
+                + StatsRecorder.arrayBytes(referenced.length, Byte.BYTES);
+
+        return StatsRecorder.snapshot(stats, StatsRecorder.maxClusterLength(keys), size(), keys.length, memoryBytes);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    @Override
+    public int size() {
+        return entryWithNullKeyIsAssociated ? size + 1 : size;
+    }
+
+    private final class Cursor implements IntLongCursor {
+        private int index;
+        private boolean nullEntry;
+        private int key;
+        private long value;
+
+        Cursor() {
+            reset();
+        }
+
+        @Override
+        public boolean advance() {
+            boolean result = false;
+
+            while (!result && index < keys.length) {
+                if (keys[index] != 0) {
+                    key = keys[index];
+                    value = values[index];
+                    result = true;
+                }
+                index++;
+            }
+
+            if (!result && nullEntry) {
+                nullEntry = false;
+                key = 0;
+                value = nullValue;
+                result = true;
+            }
+
+            return result;
+        }
+
+        @Override
+        public int key() {
+            return key;
+        }
+
+        @Override
+        public long value() {
+            return value;
+        }
+
+        @Override
+        public void reset() {
+            index = 0;
+            nullEntry = entryWithNullKeyIsAssociated;
+        }
+    }
+}
@@ -0,0 +1,796 @@
+package com.company.util;
+
+import java.util.Arrays;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * {@link IntLongHashMap} implementation with open addressing and linear probing (power-of-two capacity, Murmur3
+ * hashing, backward-shift deletion, like {@link IntLongHashMapOpenAddr}) whose tables are split into pages of
+ * <b>1024</b> slots, so that {@link #snapshot()} returns a consistent read-only view of the map in O(1).
+ *
+ * <p>A snapshot shares the pages with the map. Every page remembers the epoch in which it was allocated or copied,
+ * and a snapshot starts a new epoch: the first write to a page of an older epoch copies the page (and, once per
+ * snapshot, the directory of the pages) before the write. So a snapshot costs a copy of the pages which are
+ * modified while it is alive, not of the whole table; the pages which are not modified stay shared, and a growth
+ * of the map allocates new pages without any copying of the old ones. The price of the pages is one more memory
+ * access per probe.
+ *
+ * <p>The map is not thread-safe, but its snapshots are immutable: a snapshot can be read by other threads (once it
+ * is safely published to them) while the owner of the map keeps writing to it.
+ */
+
+public class IntLongHashMapCopyOnWrite implements IntLongHashMap {
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final int PAGE_SHIFT = 10;
+
+    private static final int INIT_CAPACITY_DEFAULT_VALUE = 16;
+    private static final float LOAD_FACTOR_DEFAULT_VALUE = 0.75f;
+    private static final long NO_ENTRY_VALUE_DEFAULT_VALUE = Long.MIN_VALUE;
+
+    private static final String ILLEGAL_INITIAL_CAPACITY_PATTERN = "Illegal initial capacity: %d";
+    private static final String ILLEGAL_LOAD_FACTOR_PATTERN = "Illegal load factor: : %f";
+    private static final String SNAPSHOT_IS_READ_ONLY = "The snapshot is read-only";
+
+    private final float loadFactor;
+    private final long noEntryValue;
+    private final IntHashStrategy hashStrategy = IntHashStrategy.MURMUR3;
+
+    private int[][] keyPages;
+    private long[][] valuePages;
+    // The epoch in which the page was allocated or copied by this map, a page of an older one can be shared
+    private int[] pageEpochs;
+    private int pageShift;
+    private int pageMask;
+    private int mask;
+    private int size;
+    private int limit;
+    private boolean entryWithNullKeyIsAssociated;
+    private long nullValue;
+
+    private int epoch;
+    private boolean directoryIsShared;
+    private long copiedPages;
+    // Null while the statistics are disabled
+    private StatsRecorder stats;
+
+    /**
+     * Constructs an empty <b>IntLongHashMapCopyOnWrite</b> with the specified initial capacity, load factor and
+     * long value that represents a null value in this map. The initial capacity is rounded up to the nearest power
+     * of two.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  noEntryValue    a long value that represents a null value in this map
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapCopyOnWrite(int initialCapacity, float loadFactor, long noEntryValue) {
+        if (initialCapacity < 1 || initialCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_INITIAL_CAPACITY_PATTERN, initialCapacity));
+        }
+        if (Float.isNaN(loadFactor) || loadFactor <= 0 || loadFactor > 1.0) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_LOAD_FACTOR_PATTERN, loadFactor));
+        }
+
+        this.loadFactor = loadFactor;
+        this.noEntryValue = noEntryValue;
+        nullValue = noEntryValue;
+
+        allocTables(LinearProbing.tableSizeFor(initialCapacity));
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapCopyOnWrite</b> with the specified initial capacity and load factor,
+     * and the default long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapCopyOnWrite(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, NO_ENTRY_VALUE_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapCopyOnWrite</b> with the specified initial capacity,
+     * the default load factor (<b>0.75</b>) and default long value that represents a null value in this map
+     * (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     */
+    public IntLongHashMapCopyOnWrite(int initialCapacity) {
+        this(initialCapacity, LOAD_FACTOR_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapCopyOnWrite</b> with the default initial capacity (<b>16</b>),
+     * default load factor (<b>0.75</b>) and default long value that represents a null value in this map
+     * (<b>-9223372036854775808</b>).
+     *
+     */
+    public IntLongHashMapCopyOnWrite() {
+        this(INIT_CAPACITY_DEFAULT_VALUE);
+    }
+
+    /**
+     * Returns the value that will be returned from {@link #get(int)} or {@link #put(int, long)} if no entry exists for a given key.
+     * The default value is <b>-9223372036854775808</b>, but can be changed during construction of the map.
+     *
+     * @return the value that represents a null value in this map
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    /**
+     * Returns a read-only view of the current state of this map, which is not affected by the later modifications
+     * of the map. The view shares the pages of the tables with the map, so it is taken in O(1); the map copies a
+     * shared page on its first modification. The modifying methods of the view throw
+     * {@link UnsupportedOperationException}.
+     *
+     * @return a read-only snapshot of this map
+     */
+    public IntLongHashMap snapshot() {
+        epoch++;
+        directoryIsShared = true;
+
+        return new Snapshot(keyPages, valuePages, pageShift, pageMask, mask, size, entryWithNullKeyIsAssociated,
+                nullValue, noEntryValue, hashStrategy);
+    }
+
+    // The number of the pages copied on write (for tests)
+    long copiedPages() {
+        return copiedPages;
+    }
+
+    private void allocTables(int capacity) {
+        // Small tables are kept in a single page
+        pageShift = Math.min(PAGE_SHIFT, Integer.numberOfTrailingZeros(capacity));
+        pageMask = (1 << pageShift) - 1;
+        mask = capacity - 1;
+        limit = LinearProbing.limitFor(capacity, loadFactor);
+
+        int pageCount = capacity >>> pageShift;
+        keyPages = new int[pageCount][1 << pageShift];
+        valuePages = new long[pageCount][1 << pageShift];
+        pageEpochs = new int[pageCount];
+        Arrays.fill(pageEpochs, epoch);
+        directoryIsShared = false;
+        size = 0;
+    }
+
+    // New pages are allocated, the old ones are only read, so the snapshots which share them are not affected
+    private void reAllocTables() {
+        long start = (stats != null) ? System.nanoTime() : 0;
+        int[][] oldKeyPages = keyPages;
+        long[][] oldValuePages = valuePages;
+
+        allocTables(Math.min((mask + 1) << 1, MAXIMUM_CAPACITY));
+
+        for (int page = 0; page < oldKeyPages.length; page++) {
+            int[] oldKeys = oldKeyPages[page];
+            long[] oldValues = oldValuePages[page];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int index = hashStrategy.hash(oldKeys[i]) & mask;
+                    while (keyPages[index >>> pageShift][index & pageMask] != 0) {
+                        index = (index + 1) & mask;
+                    }
+                    keyPages[index >>> pageShift][index & pageMask] = oldKeys[i];
+                    valuePages[index >>> pageShift][index & pageMask] = oldValues[i];
+                    size++;
+                }
+            }
+        }
+
+        if (stats != null) {
+            stats.recordResize(System.nanoTime() - start);
+        }
+    }
+
+    // The index of the key, or <-(index of the "empty" slot where the key should be put) - 1>
+    private static int probe(int[][] keyPages, int pageShift, int pageMask, int mask, int key, int hash) {
+        int index = hash & mask;
+        int current = keyPages[index >>> pageShift][index & pageMask];
+        while (current != 0 && current != key) {
+            index = (index + 1) & mask;
+            current = keyPages[index >>> pageShift][index & pageMask];
+        }
+
+        return (current == key) ? index : -index - 1;
+    }
+
+    private int getIndex(int key) {
+        return probe(keyPages, pageShift, pageMask, mask, key, hashStrategy.hash(key));
+    }
+
+    // <getIndex> for the single-key lookups, which records the probe length while the statistics are enabled: up to
+    // the key for a hit, up to the "empty" slot (where the probe has stopped) for a miss
+    private int lookup(int key) {
+        int result = getIndex(key);
+
+        if (stats != null) {
+            int home = hashStrategy.hash(key) & mask;
+            if (result >= 0) {
+                stats.recordHit(((result - home) & mask) + 1);
+            } else {
+                stats.recordMiss(((-result - 1 - home) & mask) + 1);
+            }
+        }
+
+        return result;
+    }
+
+    // Single probe for the modifying operations, the table grows first if it is full
+    private int getInsertionIndex(int key) {
+        if (size >= limit) {
+            reAllocTables();
+        }
+
+        return getIndex(key);
+    }
+
+    // Copies the page of the slot if it can be shared with a snapshot, and returns the number of the page
+    private int writablePage(int index) {
+        int page = index >>> pageShift;
+
+        if (pageEpochs[page] != epoch) {
+            if (directoryIsShared) {
+                keyPages = keyPages.clone();
+                valuePages = valuePages.clone();
+                directoryIsShared = false;
+            }
+            keyPages[page] = keyPages[page].clone();
+            valuePages[page] = valuePages[page].clone();
+            pageEpochs[page] = epoch;
+            copiedPages++;
+        }
+
+        return page;
+    }
+
+    private int key(int index) {
+        return keyPages[index >>> pageShift][index & pageMask];
+    }
+
+    private long value(int index) {
+        return valuePages[index >>> pageShift][index & pageMask];
+    }
+
+    private void setValue(int index, long value) {
+        // The page is made writable first: it can replace the directory of the pages
+        int page = writablePage(index);
+        valuePages[page][index & pageMask] = value;
+    }
+
+    private void setEntry(int index, int key, long value) {
+        int page = writablePage(index);
+        keyPages[page][index & pageMask] = key;
+        valuePages[page][index & pageMask] = value;
+    }
+
+    private void insert(int insertionIndex, int key, long value) {
+        setEntry(-insertionIndex - 1, key, value);
+        size++;
+    }
+
+    private void rawRemove(int index) {
+        int gap = index;
+        int current = (gap + 1) & mask;
+        while (key(current) != 0) {
+            if (LinearProbing.isOnProbePath(gap, hashStrategy.hash(key(current)) & mask, current, mask)) {
+                setEntry(gap, key(current), value(current));
+                gap = current;
+            }
+            current = (current + 1) & mask;
+        }
+
+        setEntry(gap, 0, 0);
+        size--;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or the value which is returned by {@link #getNoEntryValue()} if this map contains no mapping for the key.
+     *
+     * <p>A return {@link #getNoEntryValue()} value does not <i>necessarily</i>
+     * indicate that the map contains no mapping for the key; it's also
+     * possible that the map explicitly maps the key to {@link #getNoEntryValue()}.
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@link #getNoEntryValue()} if this map contains no mapping for the key
+     * @see #getNoEntryValue
+     * @see #put(int, long)
+     */
+    @Override
+    public long get(int key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old value is replaced by the specified value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     * @see #get(int)
+     */
+    @Override
+    public long put(int key, long value) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = value;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = value(index);
+                setValue(index, value);
+            } else {
+                insert(index, key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns <b>true</b> if this map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return <b>true</b> if this map contains a mapping for the specified key
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return (key == 0) ? entryWithNullKeyIsAssociated : lookup(key) >= 0;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long remove(int key) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = noEntryValue;
+            entryWithNullKeyIsAssociated = false;
+        } else {
+            int index = lookup(key);
+            if (index >= 0) {
+                result = value(index);
+                rawRemove(index);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     * no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the value to return if this map contains no mapping for the key
+     * @return the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     *         no mapping for the key
+     */
+    @Override
+    public long getOrDefault(int key, long defaultValue) {
+        long result = defaultValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+            }
+        } else {
+            int index = lookup(key);
+            if (index >= 0) {
+                result = value(index);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map, if the key is not already associated
+     * with a value. The table is probed once.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the current value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key (and the value is associated now)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long putIfAbsent(int key, long value) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+            } else {
+                nullValue = value;
+                entryWithNullKeyIsAssociated = true;
+            }
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = value(index);
+            } else {
+                insert(index, key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds the increment to the value associated with the specified key. If there is no mapping for the key, the key
+     * is associated with the increment (as if it was associated with <b>0</b>). The table is probed once.
+     *
+     * @param key key with which the value is associated
+     * @param increment the value to add
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long addTo(int key, long increment) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+                nullValue += increment;
+            } else {
+                nullValue = increment;
+                entryWithNullKeyIsAssociated = true;
+            }
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = value(index);
+                setValue(index, result + increment);
+            } else {
+                insert(index, key, increment);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the specified value if there is no mapping for the key, otherwise replaces
+     * the associated value with the result of <b>remappingFunction</b> applied to the associated value and the
+     * specified value. The table is probed once.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be associated if there is no mapping for the key
+     * @param remappingFunction the function to combine the associated value and the specified value
+     * @return the new value associated with the specified key
+     */
+    @Override
+    public long merge(int key, long value, LongBinaryOperator remappingFunction) {
+        long result = value;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = remappingFunction.applyAsLong(nullValue, value);
+            }
+            nullValue = result;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = remappingFunction.applyAsLong(value(index), value);
+                setValue(index, result);
+            } else {
+                insert(index, key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the result of <b>remappingFunction</b> applied to the value which is
+     * associated with the key, or to {@link #getNoEntryValue()} if there is no mapping for the key. The table is
+     * probed once.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param remappingFunction the function to compute the value
+     * @return the new value associated with the specified key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long compute(int key, LongUnaryOperator remappingFunction) {
+        long result;
+
+        if (key == 0) {
+            result = remappingFunction.applyAsLong(nullValue);
+            nullValue = result;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = remappingFunction.applyAsLong(value(index));
+                setValue(index, result);
+            } else {
+                result = remappingFunction.applyAsLong(noEntryValue);
+                insert(index, key, result);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a new cursor over the entries of this map, the entry with the key <b>0</b> included. The cursor does
+     * not create any objects while it moves over the entries. The result of the iteration is unspecified if the map
+     * is modified during it (the pages of the current epoch are modified in place); the cursor of a
+     * {@link #snapshot()} iterates a fixed state of the map while the map is modified.
+     *
+     * @return a cursor over the entries of this map
+     */
+    @Override
+    public IntLongCursor cursor() {
+        return new PageCursor(keyPages, valuePages, entryWithNullKeyIsAssociated, nullValue);
+    }
+
+    /**
+     * Performs the given action for each entry of this map, the entry with the key <b>0</b> included, in unspecified
+     * order. No objects are created by the iteration. The result is unspecified if the action modifies the map.
+     *
+     * @param action the action to be performed for each entry
+     */
+    @Override
+    public void forEach(IntLongConsumer action) {
+        forEach(keyPages, valuePages, entryWithNullKeyIsAssociated, nullValue, action);
+    }
+
+    private static void forEach(int[][] keyPages, long[][] valuePages, boolean entryWithNullKeyIsAssociated,
+                                long nullValue, IntLongConsumer action) {
+        for (int page = 0; page < keyPages.length; page++) {
+            int[] keys = keyPages[page];
+            long[] values = valuePages[page];
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    action.accept(keys[i], values[i]);
+                }
+            }
+        }
+
+        if (entryWithNullKeyIsAssociated) {
+            action.accept(0, nullValue);
+        }
+    }
+
+    /**
+     * Enables or disables the collection of the statistics of this map. Enabling starts the counters from zero;
+     * while the statistics are disabled, the cost of them is a null check per operation.
+     *
+     * @param enabled whether the statistics should be collected
+     * @see #getStats()
+     */
+    public void setStatsEnabled(boolean enabled) {
+        if (!enabled) {
+            stats = null;
+        } else if (stats == null) {
+            stats = new StatsRecorder();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this map. The probe lengths are recorded by the single-key lookups
+     * (<b>get</b>, <b>getOrDefault</b>, <b>containsKey</b> and <b>remove</b>) and, as well as the rebuildings, only
+     * while the statistics are enabled by {@link #setStatsEnabled(boolean)}; the rest values are calculated by the
+     * snapshot (the longest cluster by a pass over the table). The memory is taken by the current pages of the map,
+     * some of which can be shared with the snapshots.
+     *
+     * @return a snapshot of the statistics of this map
+     */
+    @Override
+    public IntLongHashMapStats getStats() {
+        int capacity = mask + 1;
+        int pageCount = keyPages.length;
+        int pageSize = 1 << pageShift;
+        long memoryBytes = pageCount * (StatsRecorder.arrayBytes(pageSize, Integer.BYTES)
+                + StatsRecorder.arrayBytes(pageSize, Long.BYTES))
+                + 2 * StatsRecorder.arrayBytes(pageCount, StatsRecorder.REFERENCE_BYTES)
+                + StatsRecorder.arrayBytes(pageCount, Integer.BYTES);
+
+        return StatsRecorder.snapshot(stats, StatsRecorder.maxClusterLength(capacity, slot -> key(slot) != 0),
+                size(), capacity, memoryBytes);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    @Override
+    public int size() {
+        return entryWithNullKeyIsAssociated ? size + 1 : size;
+    }
+
+    // Read-only view of the pages, which are never written after the view is taken
+    private static final class Snapshot implements IntLongHashMap {
+        private final int[][] keyPages;
+        private final long[][] valuePages;
+        private final int pageShift;
+        private final int pageMask;
+        private final int mask;
+        private final int size;
+        private final boolean entryWithNullKeyIsAssociated;
+        private final long nullValue;
+        private final long noEntryValue;
+        private final IntHashStrategy hashStrategy;
+
+        Snapshot(int[][] keyPages, long[][] valuePages, int pageShift, int pageMask, int mask, int size,
+                 boolean entryWithNullKeyIsAssociated, long nullValue, long noEntryValue,
+                 IntHashStrategy hashStrategy) {
+            this.keyPages = keyPages;
+            this.valuePages = valuePages;
+            this.pageShift = pageShift;
+            this.pageMask = pageMask;
+            this.mask = mask;
+            this.size = size;
+            this.entryWithNullKeyIsAssociated = entryWithNullKeyIsAssociated;
+            this.nullValue = nullValue;
+            this.noEntryValue = noEntryValue;
+            this.hashStrategy = hashStrategy;
+        }
+
+        @Override
+        public long getNoEntryValue() {
+            return noEntryValue;
+        }
+
+        @Override
+        public long get(int key) {
+            return getOrDefault(key, noEntryValue);
+        }
+
+        @Override
+        public long getOrDefault(int key, long defaultValue) {
+            long result = defaultValue;
+
+            if (key == 0) {
+                if (entryWithNullKeyIsAssociated) {
+                    result = nullValue;
+                }
+            } else {
+                int index = probe(keyPages, pageShift, pageMask, mask, key, hashStrategy.hash(key));
+                if (index >= 0) {
+                    result = valuePages[index >>> pageShift][index & pageMask];
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        public boolean containsKey(int key) {
+            return (key == 0) ? entryWithNullKeyIsAssociated
+                    : probe(keyPages, pageShift, pageMask, mask, key, hashStrategy.hash(key)) >= 0;
+        }
+
+        /**
+         * @throws UnsupportedOperationException always
+         */
+        @Override
+        public long put(int key, long value) {
+            throw new UnsupportedOperationException(SNAPSHOT_IS_READ_ONLY);
+        }
+
+        /**
+         * @throws UnsupportedOperationException always
+         */
+        @Override
+        public long remove(int key) {
+            throw new UnsupportedOperationException(SNAPSHOT_IS_READ_ONLY);
+        }
+
+        @Override
+        public IntLongCursor cursor() {
+            return new PageCursor(keyPages, valuePages, entryWithNullKeyIsAssociated, nullValue);
+        }
+
+        @Override
+        public void forEach(IntLongConsumer action) {
+            IntLongHashMapCopyOnWrite.forEach(keyPages, valuePages, entryWithNullKeyIsAssociated, nullValue, action);
+        }
+
+        @Override
+        public int size() {
+            return entryWithNullKeyIsAssociated ? size + 1 : size;
+        }
+    }
+
+    // Cursor over the pages one by one; the "null key" entry goes last
+    private static final class PageCursor implements IntLongCursor {
+        private final int[][] keyPages;
+        private final long[][] valuePages;
+        private final boolean entryWithNullKeyIsAssociated;
+        private final long nullValue;
+        private int page;
+        private int index;
+        private boolean nullEntry;
+        private int key;
+        private long value;
+
+        PageCursor(int[][] keyPages, long[][] valuePages, boolean entryWithNullKeyIsAssociated, long nullValue) {
+            this.keyPages = keyPages;
+            this.valuePages = valuePages;
+            this.entryWithNullKeyIsAssociated = entryWithNullKeyIsAssociated;
+            this.nullValue = nullValue;
+            reset();
+        }
+
+        @Override
+        public boolean advance() {
+            boolean result = false;
+
+            while (!result && page < keyPages.length) {
+                int[] keys = keyPages[page];
+                if (index < keys.length) {
+                    if (keys[index] != 0) {
+                        key = keys[index];
+                        value = valuePages[page][index];
+                        result = true;
+                    }
+                    index++;
+                } else {
+                    page++;
+                    index = 0;
+                }
+            }
+
+            if (!result && nullEntry) {
+                nullEntry = false;
+                key = 0;
+                value = nullValue;
+                result = true;
+            }
+
+            return result;
+        }
+
+        @Override
+        public int key() {
+            return key;
+        }
+
+        @Override
+        public long value() {
+            return value;
+        }
+
+        @Override
+        public void reset() {
+            page = 0;
+            index = 0;
+            nullEntry = entryWithNullKeyIsAssociated;
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package com.company.util;
+
+import java.util.Arrays;
+
+/**
+ * Immutable {@link IntLongHashMap} implementation, which is built once from another map (see
+ * {@link IntLongHashMap#freeze()}) and is only read then.
+ *
+ * <p>The keys are placed by a minimal perfect hash of "hash and displace" (CHD) kind: a key hashes to a bucket
+ * of about 3 keys, and the displacement of the bucket, which is chosen during the building so that all the keys of
+ * the bucket land in free slots, hashes the key to its own slot. So a lookup reads the displacement of the bucket and
+ * the slot, two memory accesses without any probing, and a slot is occupied by exactly one key; the table has 1% of
+ * free slots to make the building fast. The key and the value of a slot are interleaved in one array, so they share
+ * a cache line.
+ *
+ * <p>All the fields are final, so the map can be shared between threads without synchronization. The modifying
+ * methods throw {@link UnsupportedOperationException}.
+ */
+
+public final class IntLongHashMapFrozen implements IntLongHashMap {
+    private static final float LOAD_FACTOR = 0.99f;
+    private static final int BUCKET_SIZE = 3;
+    // The displacements are kept in a char[] (half the memory of int[], so more of it stays in the cache); the
+    // building is restarted with another seed if a bucket does not fit any of them
+    private static final int MAX_DISPLACEMENT = 1 << Character.SIZE;
+    // Golden ratio, so that the hash codes of the displacements of a key are far from each other
+    private static final int DISPLACEMENT_STEP = 0x9E3779B9;
+
+    // The slots (two longs per 1 / LOAD_FACTOR entries) still fit an array
+    private static final int MAXIMUM_SIZE = 1000000000;
+    private static final int INIT_CAPACITY = 16;
+    private static final int MAX_SEEDS = 32;
+
+    private static final String MAP_IS_IMMUTABLE = "The map is immutable";
+    private static final String TOO_MANY_ENTRIES_PATTERN = "Too many entries to freeze, the maximum is %d";
+    private static final String NO_PERFECT_HASH_PATTERN =
+            "No perfect hash of %d keys is found with %d seeds: the cursor of the map reported some key twice";
+
+    private final long noEntryValue;
+    private final int seed;
+    private final int bucketCount;
+    private final char[] displacements;
+    private final int slotCount;
+    // The key of slot i at 2 * i (0 in a free slot), the value at 2 * i + 1
+    private final long[] slots;
+    private final int size;
+    private final boolean entryWithNullKeyIsAssociated;
+    private final long nullValue;
+
+    private IntLongHashMapFrozen(long noEntryValue, int seed, char[] displacements, long[] slots, int size,
+                                 boolean entryWithNullKeyIsAssociated, long nullValue) {
+        this.noEntryValue = noEntryValue;
+        this.seed = seed;
+        this.bucketCount = displacements.length;
+        this.displacements = displacements;
+        this.slotCount = slots.length / 2;
+        this.slots = slots;
+        this.size = size;
+        this.entryWithNullKeyIsAssociated = entryWithNullKeyIsAssociated;
+        this.nullValue = nullValue;
+    }
+
+    /**
+     * Returns an immutable copy of the map. The building takes linear time (a few passes over the entries).
+     * The entries are collected by the cursor of the map, so its {@link IntLongHashMap#size()} is only a hint
+     * (it saturates for the huge maps, and changes while a concurrent map is modified).
+     *
+     * @param  map the map to copy
+     * @return an immutable copy of the map
+     * @throws IllegalArgumentException if the map has more than <b>1000000000</b> entries, or its cursor reports
+     *         some key twice (a concurrent map which is modified during the copy can do it)
+     */
+    public static IntLongHashMapFrozen of(IntLongHashMap map) {
+        int[] keys = new int[Math.max(INIT_CAPACITY, Math.min(map.size(), MAXIMUM_SIZE))];
+        long[] values = new long[keys.length];
+        int count = 0;
+        boolean nullEntry = false;
+        long nullValue = map.getNoEntryValue();
+
+        IntLongCursor cursor = map.cursor();
+        while (cursor.advance()) {
+            if (cursor.key() == 0) {
+                nullEntry = true;
+                nullValue = cursor.value();
+            } else {
+                if (count == keys.length) {
+                    if (count == MAXIMUM_SIZE) {
+                        throw new IllegalArgumentException(String.format(TOO_MANY_ENTRIES_PATTERN, MAXIMUM_SIZE));
+                    }
+                    int length = (int) Math.min(2L * count, MAXIMUM_SIZE);
+                    keys = Arrays.copyOf(keys, length);
+                    values = Arrays.copyOf(values, length);
+                }
+                keys[count] = cursor.key();
+                values[count] = cursor.value();
+                count++;
+            }
+        }
+        if (count < keys.length) {
+            keys = Arrays.copyOf(keys, count);
+            values = Arrays.copyOf(values, count);
+        }
+
+        int bucketCount = Math.max(1, (count + BUCKET_SIZE - 1) / BUCKET_SIZE);
+        int slotCount = Math.max(1, (int) Math.ceil(count / (double) LOAD_FACTOR));
+
+        // Every seed fails only for the keys which are not distinct (a failure of distinct keys is improbable)
+        IntLongHashMapFrozen result = null;
+        for (int seed = 0; result == null && seed < MAX_SEEDS; seed++) {
+            result = tryBuild(keys, values, bucketCount, slotCount, seed, map.getNoEntryValue(), nullEntry,
+                    nullValue);
+        }
+        if (result == null) {
+            throw new IllegalArgumentException(String.format(NO_PERFECT_HASH_PATTERN, count, MAX_SEEDS));
+        }
+
+        return result;
+    }
+
+    // Null if some bucket does not fit any of MAX_DISPLACEMENT displacements with this seed
+    private static IntLongHashMapFrozen tryBuild(int[] keys, long[] values, int bucketCount, int slotCount, int seed,
+                                                 long noEntryValue, boolean nullEntry, long nullValue) {
+        // The keys grouped by their buckets: the keys of bucket b are members[bucketStarts[b]..bucketStarts[b + 1])
+        int[] hashes = new int[keys.length];
+        int[] bucketStarts = new int[bucketCount + 1];
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = hash(keys[i], seed);
+            bucketStarts[bucketOf(hashes[i], bucketCount) + 1]++;
+        }
+        int maxBucketSize = 0;
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            maxBucketSize = Math.max(maxBucketSize, bucketStarts[bucket + 1]);
+            bucketStarts[bucket + 1] += bucketStarts[bucket];
+        }
+        int[] members = new int[keys.length];
+        int[] fill = new int[bucketCount];
+        for (int i = 0; i < keys.length; i++) {
+            int bucket = bucketOf(hashes[i], bucketCount);
+            members[bucketStarts[bucket] + fill[bucket]++] = i;
+        }
+
+        // The buckets from the largest to the smallest: the large ones are placed while the table is almost free
+        int[] sizeStarts = new int[maxBucketSize + 2];
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            sizeStarts[maxBucketSize - (bucketStarts[bucket + 1] - bucketStarts[bucket]) + 1]++;
+        }
+        for (int i = 1; i < sizeStarts.length; i++) {
+            sizeStarts[i] += sizeStarts[i - 1];
+        }
+        int[] order = new int[bucketCount];
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            order[sizeStarts[maxBucketSize - (bucketStarts[bucket + 1] - bucketStarts[bucket])]++] = bucket;
+        }
+
+        char[] displacements = new char[bucketCount];
+        long[] slots = new long[2 * slotCount];
+        // The occupied slots, small enough to stay in the cache while the displacements are tried
+        long[] occupied = new long[(slotCount + Long.SIZE - 1) / Long.SIZE];
+        int[] positions = new int[maxBucketSize];
+        boolean placed = true;
+        for (int i = 0; i < bucketCount && placed; i++) {
+            int bucket = order[i];
+            int from = bucketStarts[bucket];
+            int to = bucketStarts[bucket + 1];
+            if (from == to) {
+                break;
+            }
+
+            placed = false;
+            for (int displacement = 0; displacement < MAX_DISPLACEMENT && !placed; displacement++) {
+                placed = true;
+                for (int j = from; j < to && placed; j++) {
+                    int position = slotOf(hashes[members[j]], displacement, slotCount);
+                    placed = (occupied[position >>> 6] & (1L << position)) == 0;
+                    for (int k = from; k < j && placed; k++) {
+                        placed = positions[k - from] != position;
+                    }
+                    positions[j - from] = position;
+                }
+
+                if (placed) {
+                    displacements[bucket] = (char) displacement;
+                    for (int j = from; j < to; j++) {
+                        occupied[positions[j - from] >>> 6] |= 1L << positions[j - from];
+                        slots[2 * positions[j - from]] = keys[members[j]];
+                        slots[2 * positions[j - from] + 1] = values[members[j]];
+                    }
+                }
+            }
+        }
+
+        return placed ? new IntLongHashMapFrozen(noEntryValue, seed, displacements, slots, keys.length, nullEntry,
+                nullValue) : null;
+    }
+
+    private static int hash(int key, int seed) {
+        return IntHashStrategy.fmix32(key ^ seed);
+    }
+
+    // The high bits of the hash code choose the bucket (multiply-shift range reduction)
+    private static int bucketOf(int hash, int bucketCount) {
+        return (int) (((hash & 0xFFFFFFFFL) * bucketCount) >>> 32);
+    }
+
+    // Another mix of the hash code, so that the slot does not depend on the bucket
+    private static int slotOf(int hash, int displacement, int slotCount) {
+        int mixed = IntHashStrategy.fmix32(hash + (displacement + 1) * DISPLACEMENT_STEP);
+
+        return (int) (((mixed & 0xFFFFFFFFL) * slotCount) >>> 32);
+    }
+
+    // The slot where the key is, if it is present
+    private int slotFor(int key) {
+        int hash = hash(key, seed);
+
+        return slotOf(hash, displacements[bucketOf(hash, bucketCount)], slotCount);
+    }
+
+    /**
+     * Returns the value that will be returned from {@link #get(int)} if no entry exists for a given key. It is the
+     * value of the map which this map is a copy of.
+     *
+     * @return the value that represents a null value in this map
+     */
+    @Override
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or the value which is returned by {@link #getNoEntryValue()} if this map contains no mapping for the key.
+     *
+     * <p>A return {@link #getNoEntryValue()} value does not <i>necessarily</i>
+     * indicate that the map contains no mapping for the key; it's also
+     * possible that the map explicitly maps the key to {@link #getNoEntryValue()}.
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@link #getNoEntryValue()} if this map contains no mapping for the key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long get(int key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     * no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the value to return if this map contains no mapping for the key
+     * @return the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     *         no mapping for the key
+     */
+    @Override
+    public long getOrDefault(int key, long defaultValue) {
+        long result = defaultValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+            }
+        } else {
+            int slot = slotFor(key);
+            if ((int) slots[2 * slot] == key) {
+                result = slots[2 * slot + 1];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns <b>true</b> if this map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return <b>true</b> if this map contains a mapping for the specified key
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return (key == 0) ? entryWithNullKeyIsAssociated : (int) slots[2 * slotFor(key)] == key;
+    }
+
+    /**
+     * Not supported: the map is immutable.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public long put(int key, long value) {
+        throw new UnsupportedOperationException(MAP_IS_IMMUTABLE);
+    }
+
+    /**
+     * Not supported: the map is immutable.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public long remove(int key) {
+        throw new UnsupportedOperationException(MAP_IS_IMMUTABLE);
+    }
+
+    /**
+     * Returns a new cursor over the entries of this map, the entry with the key <b>0</b> included. The cursor does
+     * not create any objects while it moves over the entries.
+     *
+     * @return a cursor over the entries of this map
+     */
+    @Override
+    public IntLongCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Performs the given action for each entry of this map, the entry with the key <b>0</b> included, in unspecified
+     * order. No objects are created by the iteration.
+     *
+     * @param action the action to be performed for each entry
+     */
+    @Override
+    public void forEach(IntLongConsumer action) {
+        for (int i = 0; i < slots.length; i += 2) {
+            int key = (int) slots[i];
+            if (key != 0) {
+                action.accept(key, slots[i + 1]);
+            }
+        }
+
+        if (entryWithNullKeyIsAssociated) {
+            action.accept(0, nullValue);
+        }
+    }
+
+    /**
+     * Returns this map, which is immutable already.
+     *
+     * @return this map
+     */
+    @Override
+    public IntLongHashMap freeze() {
+        return this;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    @Override
+    public int size() {
+        return entryWithNullKeyIsAssociated ? size + 1 : size;
+    }
+
+    // Cursor over the slots; the "null key" entry goes last
+    private final class Cursor implements IntLongCursor {
+        private int index;
+        private boolean nullEntry;
+        private int key;
+        private long value;
+
+        Cursor() {
+            reset();
+        }
+
+        @Override
+        public boolean advance() {
+            boolean result = false;
+
+            while (!result && index < slots.length) {
+                int current = (int) slots[index];
+                if (current != 0) {
+                    key = current;
+                    value = slots[index + 1];
+                    result = true;
+                }
+                index += 2;
+            }
+
+            if (!result && nullEntry) {
+                nullEntry = false;
+                key = 0;
+                value = nullValue;
+                result = true;
+            }
+
+            return result;
+        }
+
+        @Override
+        public int key() {
+            return key;
+        }
+
+        @Override
+        public long value() {
+            return value;
+        }
+
+        @Override
+        public void reset() {
+            index = 0;
+            nullEntry = entryWithNullKeyIsAssociated;
+        }
+    }
+}
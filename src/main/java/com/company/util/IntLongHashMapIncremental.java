@@ -0,0 +1,561 @@
+package com.company.util;
+
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link IntLongHashMap} implementation with open addressing and linear probing, which is resized incrementally.
+ *
+ * <p>When the table is full, a new table of the doubled capacity is allocated, but the entries are not moved
+ * into it at once: the old and the new tables coexist, new keys are put into the new table only, and every
+ * modification ({@link #put(int, long)}, {@link #remove(int)}) moves the entries of a bounded number of the old
+ * table slots into the new one. Lookups check both tables while the migration is in progress. So the cost of the
+ * rehash is spread over the following modifications, and there is no single <b>put</b> that rehashes the whole
+ * table (the allocation of the new arrays, which are zeroed by JVM, is still done at once).
+ *
+ * <p>The old table stays a valid linear-probing table during the migration: the moved entries are deleted from
+ * it by backward shift, the same way as {@link IntLongHashMapOpenAddr#remove(int)} does. The capacity is always
+ * a power of two.
+ */
+
+public class IntLongHashMapIncremental implements IntLongHashMap {
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private static final int INIT_CAPACITY_DEFAULT_VALUE = 16;
+    private static final float LOAD_FACTOR_DEFAULT_VALUE = 0.75f;
+    private static final long NO_ENTRY_VALUE_DEFAULT_VALUE = Long.MIN_VALUE;
+
+    // How many steps of the migration are made by one modification. The new table has twice as many slots, so
+    // the migration is finished long before the new table is full
+    private static final int MIGRATION_STEP = 16;
+
+    private static final String ILLEGAL_INITIAL_CAPACITY_PATTERN = "Illegal initial capacity: %d";
+    private static final String ILLEGAL_LOAD_FACTOR_PATTERN = "Illegal load factor: : %f";
+    private static final String ILLEGAL_HASH_STRATEGY = "Illegal hash strategy: null";
+
+    private final float loadFactor;
+    private final long noEntryValue;
+    private final IntHashStrategy hashStrategy;
+
+    private int[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int limit;
+
+    // The table being migrated (null if there is no migration in progress); slots before <migrationIndex>
+    // are already empty
+    private int[] oldKeys;
+    private long[] oldValues;
+    private int oldMask;
+    private int oldSize;
+    private int migrationIndex;
+
+    private boolean entryWithNullKeyIsAssociated;
+    private long nullValue;
+
+    /**
+     * Constructs an empty <b>IntLongHashMapIncremental</b> with the specified initial capacity, load factor,
+     * long value that represents a null value in this map and hash strategy.
+     * The initial capacity is rounded up to the nearest power of two.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  noEntryValue    a long value that represents a null value in this map
+     * @param  hashStrategy    the hash strategy of the keys
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     *         or the hash strategy is null
+     */
+    public IntLongHashMapIncremental(int initialCapacity, float loadFactor, long noEntryValue,
+                                     IntHashStrategy hashStrategy) {
+        if (initialCapacity < 1 || initialCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_INITIAL_CAPACITY_PATTERN, initialCapacity));
+        }
+        if (Float.isNaN(loadFactor) || loadFactor <= 0 || loadFactor > 1.0) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_LOAD_FACTOR_PATTERN, loadFactor));
+        }
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException(ILLEGAL_HASH_STRATEGY);
+        }
+
+        this.loadFactor = loadFactor;
+        this.noEntryValue = noEntryValue;
+        this.hashStrategy = hashStrategy;
+        nullValue = noEntryValue;
+
+        allocTables(LinearProbing.tableSizeFor(initialCapacity));
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapIncremental</b> with the specified initial capacity, load factor and
+     * long value that represents a null value in this map, and Murmur3 hash strategy.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  noEntryValue    a long value that represents a null value in this map
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapIncremental(int initialCapacity, float loadFactor, long noEntryValue) {
+        this(initialCapacity, loadFactor, noEntryValue, IntHashStrategy.MURMUR3);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapIncremental</b> with the specified initial capacity and load factor,
+     * Murmur3 hash strategy and the default long value that represents a null value in
+     * this map (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapIncremental(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, NO_ENTRY_VALUE_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapIncremental</b> with the specified initial capacity,
+     * the default load factor (<b>0.75</b>), Murmur3 hash strategy and default
+     * long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     */
+    public IntLongHashMapIncremental(int initialCapacity) {
+        this(initialCapacity, LOAD_FACTOR_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapIncremental</b> with the default initial capacity (<b>16</b>),
+     * default load factor (<b>0.75</b>), Murmur3 hash strategy and default
+     * long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     */
+    public IntLongHashMapIncremental() {
+        this(INIT_CAPACITY_DEFAULT_VALUE);
+    }
+
+    /**
+     * Returns the value that will be returned from {@link #get(int)} or {@link #put(int, long)} if no entry exists for a given key.
+     * The default value is <b>-9223372036854775808</b>, but can be changed during construction of the map.
+     *
+     * @return the value that represents a null value in this map
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    private void allocTables(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        size = 0;
+
+        limit = LinearProbing.limitFor(capacity, loadFactor);
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // Operations on a table, which is given by its arrays and mask
+    // ----------------------------------------------------------------------------------------------------------------
+
+    private int getIndex(int[] keys, int mask, int key) {
+        int result = -1;
+
+        int index = hashStrategy.hash(key) & mask;
+        while (keys[index] != 0 && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        if (keys[index] == key) {
+            result = index;
+        }
+
+        return result;
+    }
+
+    private void rawPut(int[] keys, long[] values, int mask, int key, long value) {
+        int index = hashStrategy.hash(key) & mask;
+        while (keys[index] != 0) {
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    // Backward-shift deletion
+    private void rawRemove(int[] keys, long[] values, int mask, int index) {
+        int gap = index;
+        int current = (gap + 1) & mask;
+        while (keys[current] != 0) {
+            // Cyclic distances from the home index of the entry and from the gap to the entry
+            if (((current - (hashStrategy.hash(keys[current]) & mask)) & mask) >= ((current - gap) & mask)) {
+                keys[gap] = keys[current];
+                values[gap] = values[current];
+                gap = current;
+            }
+            current = (current + 1) & mask;
+        }
+
+        keys[gap] = 0;
+        values[gap] = 0;
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // Migration
+    // ----------------------------------------------------------------------------------------------------------------
+
+    private void startMigration() {
+        // The previous migration (if any) is finished at once: it is possible only if the most of the entries
+        // were put when the migration was started
+        finishMigration();
+
+        oldKeys = keys;
+        oldValues = values;
+        oldMask = mask;
+        oldSize = size;
+        migrationIndex = 0;
+
+        allocTables(Math.min(keys.length << 1, MAXIMUM_CAPACITY));
+    }
+
+    private void finishMigration() {
+        while (oldKeys != null) {
+            migrate(oldKeys.length);
+        }
+    }
+
+    // Makes (at most) <steps> steps of the migration: every step either skips an empty slot of the old table
+    // or moves one entry
+    private void migrate(int steps) {
+        for (; steps > 0 && migrationIndex < oldKeys.length; steps--) {
+            int key = oldKeys[migrationIndex];
+            if (key == 0) {
+                migrationIndex++;
+            } else {
+                // The slot is not advanced: the backward shift may move the next entry of the cluster into it
+                rawPut(keys, values, mask, key, oldValues[migrationIndex]);
+                size++;
+                rawRemove(oldKeys, oldValues, oldMask, migrationIndex);
+                oldSize--;
+            }
+        }
+
+        if (oldSize == 0) {
+            oldKeys = null;
+            oldValues = null;
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // Public API
+    // ----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or the value which is returned by {@link #getNoEntryValue()} if this map contains no mapping for the key.
+     *
+     * <p>A return {@link #getNoEntryValue()} value does not <i>necessarily</i>
+     * indicate that the map contains no mapping for the key; it's also
+     * possible that the map explicitly maps the key to {@link #getNoEntryValue()}.
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@link #getNoEntryValue()} if this map contains no mapping for the key
+     * @see #getNoEntryValue
+     * @see #put(int, long)
+     */
+    @Override
+    public long get(int key) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+        } else {
+            int index = getIndex(keys, mask, key);
+            if (index >= 0) {
+                result = values[index];
+            } else if (oldKeys != null) {
+                index = getIndex(oldKeys, oldMask, key);
+                if (index >= 0) {
+                    result = oldValues[index];
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old value is replaced by the specified value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     * @see #get(int)
+     */
+    @Override
+    public long put(int key, long value) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = value;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            if (oldKeys != null) {
+                migrate(MIGRATION_STEP);
+            }
+
+            int index = getIndex(keys, mask, key);
+            int oldIndex = (index < 0 && oldKeys != null) ? getIndex(oldKeys, oldMask, key) : -1;
+            if (index >= 0) {
+                result = values[index];
+                values[index] = value;
+            } else if (oldIndex >= 0) {
+                result = oldValues[oldIndex];
+                oldValues[oldIndex] = value;
+            } else {
+                if (size >= limit) {
+                    startMigration();
+                }
+                rawPut(keys, values, mask, key, value);
+                size++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns <b>true</b> if this map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return <b>true</b> if this map contains a mapping for the specified key
+     */
+    @Override
+    public boolean containsKey(int key) {
+        boolean result;
+
+        if (key == 0) {
+            result = entryWithNullKeyIsAssociated;
+        } else {
+            result = getIndex(keys, mask, key) >= 0 || (oldKeys != null && getIndex(oldKeys, oldMask, key) >= 0);
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long remove(int key) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = noEntryValue;
+            entryWithNullKeyIsAssociated = false;
+        } else {
+            if (oldKeys != null) {
+                migrate(MIGRATION_STEP);
+            }
+
+            int index = getIndex(keys, mask, key);
+            if (index >= 0) {
+                result = values[index];
+                rawRemove(keys, values, mask, index);
+                size--;
+            } else if (oldKeys != null) {
+                index = getIndex(oldKeys, oldMask, key);
+                if (index >= 0) {
+                    result = oldValues[index];
+                    rawRemove(oldKeys, oldValues, oldMask, index);
+                    if (--oldSize == 0) {
+                        oldKeys = null;
+                        oldValues = null;
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a new cursor over the entries of this map, the entry with the key <b>0</b> included. During a migration
+     * the cursor goes over the rest of the old table first and then over the new one; it does not create any objects
+     * while it moves over the entries.
+     *
+     * @return a cursor over the entries of this map
+     */
+    @Override
+    public IntLongCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Performs the given action for each entry of this map, the entry with the key <b>0</b> included, in unspecified
+     * order. No objects are created by the iteration. The result is unspecified if the action modifies the map.
+     *
+     * @param action the action to be performed for each entry
+     */
+    @Override
+    public void forEach(IntLongConsumer action) {
+        if (oldKeys != null) {
+            forEach(oldKeys, oldValues, action);
+        }
+        forEach(keys, values, action);
+
+        if (entryWithNullKeyIsAssociated) {
+            action.accept(0, nullValue);
+        }
+    }
+
+    private static void forEach(int[] keys, long[] values, IntLongConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns a sequential stream of the keys of this map, the key <b>0</b> included if it is mapped. The underlying
+     * spliterators split the tables in halves, so the stream made parallel by {@link IntStream#parallel()} is
+     * processed efficiently by the fork-join pool.
+     *
+     * @return a stream of the keys of this map
+     */
+    @Override
+    public IntStream keyStream() {
+        IntStream result = StreamSupport.intStream(new TableSpliterator.OfKeys(keys, values,
+                entryWithNullKeyIsAssociated, nullValue, size() - oldSize), false);
+        if (oldKeys != null) {
+            result = IntStream.concat(StreamSupport.intStream(new TableSpliterator.OfKeys(oldKeys, oldValues,
+                    false, nullValue, oldSize), false), result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a sequential stream of the values of this map, the value of the key <b>0</b> included if it is mapped.
+     * The underlying spliterators split the tables in halves, so the stream made parallel by
+     * {@link LongStream#parallel()} is processed efficiently by the fork-join pool.
+     *
+     * @return a stream of the values of this map
+     */
+    @Override
+    public LongStream valueStream() {
+        LongStream result = StreamSupport.longStream(new TableSpliterator.OfValues(keys, values,
+                entryWithNullKeyIsAssociated, nullValue, size() - oldSize), false);
+        if (oldKeys != null) {
+            result = LongStream.concat(StreamSupport.longStream(new TableSpliterator.OfValues(oldKeys, oldValues,
+                    false, nullValue, oldSize), false), result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    @Override
+    public int size() {
+        int result = size + oldSize;
+
+        return entryWithNullKeyIsAssociated ? result + 1 : result;
+    }
+
+    // Cursor over the tables which are current at its creation (or reset): the old table (if the migration is in
+    // progress), then the new one; the "null key" entry goes last
+    private final class Cursor implements IntLongCursor {
+        private int[] cursorKeys;
+        private long[] cursorValues;
+        private int[] nextKeys;
+        private long[] nextValues;
+        private int index;
+        private boolean nullEntry;
+        private int key;
+        private long value;
+
+        Cursor() {
+            reset();
+        }
+
+        @Override
+        public boolean advance() {
+            boolean result = false;
+
+            while (!result && index < cursorKeys.length) {
+                if (cursorKeys[index] != 0) {
+                    key = cursorKeys[index];
+                    value = cursorValues[index];
+                    result = true;
+                }
+                index++;
+
+                if (index == cursorKeys.length && nextKeys != null) {
+                    cursorKeys = nextKeys;
+                    cursorValues = nextValues;
+                    nextKeys = null;
+                    nextValues = null;
+                    index = 0;
+                }
+            }
+
+            if (!result && nullEntry) {
+                nullEntry = false;
+                key = 0;
+                value = nullValue;
+                result = true;
+            }
+
+            return result;
+        }
+
+        @Override
+        public int key() {
+            return key;
+        }
+
+        @Override
+        public long value() {
+            return value;
+        }
+
+        @Override
+        public void reset() {
+            if (oldKeys != null) {
+                cursorKeys = oldKeys;
+                cursorValues = oldValues;
+                nextKeys = keys;
+                nextValues = values;
+            } else {
+                cursorKeys = keys;
+                cursorValues = values;
+                nextKeys = null;
+                nextValues = null;
+            }
+            index = 0;
+            nullEntry = entryWithNullKeyIsAssociated;
+        }
+    }
+}
@@ -0,0 +1,657 @@
+package com.company.util;
+
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * {@link IntLongHashMap} implementation with open addressing and linear probing, which keeps every key next to its
+ * value in a single <b>long[]</b> table: the key of the slot <b>i</b> is stored (widened to long) at <b>2 * i</b>,
+ * and its value at <b>2 * i + 1</b>.
+ *
+ * <p>A slot takes 16 bytes and never crosses a cache line, so a successful lookup usually costs one cache miss
+ * instead of two (one in the array of keys and one in the array of values), and there is one array header instead
+ * of two. The price is the wider key: a probe sequence covers 4 slots per cache line instead of 16 keys of an
+ * <b>int[]</b>, so long clusters (high load factors or poor hashing) are more expensive to walk. The capacity is
+ * always a power of two.
+ */
+
+public class IntLongHashMapInterleaved implements IntLongHashMap {
+    // The table holds two longs per slot
+    private static final int MAXIMUM_CAPACITY = 1 << 29;
+
+    private static final int INIT_CAPACITY_DEFAULT_VALUE = 16;
+    private static final float LOAD_FACTOR_DEFAULT_VALUE = 0.75f;
+    private static final long NO_ENTRY_VALUE_DEFAULT_VALUE = Long.MIN_VALUE;
+
+    private static final String ILLEGAL_INITIAL_CAPACITY_PATTERN = "Illegal initial capacity: %d";
+    private static final String ILLEGAL_LOAD_FACTOR_PATTERN = "Illegal load factor: : %f";
+    private static final String ILLEGAL_HASH_STRATEGY = "Illegal hash strategy: null";
+
+    private int capacity;
+    private final float loadFactor;
+    private final long noEntryValue;
+    private final IntHashStrategy hashStrategy;
+
+    // Keys at even indexes, values at odd ones
+    private long[] table;
+    private int size;
+    private int limit;
+    private int mask;
+    private boolean entryWithNullKeyIsAssociated;
+    private long nullValue;
+    // Null while the statistics are disabled
+    private StatsRecorder stats;
+
+    /**
+     * Constructs an empty <b>IntLongHashMapInterleaved</b> with the specified initial capacity, load factor,
+     * long value that represents a null value in this map and hash strategy.
+     * The initial capacity is rounded up to the nearest power of two.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  noEntryValue    a long value that represents a null value in this map
+     * @param  hashStrategy    the hash strategy of the keys
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>536870912</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     *         or the hash strategy is null
+     */
+    public IntLongHashMapInterleaved(int initialCapacity, float loadFactor, long noEntryValue,
+                                     IntHashStrategy hashStrategy) {
+        if (initialCapacity < 1 || initialCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_INITIAL_CAPACITY_PATTERN, initialCapacity));
+        }
+        if (Float.isNaN(loadFactor) || loadFactor <= 0 || loadFactor > 1.0) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_LOAD_FACTOR_PATTERN, loadFactor));
+        }
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException(ILLEGAL_HASH_STRATEGY);
+        }
+
+        this.loadFactor = loadFactor;
+        this.noEntryValue = noEntryValue;
+        this.hashStrategy = hashStrategy;
+        nullValue = noEntryValue;
+
+        allocTable(LinearProbing.tableSizeFor(initialCapacity));
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapInterleaved</b> with the specified initial capacity, load factor and
+     * long value that represents a null value in this map, and Murmur3 hash strategy.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  noEntryValue    a long value that represents a null value in this map
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>536870912</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapInterleaved(int initialCapacity, float loadFactor, long noEntryValue) {
+        this(initialCapacity, loadFactor, noEntryValue, IntHashStrategy.MURMUR3);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapInterleaved</b> with the specified initial capacity and load factor,
+     * Murmur3 hash strategy and the default long value that represents a null value in
+     * this map (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>536870912</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapInterleaved(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, NO_ENTRY_VALUE_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapInterleaved</b> with the specified initial capacity,
+     * the default load factor (<b>0.75</b>), Murmur3 hash strategy and default
+     * long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>536870912</b>
+     */
+    public IntLongHashMapInterleaved(int initialCapacity) {
+        this(initialCapacity, LOAD_FACTOR_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapInterleaved</b> with the default initial capacity (<b>16</b>),
+     * default load factor (<b>0.75</b>), Murmur3 hash strategy and default
+     * long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     */
+    public IntLongHashMapInterleaved() {
+        this(INIT_CAPACITY_DEFAULT_VALUE);
+    }
+
+    /**
+     * Returns the value that will be returned from {@link #get(int)} or {@link #put(int, long)} if no entry exists for a given key.
+     * The default value is <b>-9223372036854775808</b>, but can be changed during construction of the map.
+     *
+     * @return the value that represents a null value in this map
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    private void allocTable(int capacity) {
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.limit = LinearProbing.limitFor(capacity, loadFactor);
+
+        table = new long[capacity << 1];
+        size = 0;
+    }
+
+    // The index of the key cell of the home slot of the key in <table>
+    private int indexFor(int key) {
+        return (hashStrategy.hash(key) & mask) << 1;
+    }
+
+    private int nextIndex(int index) {
+        return (index + 2) & ((mask << 1) | 1);
+    }
+
+    private void reAllocTable() {
+        long start = (stats != null) ? System.nanoTime() : 0;
+        long[] oldTable = table;
+
+        allocTable(Math.min(capacity << 1, MAXIMUM_CAPACITY));
+
+        for (int i = 0; i < oldTable.length; i += 2) {
+            if (oldTable[i] != 0) {
+                rawPut((int) oldTable[i], oldTable[i + 1]);
+            }
+        }
+
+        if (stats != null) {
+            stats.recordResize(System.nanoTime() - start);
+        }
+    }
+
+    // Puts the key which is known to be absent in the map
+    private void rawPut(int key, long value) {
+        int index = indexFor(key);
+        while (table[index] != 0) {
+            index = nextIndex(index);
+        }
+
+        table[index] = key;
+        table[index + 1] = value;
+        size++;
+    }
+
+    // The index of the key cell of the key in <table>, or <-1> if the key is absent
+    private int getIndex(int key) {
+        int result = -1;
+
+        int index = indexFor(key);
+        // The key cell is compared with the widened key, so the "empty" cell (0) never matches a non-null key
+        while (table[index] != 0 && table[index] != key) {
+            index = nextIndex(index);
+        }
+        if (table[index] == key) {
+            result = index;
+        }
+
+        return result;
+    }
+
+    // <getIndex> for the single-key lookups, which records the probe length while the statistics are enabled
+    private int lookup(int key) {
+        int result = getIndex(key);
+
+        if (stats != null) {
+            recordLookup(indexFor(key), result);
+        }
+
+        return result;
+    }
+
+    // The probe length of a hit is counted up to the key, of a miss up to the "empty" slot
+    private void recordLookup(int home, int index) {
+        if (index >= 0) {
+            stats.recordHit((((index - home) >> 1) & mask) + 1);
+        } else {
+            int probeLength = 1;
+            for (int i = home; table[i] != 0; i = nextIndex(i)) {
+                probeLength++;
+            }
+            stats.recordMiss(probeLength);
+        }
+    }
+
+    // Single probe for the modifying operations: returns the index of the key cell of the key if it is present, or
+    // <-(index of the "empty" key cell where the key should be put) - 1>
+    private int getInsertionIndex(int key) {
+        if (size >= limit) {
+            reAllocTable();
+        }
+
+        int index = indexFor(key);
+        while (table[index] != 0 && table[index] != key) {
+            index = nextIndex(index);
+        }
+
+        return (table[index] == key) ? index : -index - 1;
+    }
+
+    private void insert(int insertionIndex, int key, long value) {
+        int index = -insertionIndex - 1;
+
+        table[index] = key;
+        table[index + 1] = value;
+        size++;
+    }
+
+    // The distances of the backward shift are measured in table cells
+    private void rawRemove(int index) {
+        int cellMask = (mask << 1) | 1;
+        int gap = index;
+        int current = nextIndex(gap);
+        while (table[current] != 0) {
+            if (LinearProbing.isOnProbePath(gap, indexFor((int) table[current]), current, cellMask)) {
+                table[gap] = table[current];
+                table[gap + 1] = table[current + 1];
+                gap = current;
+            }
+            current = nextIndex(current);
+        }
+
+        table[gap] = 0;
+        table[gap + 1] = 0;
+        size--;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or the value which is returned by {@link #getNoEntryValue()} if this map contains no mapping for the key.
+     *
+     * <p>A return {@link #getNoEntryValue()} value does not <i>necessarily</i>
+     * indicate that the map contains no mapping for the key; it's also
+     * possible that the map explicitly maps the key to {@link #getNoEntryValue()}.
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@link #getNoEntryValue()} if this map contains no mapping for the key
+     * @see #getNoEntryValue
+     * @see #put(int, long)
+     */
+    @Override
+    public long get(int key) {
+        long result = noEntryValue;
+
+        // Separately check for "null key", the same way as IntLongHashMapOpenAddr does
+        if (key == 0) {
+            result = nullValue;
+        } else {
+            int index = lookup(key);
+            if (index >= 0) {
+                result = table[index + 1];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old value is replaced by the specified value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     * @see #get(int)
+     */
+    @Override
+    public long put(int key, long value) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = value;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = table[index + 1];
+                table[index + 1] = value;
+            } else {
+                insert(index, key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns <b>true</b> if this map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return <b>true</b> if this map contains a mapping for the specified key
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return (key == 0) ? entryWithNullKeyIsAssociated : lookup(key) >= 0;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     * The following entries of the cluster are shifted back, so no "deleted" marks are left in the table.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long remove(int key) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = noEntryValue;
+            entryWithNullKeyIsAssociated = false;
+        } else {
+            int index = lookup(key);
+            if (index >= 0) {
+                result = table[index + 1];
+                rawRemove(index);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     * no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the value to return if this map contains no mapping for the key
+     * @return the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     *         no mapping for the key
+     */
+    @Override
+    public long getOrDefault(int key, long defaultValue) {
+        long result = defaultValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+            }
+        } else {
+            int index = lookup(key);
+            if (index >= 0) {
+                result = table[index + 1];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map, if the key is not already associated
+     * with a value. The table is probed once.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the current value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key (and the value is associated now)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long putIfAbsent(int key, long value) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+            } else {
+                nullValue = value;
+                entryWithNullKeyIsAssociated = true;
+            }
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = table[index + 1];
+            } else {
+                insert(index, key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds the increment to the value associated with the specified key. If there is no mapping for the key, the key
+     * is associated with the increment (as if it was associated with <b>0</b>). The table is probed once.
+     *
+     * @param key key with which the value is associated
+     * @param increment the value to add
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long addTo(int key, long increment) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+                nullValue += increment;
+            } else {
+                nullValue = increment;
+                entryWithNullKeyIsAssociated = true;
+            }
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = table[index + 1];
+                table[index + 1] += increment;
+            } else {
+                insert(index, key, increment);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the specified value if there is no mapping for the key, otherwise replaces
+     * the associated value with the result of <b>remappingFunction</b> applied to the associated value and the
+     * specified value. The table is probed once.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be associated if there is no mapping for the key
+     * @param remappingFunction the function to combine the associated value and the specified value
+     * @return the new value associated with the specified key
+     */
+    @Override
+    public long merge(int key, long value, LongBinaryOperator remappingFunction) {
+        long result = value;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = remappingFunction.applyAsLong(nullValue, value);
+            }
+            nullValue = result;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = remappingFunction.applyAsLong(table[index + 1], value);
+                table[index + 1] = result;
+            } else {
+                insert(index, key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the result of <b>remappingFunction</b> applied to the value which is
+     * associated with the key, or to {@link #getNoEntryValue()} if there is no mapping for the key. The table is
+     * probed once.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param remappingFunction the function to compute the value
+     * @return the new value associated with the specified key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long compute(int key, LongUnaryOperator remappingFunction) {
+        long result;
+
+        if (key == 0) {
+            result = remappingFunction.applyAsLong(nullValue);
+            nullValue = result;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = remappingFunction.applyAsLong(table[index + 1]);
+                table[index + 1] = result;
+            } else {
+                result = remappingFunction.applyAsLong(noEntryValue);
+                insert(index, key, result);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a new cursor over the entries of this map, the entry with the key <b>0</b> included. The cursor reads
+     * the table directly and does not create any objects while it moves over the entries.
+     *
+     * @return a cursor over the entries of this map
+     */
+    @Override
+    public IntLongCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Performs the given action for each entry of this map, the entry with the key <b>0</b> included, in unspecified
+     * order. No objects are created by the iteration. The result is unspecified if the action modifies the map.
+     *
+     * @param action the action to be performed for each entry
+     */
+    @Override
+    public void forEach(IntLongConsumer action) {
+        long[] table = this.table;
+        for (int i = 0; i < table.length; i += 2) {
+            if (table[i] != 0) {
+                action.accept((int) table[i], table[i + 1]);
+            }
+        }
+
+        if (entryWithNullKeyIsAssociated) {
+            action.accept(0, nullValue);
+        }
+    }
+
+    /**
+     * Enables or disables the collection of the statistics of this map. Enabling starts the counters from zero;
+     * while the statistics are disabled, the cost of them is a null check per operation.
+     *
+     * @param enabled whether the statistics should be collected
+     * @see #getStats()
+     */
+    public void setStatsEnabled(boolean enabled) {
+        if (!enabled) {
+            stats = null;
+        } else if (stats == null) {
+            stats = new StatsRecorder();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this map. The probe lengths are recorded by the single-key lookups
+     * (<b>get</b>, <b>getOrDefault</b>, <b>containsKey</b> and <b>remove</b>) and, as well as the rebuildings, only
+     * while the statistics are enabled by {@link #setStatsEnabled(boolean)}; the rest values are calculated by the
+     * snapshot (the longest cluster by a pass over the table).
+     *
+     * @return a snapshot of the statistics of this map
+     */
+    @Override
+    public IntLongHashMapStats getStats() {
+        long[] table = this.table;
+        int maxClusterLength = StatsRecorder.maxClusterLength(capacity, slot -> table[slot << 1] != 0);
+
+        return StatsRecorder.snapshot(stats, maxClusterLength, size(), capacity,
+                StatsRecorder.arrayBytes(table.length, Long.BYTES));
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    @Override
+    public int size() {
+        return entryWithNullKeyIsAssociated ? size + 1 : size;
+    }
+
+    // Cursor over the table which is current at its creation (or reset); the "null key" entry goes last
+    private final class Cursor implements IntLongCursor {
+        private long[] cursorTable;
+        private int index;
+        private boolean nullEntry;
+        private int key;
+        private long value;
+
+        Cursor() {
+            reset();
+        }
+
+        @Override
+        public boolean advance() {
+            boolean result = false;
+
+            while (!result && index < cursorTable.length) {
+                if (cursorTable[index] != 0) {
+                    key = (int) cursorTable[index];
+                    value = cursorTable[index + 1];
+                    result = true;
+                }
+                index += 2;
+            }
+
+            if (!result && nullEntry) {
+                nullEntry = false;
+                key = 0;
+                value = nullValue;
+                result = true;
+            }
+
+            return result;
+        }
+
+        @Override
+        public int key() {
+            return key;
+        }
+
+        @Override
+        public long value() {
+            return value;
+        }
+
+        @Override
+        public void reset() {
+            cursorTable = table;
+            index = 0;
+            nullEntry = entryWithNullKeyIsAssociated;
+        }
+    }
+}
@@ -0,0 +1,743 @@
+package com.company.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link IntLongHashMap} implementation which keeps its table out of the Java heap: in direct memory, or in
+ * a memory-mapped file. The probing is the same as in {@link IntLongHashMapOpenAddr} with power-of-two capacity and
+ * Murmur3 hash strategy (linear probing, backward-shift deletion); every slot takes 16 bytes (the key, 4 unused
+ * bytes and the value), so a slot never crosses a cache line or a page.
+ *
+ * <p>The table is split into segments of at most 1 GiB (a buffer is indexed by <b>int</b>), so the map holds up to
+ * 1073741824 slots. The heap keeps only the array of the segments, so the map does not add to the garbage collection
+ * work, however big it is.
+ *
+ * <p>A map in direct memory is created by the constructors and grows like {@link IntLongHashMapOpenAddr}. A map in
+ * a file is created by {@link #create(Path, int, float, long)} with the capacity for the expected number of keys,
+ * which is never changed (a file-backed map does not grow); it is saved by {@link #flush()} or {@link #close()}, and
+ * mapped again by {@link #open(Path, boolean)}. Opening takes only the time of reading the header, the pages of the
+ * table are loaded on demand and shared between the processes which map the same file (through the page cache).
+ * The file is little-endian, so it can be moved between the platforms.
+ *
+ * <p>The map should be closed by {@link #close()}: it releases the memory (or unmaps the file) immediately on
+ * Java 9 and later, and on the garbage collection of the map otherwise. All the methods of a closed map throw
+ * {@link IllegalStateException}.
+ */
+
+public class IntLongHashMapOffHeap implements IntLongHashMap, Closeable {
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final int INIT_CAPACITY_DEFAULT_VALUE = 16;
+    private static final float LOAD_FACTOR_DEFAULT_VALUE = 0.75f;
+    private static final long NO_ENTRY_VALUE_DEFAULT_VALUE = Long.MIN_VALUE;
+
+    // Slot layout: the key at 0, the value at 8
+    private static final int SLOT_SHIFT = 4;
+    private static final int VALUE_OFFSET = 8;
+    // 1 GiB segments
+    private static final int SEGMENT_SHIFT = 30 - SLOT_SHIFT;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    // File header layout
+    private static final long MAGIC = 0x494E544C4F4E474DL;   // "INTLONGM"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int SIZE_OFFSET = 16;
+    private static final int FLAGS_OFFSET = 20;
+    private static final int NULL_VALUE_OFFSET = 24;
+    private static final int NO_ENTRY_VALUE_OFFSET = 32;
+    private static final int LOAD_FACTOR_OFFSET = 40;
+    private static final int NULL_KEY_FLAG = 1;
+
+    private static final String ILLEGAL_INITIAL_CAPACITY_PATTERN = "Illegal initial capacity: %d";
+    private static final String ILLEGAL_LOAD_FACTOR_PATTERN = "Illegal load factor: : %f";
+    private static final String ILLEGAL_FILE_PATTERN = "Not a map file of version %d: %s";
+    private static final String MAP_IS_FULL_PATTERN = "The file-backed map is full: %d entries";
+    private static final String MAP_IS_CLOSED = "The map is closed";
+    private static final String MAP_IS_READ_ONLY = "The map is read-only";
+
+    private int capacity;
+    private final float loadFactor;
+    private final long noEntryValue;
+    private final IntHashStrategy hashStrategy = IntHashStrategy.MURMUR3;
+
+    // Null for a map in direct memory
+    private final MappedByteBuffer header;
+    private final boolean writable;
+    private ByteBuffer[] segments;
+    private int size;
+    private int limit;
+    private int mask;
+    private boolean entryWithNullKeyIsAssociated;
+    private long nullValue;
+    private boolean closed;
+    // Null while the statistics are disabled
+    private StatsRecorder stats;
+
+    /**
+     * Constructs an empty <b>IntLongHashMapOffHeap</b> in direct memory with the specified initial capacity,
+     * load factor and long value that represents a null value in this map.
+     * The initial capacity is rounded up to the nearest power of two.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  noEntryValue    a long value that represents a null value in this map
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapOffHeap(int initialCapacity, float loadFactor, long noEntryValue) {
+        checkArguments(initialCapacity, loadFactor);
+
+        this.loadFactor = loadFactor;
+        this.noEntryValue = noEntryValue;
+        this.header = null;
+        this.writable = true;
+        nullValue = noEntryValue;
+
+        setCapacity(LinearProbing.tableSizeFor(initialCapacity));
+        segments = allocSegments(capacity);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapOffHeap</b> in direct memory with the specified initial capacity and
+     * load factor, and the default long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapOffHeap(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, NO_ENTRY_VALUE_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapOffHeap</b> in direct memory with the specified initial capacity,
+     * the default load factor (<b>0.75</b>) and default long value that represents a null value in this map
+     * (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     */
+    public IntLongHashMapOffHeap(int initialCapacity) {
+        this(initialCapacity, LOAD_FACTOR_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapOffHeap</b> in direct memory with the default initial capacity
+     * (<b>16</b>), default load factor (<b>0.75</b>) and default long value that represents a null value in this map
+     * (<b>-9223372036854775808</b>).
+     *
+     */
+    public IntLongHashMapOffHeap() {
+        this(INIT_CAPACITY_DEFAULT_VALUE);
+    }
+
+    // A map in a file: the header is already read or written
+    private IntLongHashMapOffHeap(FileChannel channel, MappedByteBuffer header, boolean writable) throws IOException {
+        this.header = header;
+        this.writable = writable;
+        this.loadFactor = header.getFloat(LOAD_FACTOR_OFFSET);
+        this.noEntryValue = header.getLong(NO_ENTRY_VALUE_OFFSET);
+        size = header.getInt(SIZE_OFFSET);
+        entryWithNullKeyIsAssociated = (header.getInt(FLAGS_OFFSET) & NULL_KEY_FLAG) != 0;
+        nullValue = header.getLong(NULL_VALUE_OFFSET);
+
+        setCapacity(header.getInt(CAPACITY_OFFSET));
+        segments = mapSegments(channel, capacity, writable);
+    }
+
+    /**
+     * Creates an empty map in the specified file (the file is replaced if it exists) with the capacity for
+     * <b>expectedSize</b> keys at the specified load factor. The capacity of the map is never changed: putting of
+     * a new key into a full map throws {@link IllegalStateException}.
+     *
+     * @param  file         the file of the map
+     * @param  expectedSize the maximum number of the keys
+     * @param  loadFactor   the load factor
+     * @param  noEntryValue a long value that represents a null value in this map
+     * @return the map in the file, which is open for writing
+     * @throws IllegalArgumentException if the expected size is negative or the resulting capacity is more than
+     *         <b>1073741824</b> or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     * @throws IOException if the file can not be created or mapped
+     */
+    public static IntLongHashMapOffHeap create(Path file, int expectedSize, float loadFactor, long noEntryValue)
+            throws IOException {
+        long initialCapacity = (long) Math.ceil(expectedSize / (double) loadFactor) + 1;
+        if (expectedSize < 0 || initialCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_INITIAL_CAPACITY_PATTERN, initialCapacity));
+        }
+        checkArguments((int) initialCapacity, loadFactor);
+
+        IntLongHashMapOffHeap result;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC_OFFSET, MAGIC);
+            header.putInt(VERSION_OFFSET, VERSION);
+            header.putInt(CAPACITY_OFFSET, LinearProbing.tableSizeFor((int) initialCapacity));
+            header.putInt(SIZE_OFFSET, 0);
+            header.putInt(FLAGS_OFFSET, 0);
+            header.putLong(NULL_VALUE_OFFSET, noEntryValue);
+            header.putLong(NO_ENTRY_VALUE_OFFSET, noEntryValue);
+            header.putFloat(LOAD_FACTOR_OFFSET, loadFactor);
+
+            result = new IntLongHashMapOffHeap(channel, header, true);
+        }
+
+        return result;
+    }
+
+    /**
+     * Maps the map which is saved in the specified file. Only the header is read, so it takes constant time.
+     *
+     * @param  file     the file of the map
+     * @param  writable whether the map can be modified (the modifications are written to the file)
+     * @return the map in the file
+     * @throws IllegalArgumentException if the file is not a map file of the supported version, or its header
+     *         describes an illegal table (capacity, load factor or size) or a table which is longer than the file
+     * @throws IOException if the file can not be opened or mapped
+     */
+    public static IntLongHashMapOffHeap open(Path file, boolean writable) throws IOException {
+        IntLongHashMapOffHeap result;
+        try (FileChannel channel = writable ?
+                FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE) :
+                FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(writable ? FileChannel.MapMode.READ_WRITE :
+                    FileChannel.MapMode.READ_ONLY, 0, Math.min(HEADER_BYTES, channel.size()));
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (!isValidHeader(header, channel.size())) {
+                throw new IllegalArgumentException(String.format(ILLEGAL_FILE_PATTERN, VERSION, file));
+            }
+
+            result = new IntLongHashMapOffHeap(channel, header, writable);
+        }
+
+        return result;
+    }
+
+    // Whether the header is of a map file of this version, and describes a table which the file holds
+    private static boolean isValidHeader(ByteBuffer header, long fileSize) {
+        boolean result = header.capacity() >= HEADER_BYTES && header.getLong(MAGIC_OFFSET) == MAGIC &&
+                header.getInt(VERSION_OFFSET) == VERSION;
+
+        if (result) {
+            int capacity = header.getInt(CAPACITY_OFFSET);
+            int size = header.getInt(SIZE_OFFSET);
+            float loadFactor = header.getFloat(LOAD_FACTOR_OFFSET);
+            result = capacity > 0 && capacity <= MAXIMUM_CAPACITY && Integer.bitCount(capacity) == 1 &&
+                    !Float.isNaN(loadFactor) && loadFactor > 0 && loadFactor <= 1.0 &&
+                    size >= 0 && size < capacity &&
+                    fileSize >= HEADER_BYTES + ((long) capacity << SLOT_SHIFT);
+        }
+
+        return result;
+    }
+
+    private static void checkArguments(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 1 || initialCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_INITIAL_CAPACITY_PATTERN, initialCapacity));
+        }
+        if (Float.isNaN(loadFactor) || loadFactor <= 0 || loadFactor > 1.0) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_LOAD_FACTOR_PATTERN, loadFactor));
+        }
+    }
+
+    /**
+     * Returns the value that will be returned from {@link #get(int)} or {@link #put(int, long)} if no entry exists for a given key.
+     * The default value is <b>-9223372036854775808</b>, but can be changed during construction of the map.
+     *
+     * @return the value that represents a null value in this map
+     * @throws IllegalStateException if the map is closed
+     */
+    public long getNoEntryValue() {
+        ensureOpen();
+        return noEntryValue;
+    }
+
+    private void setCapacity(int capacity) {
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.limit = LinearProbing.limitFor(capacity, loadFactor);
+    }
+
+    private static int segmentCount(int capacity) {
+        return ((capacity - 1) >>> SEGMENT_SHIFT) + 1;
+    }
+
+    private static int segmentBytes(int capacity, int segment) {
+        return Math.min(capacity - (segment << SEGMENT_SHIFT), 1 << SEGMENT_SHIFT) << SLOT_SHIFT;
+    }
+
+    private static ByteBuffer[] allocSegments(int capacity) {
+        ByteBuffer[] result = new ByteBuffer[segmentCount(capacity)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ByteBuffer.allocateDirect(segmentBytes(capacity, i)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        return result;
+    }
+
+    private static ByteBuffer[] mapSegments(FileChannel channel, int capacity, boolean writable) throws IOException {
+        ByteBuffer[] result = new ByteBuffer[segmentCount(capacity)];
+        for (int i = 0; i < result.length; i++) {
+            long position = HEADER_BYTES + ((long) i << (SEGMENT_SHIFT + SLOT_SHIFT));
+            result[i] = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                    position, segmentBytes(capacity, i)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        return result;
+    }
+
+    private static void releaseSegments(ByteBuffer[] segments) {
+        for (ByteBuffer segment : segments) {
+            BufferCleaner.clean(segment);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException(MAP_IS_CLOSED);
+        }
+    }
+
+    private void ensureWritable() {
+        ensureOpen();
+        if (!writable) {
+            throw new UnsupportedOperationException(MAP_IS_READ_ONLY);
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // Slot access
+    // ----------------------------------------------------------------------------------------------------------------
+
+    private int keyAt(int index) {
+        return segments[index >>> SEGMENT_SHIFT].getInt((index & SEGMENT_MASK) << SLOT_SHIFT);
+    }
+
+    private long valueAt(int index) {
+        return segments[index >>> SEGMENT_SHIFT].getLong(((index & SEGMENT_MASK) << SLOT_SHIFT) + VALUE_OFFSET);
+    }
+
+    private void setSlot(int index, int key, long value) {
+        ByteBuffer segment = segments[index >>> SEGMENT_SHIFT];
+        int offset = (index & SEGMENT_MASK) << SLOT_SHIFT;
+        segment.putInt(offset, key);
+        segment.putLong(offset + VALUE_OFFSET, value);
+    }
+
+    private void setValue(int index, long value) {
+        segments[index >>> SEGMENT_SHIFT].putLong(((index & SEGMENT_MASK) << SLOT_SHIFT) + VALUE_OFFSET, value);
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // Table operations
+    // ----------------------------------------------------------------------------------------------------------------
+
+    private int indexFor(int key) {
+        return hashStrategy.hash(key) & mask;
+    }
+
+    private int nextIndex(int index) {
+        return (index + 1) & mask;
+    }
+
+    private void reAllocTables() {
+        if (header != null) {
+            throw new IllegalStateException(String.format(MAP_IS_FULL_PATTERN, size));
+        }
+
+        long start = (stats != null) ? System.nanoTime() : 0;
+        ByteBuffer[] oldSegments = segments;
+        int oldCapacity = capacity;
+
+        setCapacity(Math.min(capacity << 1, MAXIMUM_CAPACITY));
+        segments = allocSegments(capacity);
+
+        for (int i = 0; i < oldCapacity; i++) {
+            ByteBuffer segment = oldSegments[i >>> SEGMENT_SHIFT];
+            int offset = (i & SEGMENT_MASK) << SLOT_SHIFT;
+            int key = segment.getInt(offset);
+            if (key != 0) {
+                int index = indexFor(key);
+                while (keyAt(index) != 0) {
+                    index = nextIndex(index);
+                }
+                setSlot(index, key, segment.getLong(offset + VALUE_OFFSET));
+            }
+        }
+
+        releaseSegments(oldSegments);
+
+        if (stats != null) {
+            stats.recordResize(System.nanoTime() - start);
+        }
+    }
+
+    private int getIndex(int key) {
+        int result = -1;
+
+        int index = indexFor(key);
+        int current = keyAt(index);
+        while (current != 0 && current != key) {
+            index = nextIndex(index);
+            current = keyAt(index);
+        }
+        if (current == key) {
+            result = index;
+        }
+
+        return result;
+    }
+
+    // <getIndex> for the single-key lookups, which records the probe length while the statistics are enabled
+    private int lookup(int key) {
+        int result = getIndex(key);
+
+        if (stats != null) {
+            recordLookup(indexFor(key), result);
+        }
+
+        return result;
+    }
+
+    // The probe length of a hit is counted up to the key, of a miss up to the "empty" slot
+    private void recordLookup(int home, int index) {
+        if (index >= 0) {
+            stats.recordHit(((index - home) & mask) + 1);
+        } else {
+            int probeLength = 1;
+            for (int i = home; keyAt(i) != 0; i = nextIndex(i)) {
+                probeLength++;
+            }
+            stats.recordMiss(probeLength);
+        }
+    }
+
+    private void rawRemove(int index) {
+        int gap = index;
+        int current = nextIndex(gap);
+        int key = keyAt(current);
+        while (key != 0) {
+            if (LinearProbing.isOnProbePath(gap, indexFor(key), current, mask)) {
+                setSlot(gap, key, valueAt(current));
+                gap = current;
+            }
+            current = nextIndex(current);
+            key = keyAt(current);
+        }
+
+        setSlot(gap, 0, 0);
+        size--;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or the value which is returned by {@link #getNoEntryValue()} if this map contains no mapping for the key.
+     *
+     * <p>A return {@link #getNoEntryValue()} value does not <i>necessarily</i>
+     * indicate that the map contains no mapping for the key; it's also
+     * possible that the map explicitly maps the key to {@link #getNoEntryValue()}.
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@link #getNoEntryValue()} if this map contains no mapping for the key
+     * @throws IllegalStateException if the map is closed
+     * @see #getNoEntryValue
+     * @see #put(int, long)
+     */
+    @Override
+    public long get(int key) {
+        ensureOpen();
+        long result = noEntryValue;
+
+        // Separately check for "null key", the same way as IntLongHashMapOpenAddr does
+        if (key == 0) {
+            result = nullValue;
+        } else {
+            int index = lookup(key);
+            if (index >= 0) {
+                result = valueAt(index);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old value is replaced by the specified value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @throws IllegalStateException if the map is closed, or the key is new and the file-backed map is full
+     * @throws UnsupportedOperationException if the map is read-only
+     * @see #getNoEntryValue
+     * @see #get(int)
+     */
+    @Override
+    public long put(int key, long value) {
+        ensureWritable();
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = value;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = getIndex(key);
+            if (index >= 0) {
+                result = valueAt(index);
+                setValue(index, value);
+            } else {
+                if (size >= limit) {
+                    reAllocTables();
+                }
+
+                index = indexFor(key);
+                while (keyAt(index) != 0) {
+                    index = nextIndex(index);
+                }
+                setSlot(index, key, value);
+                size++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns <b>true</b> if this map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return <b>true</b> if this map contains a mapping for the specified key
+     * @throws IllegalStateException if the map is closed
+     */
+    @Override
+    public boolean containsKey(int key) {
+        ensureOpen();
+
+        return (key == 0) ? entryWithNullKeyIsAssociated : lookup(key) >= 0;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     * The following entries of the cluster are shifted back, so no "deleted" marks are left in the table.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @throws IllegalStateException if the map is closed
+     * @throws UnsupportedOperationException if the map is read-only
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long remove(int key) {
+        ensureWritable();
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = noEntryValue;
+            entryWithNullKeyIsAssociated = false;
+        } else {
+            int index = lookup(key);
+            if (index >= 0) {
+                result = valueAt(index);
+                rawRemove(index);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a new cursor over the entries of this map, the entry with the key <b>0</b> included. The cursor reads
+     * the table directly and does not create any objects while it moves over the entries.
+     *
+     * @return a cursor over the entries of this map
+     * @throws IllegalStateException if the map is closed
+     */
+    @Override
+    public IntLongCursor cursor() {
+        ensureOpen();
+
+        return new Cursor();
+    }
+
+    /**
+     * Performs the given action for each entry of this map, the entry with the key <b>0</b> included, in unspecified
+     * order. No objects are created by the iteration. The result is unspecified if the action modifies the map.
+     *
+     * @param action the action to be performed for each entry
+     * @throws IllegalStateException if the map is closed
+     */
+    @Override
+    public void forEach(IntLongConsumer action) {
+        ensureOpen();
+
+        for (int i = 0; i < capacity; i++) {
+            int key = keyAt(i);
+            if (key != 0) {
+                action.accept(key, valueAt(i));
+            }
+        }
+
+        if (entryWithNullKeyIsAssociated) {
+            action.accept(0, nullValue);
+        }
+    }
+
+    /**
+     * Enables or disables the collection of the statistics of this map. Enabling starts the counters from zero;
+     * while the statistics are disabled, the cost of them is a null check per operation.
+     *
+     * @param enabled whether the statistics should be collected
+     * @throws IllegalStateException if the map is closed
+     * @see #getStats()
+     */
+    public void setStatsEnabled(boolean enabled) {
+        ensureOpen();
+
+        if (!enabled) {
+            stats = null;
+        } else if (stats == null) {
+            stats = new StatsRecorder();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this map. The probe lengths are recorded by the single-key lookups
+     * (<b>get</b>, <b>containsKey</b> and <b>remove</b>) and, as well as the rebuildings, only while the statistics
+     * are enabled by {@link #setStatsEnabled(boolean)}; the rest values are calculated by the snapshot (the longest
+     * cluster by a pass over the table). The memory is the size of the table out of the heap.
+     *
+     * @return a snapshot of the statistics of this map
+     * @throws IllegalStateException if the map is closed
+     */
+    @Override
+    public IntLongHashMapStats getStats() {
+        ensureOpen();
+
+        return StatsRecorder.snapshot(stats, StatsRecorder.maxClusterLength(capacity, slot -> keyAt(slot) != 0),
+                size(), capacity, (long) capacity << SLOT_SHIFT);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     * @throws IllegalStateException if the map is closed
+     */
+    @Override
+    public int size() {
+        ensureOpen();
+        return entryWithNullKeyIsAssociated ? size + 1 : size;
+    }
+
+    /**
+     * Writes the header of a file-backed map and forces the modifications of the table to the storage device.
+     * Does nothing for a map in direct memory or a read-only map.
+     *
+     * @throws IllegalStateException if the map is closed
+     */
+    public void flush() {
+        ensureOpen();
+
+        if (header != null && writable) {
+            header.putInt(SIZE_OFFSET, size);
+            header.putInt(FLAGS_OFFSET, entryWithNullKeyIsAssociated ? NULL_KEY_FLAG : 0);
+            header.putLong(NULL_VALUE_OFFSET, nullValue);
+            for (ByteBuffer segment : segments) {
+                ((MappedByteBuffer) segment).force();
+            }
+            header.force();
+        }
+    }
+
+    /**
+     * Flushes a file-backed map and releases the memory of the table (or unmaps the file). Closing of a closed map
+     * has no effect.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            flush();
+            closed = true;
+
+            ByteBuffer[] oldSegments = segments;
+            segments = new ByteBuffer[0];
+            releaseSegments(oldSegments);
+            BufferCleaner.clean(header);
+        }
+    }
+
+    // Cursor over the table which is current at its creation (or reset); the "null key" entry goes last
+    private final class Cursor implements IntLongCursor {
+        private int index;
+        private boolean nullEntry;
+        private int key;
+        private long value;
+
+        Cursor() {
+            reset();
+        }
+
+        @Override
+        public boolean advance() {
+            ensureOpen();
+            boolean result = false;
+
+            while (!result && index < capacity) {
+                int current = keyAt(index);
+                if (current != 0) {
+                    key = current;
+                    value = valueAt(index);
+                    result = true;
+                }
+                index++;
+            }
+
+            if (!result && nullEntry) {
+                nullEntry = false;
+                key = 0;
+                value = nullValue;
+                result = true;
+            }
+
+            return result;
+        }
+
+        @Override
+        public int key() {
+            return key;
+        }
+
+        @Override
+        public long value() {
+            return value;
+        }
+
+        @Override
+        public void reset() {
+            index = 0;
+            nullEntry = entryWithNullKeyIsAssociated;
+        }
+    }
+}
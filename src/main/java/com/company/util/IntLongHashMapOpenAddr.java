@@ -1,5 +1,12 @@
 package com.company.util;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
 /**
  * Implemented by Yevhen Khomiak on 21.06.2017.
  */
@@ -15,31 +22,42 @@ public class IntLongHashMapOpenAddr implements IntLongHashMap {
     private static final String ILLEGAL_INITIAL_CAPACITY_PATTERN = "Illegal initial capacity: %d";
     private static final String ILLEGAL_LOAD_FACTOR_PATTERN = "Illegal load factor: : %f";
     private static final String ILLEGAL_MULTIPLIER_PATTERN = "Illegal multiplier: : %f";
+    private static final String ILLEGAL_HASH_STRATEGY = "Illegal hash strategy: null";
 
-    private int capacity;
     private final float loadFactor;
     private final float multiplier;
     private final long noEntryValue;
+    private final IntHashStrategy hashStrategy;
+    private final boolean powerOfTwoCapacity;
 
-    private int[] keys;
-    private long[] values;
-    private int size;
-    private int limit;
+    private final IntLongTable table;
     private boolean entryWithNullKeyIsAssociated;
     private long nullValue;
+    // Null while the statistics are disabled
+    private StatsRecorder stats;
 
     /**
      * Constructs an empty <b>IntLongHashMapOpenAddr</b> with the specified initial
-     * capacity, load factor, multiplier and long value that represents a null value in this map.
+     * capacity, load factor, multiplier, long value that represents a null value in this map, hash strategy and
+     * capacity mode.
      *
-     * @param  initialCapacity the initial capacity
-     * @param  loadFactor      the load factor
-     * @param  multiplier      how many times will increase the card capacity when rebuilding
-     * @param  noEntryValue    a long value that represents a null value in this map
+     * <p>If <b>powerOfTwoCapacity</b> is set, the capacity is always a power of two (the initial capacity and the
+     * capacity multiplied by multiplier are rounded up to the nearest power of two), and the index of a key is
+     * calculated by a bit mask instead of the division. As only the low bits of the hash code are used in this mode,
+     * it should be used with a hash strategy that mixes the bits of the key, like {@link IntHashStrategy#MURMUR3}.
+     *
+     * @param  initialCapacity    the initial capacity
+     * @param  loadFactor         the load factor
+     * @param  multiplier         how many times will increase the card capacity when rebuilding
+     * @param  noEntryValue       a long value that represents a null value in this map
+     * @param  hashStrategy       the hash strategy of the keys
+     * @param  powerOfTwoCapacity whether the capacity should always be a power of two
      * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
      *         or the load factor is non-positive or the load factor is more than <b>1.0</b> or multiplier is non-positive
+     *         or the hash strategy is null
      */
-    public IntLongHashMapOpenAddr(int initialCapacity, float loadFactor, float multiplier, long noEntryValue) {
+    public IntLongHashMapOpenAddr(int initialCapacity, float loadFactor, float multiplier, long noEntryValue,
+                                  IntHashStrategy hashStrategy, boolean powerOfTwoCapacity) {
         if (initialCapacity < 1 || initialCapacity > MAXIMUM_CAPACITY) {
             throw new IllegalArgumentException(String.format(ILLEGAL_INITIAL_CAPACITY_PATTERN, initialCapacity));
         }
@@ -49,16 +67,37 @@ public class IntLongHashMapOpenAddr implements IntLongHashMap {
         if (multiplier <= 0 || Float.isNaN(multiplier)) {
             throw new IllegalArgumentException(String.format(ILLEGAL_MULTIPLIER_PATTERN, multiplier));
         }
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException(ILLEGAL_HASH_STRATEGY);
+        }
 
         this.loadFactor = loadFactor;
         this.multiplier = multiplier;
         this.noEntryValue = noEntryValue;
+        this.hashStrategy = hashStrategy;
+        this.powerOfTwoCapacity = powerOfTwoCapacity;
         nullValue = noEntryValue;
 
-        keys = new int[initialCapacity];
-        values = new long[initialCapacity];
+        if (powerOfTwoCapacity) {
+            initialCapacity = LinearProbing.tableSizeFor(initialCapacity);
+        }
+        table = new IntLongTable(initialCapacity, loadFactor, multiplier, hashStrategy, powerOfTwoCapacity);
+    }
 
-        setCapacity(initialCapacity);
+    /**
+     * Constructs an empty <b>IntLongHashMapOpenAddr</b> with the specified initial
+     * capacity, load factor, multiplier and long value that represents a null value in this map. The keys are
+     * used as their own hash codes, and the index of a key is the remainder of the division by the capacity.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  multiplier      how many times will increase the card capacity when rebuilding
+     * @param  noEntryValue    a long value that represents a null value in this map
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b> or multiplier is non-positive
+     */
+    public IntLongHashMapOpenAddr(int initialCapacity, float loadFactor, float multiplier, long noEntryValue) {
+        this(initialCapacity, loadFactor, multiplier, noEntryValue, IntHashStrategy.IDENTITY, false);
     }
 
     /**
@@ -112,6 +151,64 @@ public class IntLongHashMapOpenAddr implements IntLongHashMap {
         this(INIT_CAPACITY_DEFAULT_VALUE);
     }
 
+    // Takes the tables which are read by IntLongHashMapSerializer as they are, without rehashing
+    IntLongHashMapOpenAddr(float loadFactor, float multiplier, long noEntryValue, IntHashStrategy hashStrategy,
+                           boolean powerOfTwoCapacity, int[] keys, long[] values, int size,
+                           boolean entryWithNullKeyIsAssociated, long nullValue) {
+        this.loadFactor = loadFactor;
+        this.multiplier = multiplier;
+        this.noEntryValue = noEntryValue;
+        this.hashStrategy = hashStrategy;
+        this.powerOfTwoCapacity = powerOfTwoCapacity;
+        this.entryWithNullKeyIsAssociated = entryWithNullKeyIsAssociated;
+        this.nullValue = nullValue;
+
+        table = new IntLongTable(keys, values, size, loadFactor, multiplier, hashStrategy, powerOfTwoCapacity);
+    }
+
+    /**
+     * Builds a map of the entries <b>(keys[i], values[i])</b> by the tasks of the given pool. The tables are
+     * allocated once, with the capacity for all the keys, and are filled in parallel by regions; the result is the
+     * same as of the <b>put</b> calls for all the entries in their order (the later of the equal keys wins), but the
+     * building scales with the number of threads of the pool. It needs temporary arrays of the size of the input.
+     *
+     * @param  keys               the keys of the entries
+     * @param  values             the values of the entries
+     * @param  loadFactor         the load factor
+     * @param  multiplier         how many times will increase the card capacity when rebuilding
+     * @param  noEntryValue       a long value that represents a null value in this map
+     * @param  hashStrategy       the hash strategy of the keys
+     * @param  powerOfTwoCapacity whether the capacity should always be a power of two
+     * @param  pool               the pool which runs the building
+     * @return the map of the entries
+     * @throws IllegalArgumentException if the arrays have different lengths or the capacity for the keys is more
+     *         than <b>1073741824</b> or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     *         or multiplier is non-positive or the hash strategy is null
+     */
+    public static IntLongHashMapOpenAddr build(int[] keys, long[] values, float loadFactor, float multiplier,
+                                               long noEntryValue, IntHashStrategy hashStrategy,
+                                               boolean powerOfTwoCapacity, ForkJoinPool pool) {
+        return ParallelTableBuilder.build(keys, values, loadFactor, multiplier, noEntryValue, hashStrategy,
+                powerOfTwoCapacity, pool);
+    }
+
+    /**
+     * Builds a map of the entries <b>(keys[i], values[i])</b> by the common pool, with power-of-two capacity,
+     * {@link IntHashStrategy#MURMUR3} hash strategy, the default load factor (<b>0.75</b>), default multiplier
+     * (<b>2.0</b>) and default long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     * @param  keys   the keys of the entries
+     * @param  values the values of the entries
+     * @return the map of the entries
+     * @throws IllegalArgumentException if the arrays have different lengths or the capacity for the keys is more
+     *         than <b>1073741824</b>
+     * @see #build(int[], long[], float, float, long, IntHashStrategy, boolean, ForkJoinPool)
+     */
+    public static IntLongHashMapOpenAddr build(int[] keys, long[] values) {
+        return build(keys, values, LOAD_FACTOR_DEFAULT_VALUE, MULTIPLIER_DEFAULT_VALUE, NO_ENTRY_VALUE_DEFAULT_VALUE,
+                IntHashStrategy.MURMUR3, true, ForkJoinPool.commonPool());
+    }
+
     /**
      * Returns the value that will be returned from {@link #get(int)} or {@link #put(int, long)} if no entry exists for a given key.
      * The default value is <b>-9223372036854775808</b>, but can be changed during construction of the map.
@@ -122,73 +219,25 @@ public class IntLongHashMapOpenAddr implements IntLongHashMap {
         return noEntryValue;
     }
 
-    private void setCapacity(int capacity) {
-        this.capacity = capacity;
-        this.limit = (int) (capacity * loadFactor);
-
-        // <limit> should be LESS than "card-size", because method <getIndex>, on purpose not to use
-        // "full keys circle", expects that there always should be at least one "empty"
-        // (with 0-value) entry in keys array
-        if (limit >= capacity) {              // ">=" is actually excess right here, but let's keep it
-            limit = capacity - 1;
-        }
-    }
-
-    // Hash code is using to determine index in hash table, so hash code should be positive
-    private static int hashCode(int value) {
-        return Integer.hashCode(value) & Integer.MAX_VALUE;
-    }
-
-    private int indexFor(int key) {
-        return hashCode(key) % capacity;
+    // Grows the table once, so that <expectedSize> keys (the "null key" excluded) fit it without a rebuilding
+    private void ensureCapacity(long expectedSize) {
+        table.ensureCapacity(capacityFor(expectedSize, loadFactor, powerOfTwoCapacity));
     }
 
-    private void rawPut(int key, long value) {
-        int index = indexFor(key);
-        while (keys[index] != 0) {
-            if ((++index) >= capacity) {
-                index = 0;
-            }
+    // The capacity of the tables which <expectedSize> keys (the "null key" excluded) fit without a rebuilding
+    static int capacityFor(long expectedSize, float loadFactor, boolean powerOfTwoCapacity) {
+        // One more slot for the rounding of the limit of the table
+        int result = (int) Math.min((long) Math.ceil(expectedSize / (double) loadFactor) + 1, MAXIMUM_CAPACITY);
+        if (powerOfTwoCapacity) {
+            result = LinearProbing.tableSizeFor(result);
         }
 
-        keys[index] = key;
-        values[index] = value;
-        size++;
-    }
-
-    private void reAllocTables() {
-        setCapacity((int) (capacity * multiplier));
-
-        int[] oldKeys = keys;
-        long[] oldValues = values;
-
-        keys = new int[capacity];
-        values = new long[capacity];
-
-        size = 0;
-        for (int i = 0; i < oldKeys.length; i++) {
-            if (oldKeys[i] != 0) {
-                rawPut(oldKeys[i], oldValues[i]);
-            }
-        }
+        return result;
     }
 
-    private int getIndex(int key) {
-        int result = -1;
-
-        int index = indexFor(key);
-        // With strong expectation that there always should be at least one "empty" (with 0-value) entry in keys array
-        while (keys[index] != 0 && keys[index] != key) {
-            index++;
-            if (index >= capacity) {
-                index = 0;
-            }
-        }
-        if (keys[index] == key) {
-            result = index;
-        }
-
-        return result;
+    // The same as <IntLongTable.indexFor(int)>, for the tables of the given capacity
+    static int indexFor(int hash, int capacity, boolean powerOfTwoCapacity) {
+        return powerOfTwoCapacity ? hash & (capacity - 1) : (hash & Integer.MAX_VALUE) % capacity;
     }
 
     /**
@@ -213,9 +262,9 @@ public class IntLongHashMapOpenAddr implements IntLongHashMap {
         if (key == 0) {
             result = nullValue;
         } else {
-            int index = getIndex(key);
+            int index = table.lookup(key);
             if (index >= 0) {
-                result = values[index];
+                result = table.values[index];
             }
         }
 
@@ -249,25 +298,422 @@ public class IntLongHashMapOpenAddr implements IntLongHashMap {
             nullValue = value;
             entryWithNullKeyIsAssociated = true;
         } else {
-            // It is obligatory to do <reAllocTables> if the "card" is full BEFORE call of <getIndex> because
-            // <getIndex>, on purpose not to use "full keys circle", expects that there should be at least one "empty"
-            // (with 0-value) entry in keys array
-            if (size >= limit) {
-                reAllocTables();
+            int index = table.getInsertionIndex(key);
+            if (index >= 0) {
+                result = table.values[index];
+                table.values[index] = value;
+            } else {
+                table.insert(index, key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns <b>true</b> if this map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return <b>true</b> if this map contains a mapping for the specified key
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return (key == 0) ? entryWithNullKeyIsAssociated : table.lookup(key) >= 0;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     * The entries of the same cluster are shifted back to fill the gap, so removal never leaves "deleted" marks
+     * in the table, and the probe lengths do not grow under the insert/remove churn.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long remove(int key) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = noEntryValue;
+            entryWithNullKeyIsAssociated = false;
+        } else {
+            int index = table.lookup(key);
+            if (index >= 0) {
+                result = table.values[index];
+                table.removeAt(index);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     * no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the value to return if this map contains no mapping for the key
+     * @return the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     *         no mapping for the key
+     */
+    @Override
+    public long getOrDefault(int key, long defaultValue) {
+        long result = defaultValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+            }
+        } else {
+            int index = table.lookup(key);
+            if (index >= 0) {
+                result = table.values[index];
             }
+        }
+
+        return result;
+    }
 
-            int index = getIndex(key);
+    /**
+     * Associates the specified value with the specified key in this map, if the key is not already associated
+     * with a value. The map is probed only once.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the current value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key (and the value is associated now)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long putIfAbsent(int key, long value) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+            } else {
+                nullValue = value;
+                entryWithNullKeyIsAssociated = true;
+            }
+        } else {
+            int index = table.getInsertionIndex(key);
             if (index >= 0) {
-                result = values[index];
-                values[index] = value;
+                result = table.values[index];
             } else {
-                rawPut(key, value);
+                table.insert(index, key, value);
             }
         }
 
         return result;
     }
 
+    /**
+     * Adds the increment to the value associated with the specified key. If there is no mapping for the key,
+     * the key is associated with the increment (as if it was associated with <b>0</b>). The map is probed only once.
+     *
+     * @param key key with which the value is associated
+     * @param increment the value to add
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long addTo(int key, long increment) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = entryWithNullKeyIsAssociated ? nullValue + increment : increment;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = table.getInsertionIndex(key);
+            if (index >= 0) {
+                result = table.values[index];
+                table.values[index] += increment;
+            } else {
+                table.insert(index, key, increment);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the specified value if there is no mapping for the key, otherwise
+     * replaces the associated value with the result of <b>remappingFunction</b> applied to the associated value
+     * and the specified value. The map is probed only once.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be associated if there is no mapping for the key
+     * @param remappingFunction the function to combine the associated value and the specified value
+     * @return the new value associated with the specified key
+     */
+    @Override
+    public long merge(int key, long value, LongBinaryOperator remappingFunction) {
+        long result = value;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = remappingFunction.applyAsLong(nullValue, value);
+            }
+            nullValue = result;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = table.getInsertionIndex(key);
+            if (index >= 0) {
+                result = remappingFunction.applyAsLong(table.values[index], value);
+                table.values[index] = result;
+            } else {
+                table.insert(index, key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the result of <b>remappingFunction</b> applied to the value which is
+     * associated with the key, or to {@link #getNoEntryValue()} if there is no mapping for the key.
+     * The map is probed only once.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param remappingFunction the function to compute the value
+     * @return the new value associated with the specified key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long compute(int key, LongUnaryOperator remappingFunction) {
+        long result;
+
+        if (key == 0) {
+            result = remappingFunction.applyAsLong(nullValue);
+            nullValue = result;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = table.getInsertionIndex(key);
+            if (index >= 0) {
+                result = remappingFunction.applyAsLong(table.values[index]);
+                table.values[index] = result;
+            } else {
+                result = remappingFunction.applyAsLong(noEntryValue);
+                table.insert(index, key, result);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the values from <b>values[off .. off + len - 1]</b> with the keys from <b>keys[off .. off + len - 1]</b>
+     * in this map, as if by <b>put(keys[i], values[i])</b> for each index in ascending order (so the last value wins
+     * for a repeated key).
+     *
+     * <p>The tables are grown at most once, before the first entry is put. The keys are put in groups: the indexes of
+     * the whole group are calculated before the first of them is probed, so that the cache misses overlap.
+     *
+     * @param keys the keys with which the values are to be associated
+     * @param values the values to be associated with the keys
+     * @param off the index of the first entry in the arrays
+     * @param len the number of the entries
+     * @throws IllegalArgumentException if the range is out of the bounds of either array
+     */
+    @Override
+    public void putAll(int[] keys, long[] values, int off, int len) {
+        BulkOperations.checkRange(keys.length, values.length, off, len);
+        ensureCapacity((long) table.size() + len);
+        // The tables are big enough for all the entries, so they are not replaced by a rebuilding
+        int[] tableKeys = table.keys;
+        long[] tableValues = table.values;
+
+        int[] indexes = new int[BulkOperations.BATCH_SIZE];
+        for (int batchStart = off; batchStart < off + len; batchStart += BulkOperations.BATCH_SIZE) {
+            int batchLength = Math.min(BulkOperations.BATCH_SIZE, off + len - batchStart);
+
+            for (int i = 0; i < batchLength; i++) {
+                indexes[i] = table.indexFor(hashStrategy.hash(keys[batchStart + i]));
+            }
+
+            for (int i = 0; i < batchLength; i++) {
+                int key = keys[batchStart + i];
+                long value = values[batchStart + i];
+
+                if (key == 0) {
+                    nullValue = value;
+                    entryWithNullKeyIsAssociated = true;
+                } else {
+                    int index = indexes[i];
+                    while (tableKeys[index] != 0 && tableKeys[index] != key) {
+                        index = table.nextIndex(index);
+                    }
+
+                    if (tableKeys[index] == 0) {
+                        table.claim(index, key);
+                    }
+                    tableValues[index] = value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes to <b>out[i]</b> the value to which <b>keys[i]</b> is mapped, or {@link #getNoEntryValue()} if this map
+     * contains no mapping for the key, for each index of <b>keys</b>.
+     *
+     * <p>The keys are looked up in groups: the indexes of the whole group are calculated, and the first slots of the
+     * probe sequences are loaded, before the first of them is probed, so that the cache misses overlap.
+     *
+     * @param keys the keys whose associated values are to be returned
+     * @param out the array for the values, which is not shorter than <b>keys</b>
+     * @throws IllegalArgumentException if <b>out</b> is shorter than <b>keys</b>
+     * @see #getNoEntryValue
+     */
+    @Override
+    public void getAll(int[] keys, long[] out) {
+        BulkOperations.checkRange(keys.length, out.length, 0, keys.length);
+        int[] tableKeys = table.keys;
+        long[] tableValues = table.values;
+
+        int[] indexes = new int[BulkOperations.BATCH_SIZE];
+        int[] firstKeys = new int[BulkOperations.BATCH_SIZE];
+        for (int batchStart = 0; batchStart < keys.length; batchStart += BulkOperations.BATCH_SIZE) {
+            int batchLength = Math.min(BulkOperations.BATCH_SIZE, keys.length - batchStart);
+
+            // The loads of this loop are independent, so they are in flight simultaneously
+            for (int i = 0; i < batchLength; i++) {
+                int index = table.indexFor(hashStrategy.hash(keys[batchStart + i]));
+                indexes[i] = index;
+                firstKeys[i] = tableKeys[index];
+            }
+
+            for (int i = 0; i < batchLength; i++) {
+                int key = keys[batchStart + i];
+                long result = noEntryValue;
+
+                if (key == 0) {
+                    result = nullValue;
+                } else if (firstKeys[i] == key) {
+                    result = tableValues[indexes[i]];
+                } else if (firstKeys[i] != 0) {
+                    int index = table.nextIndex(indexes[i]);
+                    while (tableKeys[index] != 0 && tableKeys[index] != key) {
+                        index = table.nextIndex(index);
+                    }
+                    if (tableKeys[index] == key) {
+                        result = tableValues[index];
+                    }
+                }
+
+                out[batchStart + i] = result;
+            }
+        }
+    }
+
+    /**
+     * Returns a new cursor over the entries of this map, the entry with the key <b>0</b> included. The cursor reads
+     * the tables directly and does not create any objects while it moves over the entries.
+     *
+     * @return a cursor over the entries of this map
+     */
+    @Override
+    public IntLongCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Performs the given action for each entry of this map, the entry with the key <b>0</b> included, in unspecified
+     * order. No objects are created by the iteration. The result is unspecified if the action modifies the map.
+     *
+     * @param action the action to be performed for each entry
+     */
+    @Override
+    public void forEach(IntLongConsumer action) {
+        int[] keys = table.keys;
+        long[] values = table.values;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+
+        if (entryWithNullKeyIsAssociated) {
+            action.accept(0, nullValue);
+        }
+    }
+
+    /**
+     * Returns a sequential stream of the keys of this map, the key <b>0</b> included if it is mapped. The underlying
+     * spliterator splits the table in halves, so the stream made parallel by {@link IntStream#parallel()} is processed
+     * efficiently by the fork-join pool.
+     *
+     * @return a stream of the keys of this map
+     */
+    @Override
+    public IntStream keyStream() {
+        return StreamSupport.intStream(new TableSpliterator.OfKeys(table.keys, table.values, entryWithNullKeyIsAssociated,
+                nullValue, size()), false);
+    }
+
+    /**
+     * Returns a sequential stream of the values of this map, the value of the key <b>0</b> included if it is mapped.
+     * The underlying spliterator splits the table in halves, so the stream made parallel by
+     * {@link LongStream#parallel()} is processed efficiently by the fork-join pool.
+     *
+     * @return a stream of the values of this map
+     */
+    @Override
+    public LongStream valueStream() {
+        return StreamSupport.longStream(new TableSpliterator.OfValues(table.keys, table.values, entryWithNullKeyIsAssociated,
+                nullValue, size()), false);
+    }
+
+    /**
+     * Enables or disables the collection of the statistics of this map. Enabling starts the counters from zero;
+     * while the statistics are disabled, the cost of them is a null check per operation.
+     *
+     * @param enabled whether the statistics should be collected
+     * @see #getStats()
+     */
+    public void setStatsEnabled(boolean enabled) {
+        if (!enabled) {
+            stats = null;
+        } else if (stats == null) {
+            stats = new StatsRecorder();
+        }
+        table.setStats(stats);
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this map. The probe lengths are recorded by the single-key lookups
+     * (<b>get</b>, <b>getOrDefault</b>, <b>containsKey</b> and <b>remove</b>) and, as well as the rebuildings, only
+     * while the statistics are enabled by {@link #setStatsEnabled(boolean)}; the rest values are calculated by the
+     * snapshot (the longest cluster by a pass over the table).
+     *
+     * @return a snapshot of the statistics of this map
+     */
+    @Override
+    public IntLongHashMapStats getStats() {
+        return StatsRecorder.snapshot(stats, maxClusterLength(), size(), table.capacity(), memoryBytes());
+    }
+
+    int capacity() {
+        return table.capacity();
+    }
+
+    private long memoryBytes() {
+        return StatsRecorder.arrayBytes(table.keys.length, Integer.BYTES)
+                + StatsRecorder.arrayBytes(table.values.length, Long.BYTES);
+    }
+
+    // The longest cluster of the table, by a pass over it
+    private int maxClusterLength() {
+        return StatsRecorder.maxClusterLength(table.keys);
+    }
+
     /**
      * Returns the number of key-value mappings in this map.
      *
@@ -275,6 +721,87 @@ public class IntLongHashMapOpenAddr implements IntLongHashMap {
      */
     @Override
     public int size() {
-        return entryWithNullKeyIsAssociated ? size + 1 : size;
+        return entryWithNullKeyIsAssociated ? table.size() + 1 : table.size();
+    }
+
+    // The state which is written by IntLongHashMapSerializer
+
+    int[] keyTable() {
+        return table.keys;
+    }
+
+    long[] valueTable() {
+        return table.values;
+    }
+
+    float loadFactor() {
+        return loadFactor;
+    }
+
+    float multiplier() {
+        return multiplier;
+    }
+
+    IntHashStrategy hashStrategy() {
+        return hashStrategy;
+    }
+
+    boolean isPowerOfTwoCapacity() {
+        return powerOfTwoCapacity;
+    }
+
+    // Cursor over the tables which are current at its creation (or reset); the "null key" entry goes last
+    private final class Cursor implements IntLongCursor {
+        private int[] cursorKeys;
+        private long[] cursorValues;
+        private int index;
+        private boolean nullEntry;
+        private int key;
+        private long value;
+
+        Cursor() {
+            reset();
+        }
+
+        @Override
+        public boolean advance() {
+            boolean result = false;
+
+            while (!result && index < cursorKeys.length) {
+                if (cursorKeys[index] != 0) {
+                    key = cursorKeys[index];
+                    value = cursorValues[index];
+                    result = true;
+                }
+                index++;
+            }
+
+            if (!result && nullEntry) {
+                nullEntry = false;
+                key = 0;
+                value = nullValue;
+                result = true;
+            }
+
+            return result;
+        }
+
+        @Override
+        public int key() {
+            return key;
+        }
+
+        @Override
+        public long value() {
+            return value;
+        }
+
+        @Override
+        public void reset() {
+            cursorKeys = table.keys;
+            cursorValues = table.values;
+            index = 0;
+            nullEntry = entryWithNullKeyIsAssociated;
+        }
     }
 }
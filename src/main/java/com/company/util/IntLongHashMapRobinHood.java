@@ -0,0 +1,516 @@
+package com.company.util;
+
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link IntLongHashMap} implementation with open addressing and Robin Hood linear probing.
+ *
+ * <p>The probe distance of every entry (how far it is from its "home" index) is stored per slot. On insertion an
+ * entry takes the slot of a "richer" one (which is closer to its home index), and the displaced entry continues
+ * probing, so the variance of the probe distances is small. The entries of a cluster are ordered by their home
+ * indexes, so a lookup of an absent key stops as soon as it meets an entry with a smaller probe distance than its
+ * own, without walking the whole cluster until an empty slot. It makes high load factors (<b>0.9</b> and more)
+ * usable; the capacity is always a power of two.
+ */
+
+public class IntLongHashMapRobinHood implements IntLongHashMap {
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    // The probe distance is stored as <distance + 1> in a byte, 0 means "empty" slot
+    private static final int MAXIMUM_PROBE_DISTANCE = Byte.MAX_VALUE - 1;
+
+    private static final int INIT_CAPACITY_DEFAULT_VALUE = 16;
+    private static final float LOAD_FACTOR_DEFAULT_VALUE = 0.9f;
+    private static final long NO_ENTRY_VALUE_DEFAULT_VALUE = Long.MIN_VALUE;
+
+    private static final String ILLEGAL_INITIAL_CAPACITY_PATTERN = "Illegal initial capacity: %d";
+    private static final String ILLEGAL_LOAD_FACTOR_PATTERN = "Illegal load factor: : %f";
+    private static final String ILLEGAL_HASH_STRATEGY = "Illegal hash strategy: null";
+    private static final String MAP_IS_FULL_PATTERN = "The map is full: %d entries";
+    private static final String PROBE_DISTANCE_OVERFLOW_PATTERN =
+            "The probe distance of the key %d is more than %d at the maximum capacity";
+
+    private int capacity;
+    private final float loadFactor;
+    private final long noEntryValue;
+    private final IntHashStrategy hashStrategy;
+    private final int maximumCapacity;
+
+    private int[] keys;
+    private long[] values;
+    private byte[] distances;
+    private int size;
+    private int limit;
+    private int mask;
+    private boolean entryWithNullKeyIsAssociated;
+    private long nullValue;
+
+    /**
+     * Constructs an empty <b>IntLongHashMapRobinHood</b> with the specified initial capacity, load factor,
+     * long value that represents a null value in this map and hash strategy.
+     * The initial capacity is rounded up to the nearest power of two.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  noEntryValue    a long value that represents a null value in this map
+     * @param  hashStrategy    the hash strategy of the keys
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     *         or the hash strategy is null
+     */
+    public IntLongHashMapRobinHood(int initialCapacity, float loadFactor, long noEntryValue,
+                                   IntHashStrategy hashStrategy) {
+        this(initialCapacity, loadFactor, noEntryValue, hashStrategy, MAXIMUM_CAPACITY);
+    }
+
+    // The table does not grow over <maximumCapacity> (for tests)
+    IntLongHashMapRobinHood(int initialCapacity, float loadFactor, long noEntryValue, IntHashStrategy hashStrategy,
+                            int maximumCapacity) {
+        if (initialCapacity < 1 || initialCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_INITIAL_CAPACITY_PATTERN, initialCapacity));
+        }
+        if (Float.isNaN(loadFactor) || loadFactor <= 0 || loadFactor > 1.0) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_LOAD_FACTOR_PATTERN, loadFactor));
+        }
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException(ILLEGAL_HASH_STRATEGY);
+        }
+
+        this.loadFactor = loadFactor;
+        this.noEntryValue = noEntryValue;
+        this.hashStrategy = hashStrategy;
+        this.maximumCapacity = maximumCapacity;
+        nullValue = noEntryValue;
+
+        allocTables(LinearProbing.tableSizeFor(initialCapacity));
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapRobinHood</b> with the specified initial capacity, load factor and
+     * long value that represents a null value in this map, and Murmur3 hash strategy.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  noEntryValue    a long value that represents a null value in this map
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapRobinHood(int initialCapacity, float loadFactor, long noEntryValue) {
+        this(initialCapacity, loadFactor, noEntryValue, IntHashStrategy.MURMUR3);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapRobinHood</b> with the specified initial capacity and load factor,
+     * Murmur3 hash strategy and the default long value that represents a null value in
+     * this map (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapRobinHood(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, NO_ENTRY_VALUE_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapRobinHood</b> with the specified initial capacity,
+     * the default load factor (<b>0.9</b>), Murmur3 hash strategy and default
+     * long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     */
+    public IntLongHashMapRobinHood(int initialCapacity) {
+        this(initialCapacity, LOAD_FACTOR_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapRobinHood</b> with the default initial capacity (<b>16</b>),
+     * default load factor (<b>0.9</b>), Murmur3 hash strategy and default
+     * long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     */
+    public IntLongHashMapRobinHood() {
+        this(INIT_CAPACITY_DEFAULT_VALUE);
+    }
+
+    /**
+     * Returns the value that will be returned from {@link #get(int)} or {@link #put(int, long)} if no entry exists for a given key.
+     * The default value is <b>-9223372036854775808</b>, but can be changed during construction of the map.
+     *
+     * @return the value that represents a null value in this map
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    private void allocTables(int capacity) {
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        // At least one "empty" slot is kept, so that insertion always finds a place for the "displaced" entry
+        this.limit = LinearProbing.limitFor(capacity, loadFactor);
+
+        keys = new int[capacity];
+        values = new long[capacity];
+        distances = new byte[capacity];
+        size = 0;
+    }
+
+    private int indexFor(int key) {
+        return hashStrategy.hash(key) & mask;
+    }
+
+    private void reAllocTables() {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        byte[] oldDistances = distances;
+
+        allocTables(Math.min(capacity << 1, maximumCapacity));
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldDistances[i] != 0) {
+                rawPut(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    // Puts the key which is known to be absent in the map
+    private void rawPut(int key, long value) {
+        int index = indexFor(key);
+        int distance = 1;
+
+        while (distances[index] != 0) {
+            // The "richer" entry gives its slot, and the displaced one continues probing
+            if (distances[index] < distance) {
+                int displacedKey = keys[index];
+                long displacedValue = values[index];
+                int displacedDistance = distances[index];
+
+                keys[index] = key;
+                values[index] = value;
+                distances[index] = (byte) distance;
+
+                key = displacedKey;
+                value = displacedValue;
+                distance = displacedDistance;
+            }
+
+            index = (index + 1) & mask;
+            if (++distance > MAXIMUM_PROBE_DISTANCE + 1) {
+                // A new key is checked by <checkInsertion> at the maximum capacity, so only a rebuilding into the
+                // maximum capacity gets here: the table can not grow any more
+                if (capacity >= maximumCapacity) {
+                    throw new IllegalStateException(String.format(PROBE_DISTANCE_OVERFLOW_PATTERN, key,
+                            MAXIMUM_PROBE_DISTANCE));
+                }
+
+                // The probe distance can not be stored any more: the table is rebuilt with the doubled capacity
+                // and the entry which is "in hand" at the moment is put into it
+                reAllocTables();
+                rawPut(key, value);
+                return;
+            }
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        distances[index] = (byte) distance;
+        size++;
+    }
+
+    // At the maximum capacity the table is not rebuilt, so a new key should fit both the load factor and the probe
+    // distances which can be stored. The insertion of <rawPut> is simulated on the distances only, so the map is
+    // not modified if the key does not fit
+    private void checkInsertion(int key) {
+        if (size >= limit) {
+            throw new IllegalStateException(String.format(MAP_IS_FULL_PATTERN, size));
+        }
+
+        int index = indexFor(key);
+        int distance = 1;
+        while (distances[index] != 0) {
+            // The displaced entry continues with its own distance
+            if (distances[index] < distance) {
+                distance = distances[index];
+            }
+
+            index = (index + 1) & mask;
+            if (++distance > MAXIMUM_PROBE_DISTANCE + 1) {
+                throw new IllegalStateException(String.format(PROBE_DISTANCE_OVERFLOW_PATTERN, key,
+                        MAXIMUM_PROBE_DISTANCE));
+            }
+        }
+    }
+
+    private int getIndex(int key) {
+        int index = indexFor(key);
+        int distance = 1;
+
+        // An "empty" slot (with 0 distance) or an entry which is closer to its home index than the key would be
+        // means that the key is absent: it would have taken that slot on insertion
+        while (distances[index] >= distance) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+            distance++;
+        }
+
+        return -1;
+    }
+
+    // Backward-shift deletion: the following entries of the cluster which are not at their home indexes are moved
+    // one slot back
+    private void rawRemove(int index) {
+        int next = (index + 1) & mask;
+        while (distances[next] > 1) {
+            keys[index] = keys[next];
+            values[index] = values[next];
+            distances[index] = (byte) (distances[next] - 1);
+            index = next;
+            next = (next + 1) & mask;
+        }
+
+        keys[index] = 0;
+        values[index] = 0;
+        distances[index] = 0;
+        size--;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or the value which is returned by {@link #getNoEntryValue()} if this map contains no mapping for the key.
+     *
+     * <p>A return {@link #getNoEntryValue()} value does not <i>necessarily</i>
+     * indicate that the map contains no mapping for the key; it's also
+     * possible that the map explicitly maps the key to {@link #getNoEntryValue()}.
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@link #getNoEntryValue()} if this map contains no mapping for the key
+     * @see #getNoEntryValue
+     * @see #put(int, long)
+     */
+    @Override
+    public long get(int key) {
+        long result = noEntryValue;
+
+        // Separately check for "null key", the same way as IntLongHashMapOpenAddr does
+        if (key == 0) {
+            result = nullValue;
+        } else {
+            int index = getIndex(key);
+            if (index >= 0) {
+                result = values[index];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old value is replaced by the specified value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @throws IllegalStateException if the key is new and the table of the maximum capacity (<b>1073741824</b>)
+     *         can not hold it: the map is full, or the probe distance of an entry would be more than <b>126</b>
+     * @see #getNoEntryValue
+     * @see #get(int)
+     */
+    @Override
+    public long put(int key, long value) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = value;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = getIndex(key);
+            if (index >= 0) {
+                result = values[index];
+                values[index] = value;
+            } else {
+                if (capacity >= maximumCapacity) {
+                    checkInsertion(key);
+                } else if (size >= limit) {
+                    reAllocTables();
+                }
+                rawPut(key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns <b>true</b> if this map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return <b>true</b> if this map contains a mapping for the specified key
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return (key == 0) ? entryWithNullKeyIsAssociated : getIndex(key) >= 0;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     * The following entries of the cluster are shifted back, so no "deleted" marks are left in the table.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long remove(int key) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = noEntryValue;
+            entryWithNullKeyIsAssociated = false;
+        } else {
+            int index = getIndex(key);
+            if (index >= 0) {
+                result = values[index];
+                rawRemove(index);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a new cursor over the entries of this map, the entry with the key <b>0</b> included. The cursor reads
+     * the tables directly and does not create any objects while it moves over the entries.
+     *
+     * @return a cursor over the entries of this map
+     */
+    @Override
+    public IntLongCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Performs the given action for each entry of this map, the entry with the key <b>0</b> included, in unspecified
+     * order. No objects are created by the iteration. The result is unspecified if the action modifies the map.
+     *
+     * @param action the action to be performed for each entry
+     */
+    @Override
+    public void forEach(IntLongConsumer action) {
+        int[] keys = this.keys;
+        long[] values = this.values;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+
+        if (entryWithNullKeyIsAssociated) {
+            action.accept(0, nullValue);
+        }
+    }
+
+    /**
+     * Returns a sequential stream of the keys of this map, the key <b>0</b> included if it is mapped. The underlying
+     * spliterator splits the table in halves, so the stream made parallel by {@link IntStream#parallel()} is processed
+     * efficiently by the fork-join pool.
+     *
+     * @return a stream of the keys of this map
+     */
+    @Override
+    public IntStream keyStream() {
+        return StreamSupport.intStream(new TableSpliterator.OfKeys(keys, values, entryWithNullKeyIsAssociated,
+                nullValue, size()), false);
+    }
+
+    /**
+     * Returns a sequential stream of the values of this map, the value of the key <b>0</b> included if it is mapped.
+     * The underlying spliterator splits the table in halves, so the stream made parallel by
+     * {@link LongStream#parallel()} is processed efficiently by the fork-join pool.
+     *
+     * @return a stream of the values of this map
+     */
+    @Override
+    public LongStream valueStream() {
+        return StreamSupport.longStream(new TableSpliterator.OfValues(keys, values, entryWithNullKeyIsAssociated,
+                nullValue, size()), false);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    @Override
+    public int size() {
+        return entryWithNullKeyIsAssociated ? size + 1 : size;
+    }
+
+    // Cursor over the tables which are current at its creation (or reset); the "null key" entry goes last
+    private final class Cursor implements IntLongCursor {
+        private int[] cursorKeys;
+        private long[] cursorValues;
+        private int index;
+        private boolean nullEntry;
+        private int key;
+        private long value;
+
+        Cursor() {
+            reset();
+        }
+
+        @Override
+        public boolean advance() {
+            boolean result = false;
+
+            while (!result && index < cursorKeys.length) {
+                if (cursorKeys[index] != 0) {
+                    key = cursorKeys[index];
+                    value = cursorValues[index];
+                    result = true;
+                }
+                index++;
+            }
+
+            if (!result && nullEntry) {
+                nullEntry = false;
+                key = 0;
+                value = nullValue;
+                result = true;
+            }
+
+            return result;
+        }
+
+        @Override
+        public int key() {
+            return key;
+        }
+
+        @Override
+        public long value() {
+            return value;
+        }
+
+        @Override
+        public void reset() {
+            cursorKeys = keys;
+            cursorValues = values;
+            index = 0;
+            nullEntry = entryWithNullKeyIsAssociated;
+        }
+    }
+}
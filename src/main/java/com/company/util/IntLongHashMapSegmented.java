@@ -0,0 +1,598 @@
+package com.company.util;
+
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * {@link IntLongHashMap} implementation whose table is split into 64 segments, each of them is an open-addressing
+ * table with linear probing, power-of-two capacity and backward-shift deletion, like {@link IntLongHashMapOpenAddr}.
+ * The high 6 bits of the Murmur3 hash code of a key choose its segment, and the rest 26 bits (shifted up, so that
+ * the segments of up to <b>1073741824</b> slots use all of their slots) choose the slot in the segment.
+ *
+ * <p>A segment grows independently of the others when its own load reaches the load factor, so a growth
+ * re-allocates and rehashes 1/64 of the entries: the peak memory of the growth is about 1/64 of the table more
+ * than the table itself (instead of three times the table for the doubling of one table), and the pause is
+ * 64 times shorter. The segments are filled evenly, so they grow at about the same time, one by one.
+ *
+ * <p>Every segment has up to <b>1073741824</b> slots, so the map holds all the <b>2^32</b> int keys: the number of
+ * the entries is returned by {@link #longSize()}, {@link #size()} returns <b>Integer.MAX_VALUE</b> for the maps
+ * with more entries than that.
+ */
+
+public class IntLongHashMapSegmented implements IntLongHashMap {
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_SHIFT = Integer.SIZE - SEGMENT_BITS;
+    private static final int MAXIMUM_SEGMENT_CAPACITY = LinearProbing.MAXIMUM_CAPACITY;
+    private static final int MINIMUM_SEGMENT_CAPACITY = 2;
+    private static final float SEGMENT_MULTIPLIER = 2.0f;
+    private static final long MAXIMUM_CAPACITY = (long) MAXIMUM_SEGMENT_CAPACITY * SEGMENT_COUNT;
+
+    // The hash code of a key in its segment: the Murmur3 hash code without the bits which chose the segment, as the
+    // segment should index its slots by them (for tests)
+    static final IntHashStrategy SEGMENT_HASH_STRATEGY = key -> IntHashStrategy.fmix32(key) << SEGMENT_BITS;
+
+    private static final long INIT_CAPACITY_DEFAULT_VALUE = 16;
+    private static final float LOAD_FACTOR_DEFAULT_VALUE = 0.75f;
+    private static final long NO_ENTRY_VALUE_DEFAULT_VALUE = Long.MIN_VALUE;
+
+    private static final String ILLEGAL_INITIAL_CAPACITY_PATTERN = "Illegal initial capacity: %d";
+    private static final String ILLEGAL_LOAD_FACTOR_PATTERN = "Illegal load factor: : %f";
+
+    private final long noEntryValue;
+    // Fixed: the segments rehash their keys by Murmur3 when they grow
+    private final IntHashStrategy hashStrategy = IntHashStrategy.MURMUR3;
+
+    private final IntLongTable[] segments;
+    private long size;
+    private boolean entryWithNullKeyIsAssociated;
+    private long nullValue;
+    // Null while the statistics are disabled, shared by the segments
+    private StatsRecorder stats;
+
+    /**
+     * Constructs an empty <b>IntLongHashMapSegmented</b> with the specified initial capacity, load factor and
+     * long value that represents a null value in this map. The initial capacity is divided between the segments,
+     * and the capacity of a segment is rounded up to the nearest power of two.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  noEntryValue    a long value that represents a null value in this map
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than
+     *         <b>68719476736</b> or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapSegmented(long initialCapacity, float loadFactor, long noEntryValue) {
+        if (initialCapacity < 1 || initialCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_INITIAL_CAPACITY_PATTERN, initialCapacity));
+        }
+        if (Float.isNaN(loadFactor) || loadFactor <= 0 || loadFactor > 1.0) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_LOAD_FACTOR_PATTERN, loadFactor));
+        }
+
+        this.noEntryValue = noEntryValue;
+        nullValue = noEntryValue;
+
+        int segmentCapacity = LinearProbing.tableSizeFor((int) Math.max(MINIMUM_SEGMENT_CAPACITY,
+                (initialCapacity + SEGMENT_COUNT - 1) / SEGMENT_COUNT));
+        segments = new IntLongTable[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new IntLongTable(segmentCapacity, loadFactor, SEGMENT_MULTIPLIER, SEGMENT_HASH_STRATEGY,
+                    true);
+        }
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapSegmented</b> with the specified initial capacity and load factor,
+     * and the default long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than
+     *         <b>68719476736</b> or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapSegmented(long initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, NO_ENTRY_VALUE_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapSegmented</b> with the specified initial capacity,
+     * the default load factor (<b>0.75</b>) and default long value that represents a null value in this map
+     * (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than
+     *         <b>68719476736</b>
+     */
+    public IntLongHashMapSegmented(long initialCapacity) {
+        this(initialCapacity, LOAD_FACTOR_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapSegmented</b> with the default initial capacity (<b>16</b>),
+     * default load factor (<b>0.75</b>) and default long value that represents a null value in this map
+     * (<b>-9223372036854775808</b>).
+     *
+     */
+    public IntLongHashMapSegmented() {
+        this(INIT_CAPACITY_DEFAULT_VALUE);
+    }
+
+    /**
+     * Returns the value that will be returned from {@link #get(int)} or {@link #put(int, long)} if no entry exists for a given key.
+     * The default value is <b>-9223372036854775808</b>, but can be changed during construction of the map.
+     *
+     * @return the value that represents a null value in this map
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    // Every segment is the table of IntLongHashMapOpenAddr with power-of-two capacity, indexed by the hash code of
+    // <SEGMENT_HASH_STRATEGY>; a segment grows alone, the others keep their tables
+    private IntLongTable segmentFor(int hash) {
+        return segments[hash >>> SEGMENT_SHIFT];
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or the value which is returned by {@link #getNoEntryValue()} if this map contains no mapping for the key.
+     *
+     * <p>A return {@link #getNoEntryValue()} value does not <i>necessarily</i>
+     * indicate that the map contains no mapping for the key; it's also
+     * possible that the map explicitly maps the key to {@link #getNoEntryValue()}.
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@link #getNoEntryValue()} if this map contains no mapping for the key
+     * @see #getNoEntryValue
+     * @see #put(int, long)
+     */
+    @Override
+    public long get(int key) {
+        long result = noEntryValue;
+
+        // Separately check for "null key", the same way as IntLongHashMapOpenAddr does
+        if (key == 0) {
+            result = nullValue;
+        } else {
+            int hash = hashStrategy.hash(key);
+            IntLongTable segment = segmentFor(hash);
+            int index = segment.lookup(key, hash << SEGMENT_BITS);
+            if (index >= 0) {
+                result = segment.values[index];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old value is replaced by the specified value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     * @see #get(int)
+     */
+    @Override
+    public long put(int key, long value) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = value;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int hash = hashStrategy.hash(key);
+            IntLongTable segment = segmentFor(hash);
+            int index = segment.getInsertionIndex(key, hash << SEGMENT_BITS);
+            if (index >= 0) {
+                result = segment.values[index];
+                segment.values[index] = value;
+            } else {
+                segment.insert(index, key, value);
+                size++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns <b>true</b> if this map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return <b>true</b> if this map contains a mapping for the specified key
+     */
+    @Override
+    public boolean containsKey(int key) {
+        boolean result = entryWithNullKeyIsAssociated;
+
+        if (key != 0) {
+            int hash = hashStrategy.hash(key);
+            result = segmentFor(hash).lookup(key, hash << SEGMENT_BITS) >= 0;
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     * The following entries of the cluster are shifted back, so no "deleted" marks are left in the table.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long remove(int key) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = noEntryValue;
+            entryWithNullKeyIsAssociated = false;
+        } else {
+            int hash = hashStrategy.hash(key);
+            IntLongTable segment = segmentFor(hash);
+            int index = segment.lookup(key, hash << SEGMENT_BITS);
+            if (index >= 0) {
+                result = segment.values[index];
+                segment.removeAt(index);
+                size--;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     * no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the value to return if this map contains no mapping for the key
+     * @return the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     *         no mapping for the key
+     */
+    @Override
+    public long getOrDefault(int key, long defaultValue) {
+        long result = defaultValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+            }
+        } else {
+            int hash = hashStrategy.hash(key);
+            IntLongTable segment = segmentFor(hash);
+            int index = segment.lookup(key, hash << SEGMENT_BITS);
+            if (index >= 0) {
+                result = segment.values[index];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map, if the key is not already associated
+     * with a value. The table is probed once.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the current value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key (and the value is associated now)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long putIfAbsent(int key, long value) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+            } else {
+                nullValue = value;
+                entryWithNullKeyIsAssociated = true;
+            }
+        } else {
+            int hash = hashStrategy.hash(key);
+            IntLongTable segment = segmentFor(hash);
+            int index = segment.getInsertionIndex(key, hash << SEGMENT_BITS);
+            if (index >= 0) {
+                result = segment.values[index];
+            } else {
+                segment.insert(index, key, value);
+                size++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds the increment to the value associated with the specified key. If there is no mapping for the key, the key
+     * is associated with the increment (as if it was associated with <b>0</b>). The table is probed once.
+     *
+     * @param key key with which the value is associated
+     * @param increment the value to add
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long addTo(int key, long increment) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+                nullValue += increment;
+            } else {
+                nullValue = increment;
+                entryWithNullKeyIsAssociated = true;
+            }
+        } else {
+            int hash = hashStrategy.hash(key);
+            IntLongTable segment = segmentFor(hash);
+            int index = segment.getInsertionIndex(key, hash << SEGMENT_BITS);
+            if (index >= 0) {
+                result = segment.values[index];
+                segment.values[index] += increment;
+            } else {
+                segment.insert(index, key, increment);
+                size++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the specified value if there is no mapping for the key, otherwise replaces
+     * the associated value with the result of <b>remappingFunction</b> applied to the associated value and the
+     * specified value. The table is probed once.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be associated if there is no mapping for the key
+     * @param remappingFunction the function to combine the associated value and the specified value
+     * @return the new value associated with the specified key
+     */
+    @Override
+    public long merge(int key, long value, LongBinaryOperator remappingFunction) {
+        long result = value;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = remappingFunction.applyAsLong(nullValue, value);
+            }
+            nullValue = result;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int hash = hashStrategy.hash(key);
+            IntLongTable segment = segmentFor(hash);
+            int index = segment.getInsertionIndex(key, hash << SEGMENT_BITS);
+            if (index >= 0) {
+                result = remappingFunction.applyAsLong(segment.values[index], value);
+                segment.values[index] = result;
+            } else {
+                segment.insert(index, key, value);
+                size++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the result of <b>remappingFunction</b> applied to the value which is
+     * associated with the key, or to {@link #getNoEntryValue()} if there is no mapping for the key. The table is
+     * probed once.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param remappingFunction the function to compute the value
+     * @return the new value associated with the specified key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long compute(int key, LongUnaryOperator remappingFunction) {
+        long result;
+
+        if (key == 0) {
+            result = remappingFunction.applyAsLong(nullValue);
+            nullValue = result;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int hash = hashStrategy.hash(key);
+            IntLongTable segment = segmentFor(hash);
+            int index = segment.getInsertionIndex(key, hash << SEGMENT_BITS);
+            if (index >= 0) {
+                result = remappingFunction.applyAsLong(segment.values[index]);
+                segment.values[index] = result;
+            } else {
+                result = remappingFunction.applyAsLong(noEntryValue);
+                segment.insert(index, key, result);
+                size++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a new cursor over the entries of this map, the entry with the key <b>0</b> included. The cursor reads
+     * the segments directly and does not create any objects while it moves over the entries.
+     *
+     * @return a cursor over the entries of this map
+     */
+    @Override
+    public IntLongCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Performs the given action for each entry of this map, the entry with the key <b>0</b> included, in unspecified
+     * order. No objects are created by the iteration. The result is unspecified if the action modifies the map.
+     *
+     * @param action the action to be performed for each entry
+     */
+    @Override
+    public void forEach(IntLongConsumer action) {
+        for (IntLongTable segment : segments) {
+            int[] keys = segment.keys;
+            long[] values = segment.values;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    action.accept(keys[i], values[i]);
+                }
+            }
+        }
+
+        if (entryWithNullKeyIsAssociated) {
+            action.accept(0, nullValue);
+        }
+    }
+
+    /**
+     * Enables or disables the collection of the statistics of this map. Enabling starts the counters from zero;
+     * while the statistics are disabled, the cost of them is a null check per operation.
+     *
+     * @param enabled whether the statistics should be collected
+     * @see #getStats()
+     */
+    public void setStatsEnabled(boolean enabled) {
+        if (!enabled) {
+            stats = null;
+        } else if (stats == null) {
+            stats = new StatsRecorder();
+        }
+        for (IntLongTable segment : segments) {
+            segment.setStats(stats);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this map, summed over the segments. The probe lengths are recorded by
+     * the single-key lookups (<b>get</b>, <b>getOrDefault</b>, <b>containsKey</b> and <b>remove</b>) and, as well as
+     * the rebuildings of the segments, only while the statistics are enabled by {@link #setStatsEnabled(boolean)};
+     * the rest values are calculated by the snapshot (the longest cluster of all the segments by a pass over them).
+     * The size and the capacity are <b>Integer.MAX_VALUE</b> for the larger maps.
+     *
+     * @return a snapshot of the statistics of this map
+     */
+    @Override
+    public IntLongHashMapStats getStats() {
+        int maxClusterLength = 0;
+        long capacity = 0;
+        long memoryBytes = 0;
+        for (IntLongTable segment : segments) {
+            maxClusterLength = Math.max(maxClusterLength, StatsRecorder.maxClusterLength(segment.keys));
+            capacity += segment.capacity();
+            memoryBytes += StatsRecorder.arrayBytes(segment.keys.length, Integer.BYTES)
+                    + StatsRecorder.arrayBytes(segment.values.length, Long.BYTES);
+        }
+
+        return StatsRecorder.snapshot(stats, maxClusterLength, size(), saturatedSize(capacity), memoryBytes);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map, or <b>Integer.MAX_VALUE</b> if there are more of them.
+     *
+     * @return the number of key-value mappings in this map, up to <b>Integer.MAX_VALUE</b>
+     * @see #longSize()
+     */
+    @Override
+    public int size() {
+        return saturatedSize(longSize());
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map, which can be more than <b>Integer.MAX_VALUE</b>.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public long longSize() {
+        return entryWithNullKeyIsAssociated ? size + 1 : size;
+    }
+
+    // The int size of the map (or table) of <size> entries (or slots): <Integer.MAX_VALUE> for the larger ones
+    static int saturatedSize(long size) {
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    // Cursor over the segments one by one, every segment is read as it is when the cursor enters it;
+    // the "null key" entry goes last
+    private final class Cursor implements IntLongCursor {
+        private int segment;
+        private int[] cursorKeys;
+        private long[] cursorValues;
+        private int index;
+        private boolean nullEntry;
+        private int key;
+        private long value;
+
+        Cursor() {
+            reset();
+        }
+
+        @Override
+        public boolean advance() {
+            boolean result = false;
+
+            while (!result && segment < SEGMENT_COUNT) {
+                if (index < cursorKeys.length) {
+                    if (cursorKeys[index] != 0) {
+                        key = cursorKeys[index];
+                        value = cursorValues[index];
+                        result = true;
+                    }
+                    index++;
+                } else {
+                    enter(segment + 1);
+                }
+            }
+
+            if (!result && nullEntry) {
+                nullEntry = false;
+                key = 0;
+                value = nullValue;
+                result = true;
+            }
+
+            return result;
+        }
+
+        private void enter(int next) {
+            segment = next;
+            index = 0;
+            if (next < SEGMENT_COUNT) {
+                cursorKeys = segments[next].keys;
+                cursorValues = segments[next].values;
+            }
+        }
+
+        @Override
+        public int key() {
+            return key;
+        }
+
+        @Override
+        public long value() {
+            return value;
+        }
+
+        @Override
+        public void reset() {
+            enter(0);
+            nullEntry = entryWithNullKeyIsAssociated;
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package com.company.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Binary format of {@link IntLongHashMap}, which is written to and read from NIO channels in chunks, without
+ * boxing of the entries and without building of the whole image in memory.
+ *
+ * <p>Every map starts with a header of 64 bytes: the magic number, the version of the format, the parameters of the
+ * map (capacity, load factor, multiplier, hash strategy, capacity mode, the value that represents a null value), the
+ * entry with the key <b>0</b>, the number of the entries and the length of the body. Two kinds of the body follow:
+ * <ul>
+ *     <li><b>raw</b> ({@link #writeRaw}): the tables of {@link IntLongHashMapOpenAddr} as they are, so they are
+ *     read back by bulk copying, without rehashing of the keys. It is the fastest one, but takes 12 bytes for every
+ *     slot of the table, empty slots included;</li>
+ *     <li><b>compact</b> ({@link #writeCompact}): the entries of any map sorted by the key, the key is written as a
+ *     varint of the difference with the previous key and the value as a zig-zag varint. It is fit for the network
+ *     transfer: dense keys and small values take 2-3 bytes per entry. The map is rebuilt by the reading.</li>
+ * </ul>
+ * All numbers are little-endian. The length of the body is known from the header, so the reading never consumes
+ * the bytes after the map, and several maps can be written to one channel one after another.
+ *
+ * <p>The hash strategy is not serializable: {@link IntHashStrategy#IDENTITY} and {@link IntHashStrategy#MURMUR3}
+ * are recorded by their codes, other strategies (for example, the seeded ones) have to be given to
+ * {@link #read(ReadableByteChannel, IntHashStrategy)}.
+ */
+public final class IntLongHashMapSerializer {
+    private static final long MAGIC = 0x494E544C4F4E4753L;   // "INTLONGS"
+    private static final int VERSION = 1;
+
+    // Header layout
+    private static final int HEADER_BYTES = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 8;
+    private static final int FORMAT_OFFSET = 12;
+    private static final int HASH_STRATEGY_OFFSET = 13;
+    private static final int FLAGS_OFFSET = 14;
+    private static final int CAPACITY_OFFSET = 16;
+    // The little-endian number of the keys, the "null key" excluded (for tests)
+    static final int SIZE_OFFSET = 20;
+    private static final int LOAD_FACTOR_OFFSET = 24;
+    private static final int MULTIPLIER_OFFSET = 28;
+    private static final int NO_ENTRY_VALUE_OFFSET = 32;
+    private static final int NULL_VALUE_OFFSET = 40;
+    private static final int BODY_BYTES_OFFSET = 48;
+
+    private static final byte FORMAT_RAW = 0;
+    private static final byte FORMAT_COMPACT = 1;
+
+    private static final byte HASH_STRATEGY_IDENTITY = 0;
+    private static final byte HASH_STRATEGY_MURMUR3 = 1;
+    private static final byte HASH_STRATEGY_CUSTOM = 2;
+
+    private static final int NULL_KEY_FLAG = 1;
+    private static final int POWER_OF_TWO_CAPACITY_FLAG = 2;
+
+    // Parameters of the map which is rebuilt from the compact body of a map other than IntLongHashMapOpenAddr
+    private static final float LOAD_FACTOR_DEFAULT_VALUE = 0.75f;
+    private static final float MULTIPLIER_DEFAULT_VALUE = 2.0f;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private static final int CHUNK_BYTES = 1 << 16;
+    // Varint of a key difference (5 bytes) and zig-zag varint of a value (10 bytes)
+    private static final int MAX_ENTRY_BYTES = 15;
+    // A varint takes at least one byte
+    private static final int MIN_ENTRY_BYTES = 2;
+
+    private static final String ILLEGAL_FORMAT_PATTERN = "Not a map of version %d";
+    private static final String ILLEGAL_HEADER_PATTERN = "Corrupted header: %s";
+    private static final String ILLEGAL_BODY_PATTERN = "Corrupted body: %s";
+    private static final String ILLEGAL_HASH_STRATEGY = "The map was written with a custom hash strategy, " +
+            "which has to be given for the reading";
+    private static final String TRUNCATED_MAP = "The map is truncated";
+
+    private IntLongHashMapSerializer() {
+    }
+
+    /**
+     * Writes the header and the tables of the map to the channel as they are.
+     *
+     * @param  map     the map to write
+     * @param  channel the channel to write the map to
+     * @throws IOException if the channel fails
+     */
+    public static void writeRaw(IntLongHashMapOpenAddr map, WritableByteChannel channel) throws IOException {
+        int[] keys = map.keyTable();
+        long[] values = map.valueTable();
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            writeHeader(channel, buffer, FORMAT_RAW, map, keys.length,
+                    (long) keys.length * (Integer.BYTES + Long.BYTES));
+
+            for (int off = 0; off < keys.length; ) {
+                int count = Math.min(keys.length - off, CHUNK_BYTES / Integer.BYTES);
+                buffer.clear();
+                buffer.asIntBuffer().put(keys, off, count);
+                limit(buffer, count * Integer.BYTES);
+                writeFully(channel, buffer);
+                off += count;
+            }
+            for (int off = 0; off < values.length; ) {
+                int count = Math.min(values.length - off, CHUNK_BYTES / Long.BYTES);
+                buffer.clear();
+                buffer.asLongBuffer().put(values, off, count);
+                limit(buffer, count * Long.BYTES);
+                writeFully(channel, buffer);
+                off += count;
+            }
+        } finally {
+            BufferCleaner.clean(buffer);
+        }
+    }
+
+    /**
+     * Writes the header and the entries of the map sorted by the key, in the compact (varint) encoding. The
+     * parameters of {@link IntLongHashMapOpenAddr} are kept in the header, for other maps the header keeps only
+     * the value that represents a null value.
+     *
+     * @param  map     the map to write
+     * @param  channel the channel to write the map to
+     * @throws IOException if the channel fails
+     */
+    public static void writeCompact(IntLongHashMap map, WritableByteChannel channel) throws IOException {
+        boolean nullEntry = map.containsKey(0);
+        int count = nullEntry ? map.size() - 1 : map.size();
+
+        long[] values = new long[count];
+        // The key in the high half and the index of the entry in the low half, so the sort by the key keeps the pairs
+        long[] order = new long[count];
+        int index = 0;
+        IntLongCursor cursor = map.cursor();
+        while (cursor.advance()) {
+            if (cursor.key() != 0) {
+                values[index] = cursor.value();
+                order[index] = ((long) cursor.key() << Integer.SIZE) | index;
+                index++;
+            }
+        }
+        Arrays.sort(order);
+
+        long bodyBytes = 0;
+        long previous = Integer.MIN_VALUE;
+        for (long entry : order) {
+            int key = (int) (entry >> Integer.SIZE);
+            bodyBytes += varLongBytes(key - previous) + varLongBytes(zigZag(values[(int) entry]));
+            previous = key;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (map instanceof IntLongHashMapOpenAddr) {
+                IntLongHashMapOpenAddr openAddr = (IntLongHashMapOpenAddr) map;
+                writeHeader(channel, buffer, FORMAT_COMPACT, openAddr, openAddr.keyTable().length, bodyBytes);
+            } else {
+                writeHeader(channel, buffer, FORMAT_COMPACT, LOAD_FACTOR_DEFAULT_VALUE, MULTIPLIER_DEFAULT_VALUE,
+                        HASH_STRATEGY_IDENTITY, false, map.getNoEntryValue(), nullEntry,
+                        nullEntry ? map.get(0) : map.getNoEntryValue(), count, count, bodyBytes);
+            }
+
+            buffer.clear();
+            previous = Integer.MIN_VALUE;
+            for (long entry : order) {
+                if (buffer.remaining() < MAX_ENTRY_BYTES) {
+                    flip(buffer);
+                    writeFully(channel, buffer);
+                    buffer.clear();
+                }
+                int key = (int) (entry >> Integer.SIZE);
+                putVarLong(buffer, key - previous);
+                putVarLong(buffer, zigZag(values[(int) entry]));
+                previous = key;
+            }
+            flip(buffer);
+            writeFully(channel, buffer);
+        } finally {
+            BufferCleaner.clean(buffer);
+        }
+    }
+
+    /**
+     * Reads a map in any of the formats from the channel. The channel is left right after the map.
+     *
+     * @param  channel the channel to read the map from
+     * @return the map which was written to the channel
+     * @throws IllegalArgumentException if the data is not a map of the supported version, or is corrupted, or the
+     *         map was written with a custom hash strategy
+     * @throws IOException if the channel fails or ends before the end of the map
+     */
+    public static IntLongHashMapOpenAddr read(ReadableByteChannel channel) throws IOException {
+        return read(channel, null);
+    }
+
+    /**
+     * Reads a map in any of the formats from the channel. The channel is left right after the map.
+     *
+     * @param  channel      the channel to read the map from
+     * @param  hashStrategy the hash strategy of the map, if it was written with a strategy other than
+     *                      {@link IntHashStrategy#IDENTITY} and {@link IntHashStrategy#MURMUR3}; ignored otherwise
+     * @return the map which was written to the channel
+     * @throws IllegalArgumentException if the data is not a map of the supported version, or is corrupted, or the
+     *         map was written with a custom hash strategy and <b>hashStrategy</b> is null
+     * @throws IOException if the channel fails or ends before the end of the map
+     */
+    public static IntLongHashMapOpenAddr read(ReadableByteChannel channel, IntHashStrategy hashStrategy)
+            throws IOException {
+        IntLongHashMapOpenAddr result;
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            limit(buffer, HEADER_BYTES);
+            readFully(channel, buffer);
+            if (buffer.getLong(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IllegalArgumentException(String.format(ILLEGAL_FORMAT_PATTERN, VERSION));
+            }
+
+            byte format = buffer.get(FORMAT_OFFSET);
+            int flags = buffer.get(FLAGS_OFFSET);
+            int capacity = buffer.getInt(CAPACITY_OFFSET);
+            int size = buffer.getInt(SIZE_OFFSET);
+            float loadFactor = buffer.getFloat(LOAD_FACTOR_OFFSET);
+            float multiplier = buffer.getFloat(MULTIPLIER_OFFSET);
+            long noEntryValue = buffer.getLong(NO_ENTRY_VALUE_OFFSET);
+            long nullValue = buffer.getLong(NULL_VALUE_OFFSET);
+            long bodyBytes = buffer.getLong(BODY_BYTES_OFFSET);
+            boolean nullEntry = (flags & NULL_KEY_FLAG) != 0;
+            boolean powerOfTwoCapacity = (flags & POWER_OF_TWO_CAPACITY_FLAG) != 0;
+            IntHashStrategy strategy = hashStrategyFor(buffer.get(HASH_STRATEGY_OFFSET), hashStrategy);
+
+            if (Float.isNaN(loadFactor) || loadFactor <= 0 || loadFactor > 1.0 ||
+                    Float.isNaN(multiplier) || multiplier <= 0 || size < 0 || bodyBytes < 0) {
+                throw new IllegalArgumentException(String.format(ILLEGAL_HEADER_PATTERN, "parameters"));
+            }
+
+            if (format == FORMAT_RAW) {
+                result = readRaw(channel, buffer, capacity, size, bodyBytes, loadFactor, multiplier, noEntryValue,
+                        strategy, powerOfTwoCapacity, nullEntry, nullValue);
+            } else if (format == FORMAT_COMPACT) {
+                result = readCompact(channel, buffer, size, bodyBytes, loadFactor, multiplier, noEntryValue,
+                        strategy, powerOfTwoCapacity, nullEntry, nullValue);
+            } else {
+                throw new IllegalArgumentException(String.format(ILLEGAL_HEADER_PATTERN, "format " + format));
+            }
+        } finally {
+            BufferCleaner.clean(buffer);
+        }
+
+        return result;
+    }
+
+    private static IntLongHashMapOpenAddr readRaw(ReadableByteChannel channel, ByteBuffer buffer, int capacity,
+                                                  int size, long bodyBytes, float loadFactor, float multiplier,
+                                                  long noEntryValue, IntHashStrategy hashStrategy,
+                                                  boolean powerOfTwoCapacity, boolean nullEntry, long nullValue)
+            throws IOException {
+        if (capacity < 1 || capacity > MAXIMUM_CAPACITY || size >= capacity ||
+                (powerOfTwoCapacity && Integer.bitCount(capacity) != 1) ||
+                bodyBytes != (long) capacity * (Integer.BYTES + Long.BYTES)) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_HEADER_PATTERN, "capacity " + capacity));
+        }
+
+        int[] keys = new int[capacity];
+        long[] values = new long[capacity];
+
+        int used = 0;
+        for (int off = 0; off < capacity; ) {
+            int count = Math.min(capacity - off, CHUNK_BYTES / Integer.BYTES);
+            buffer.clear();
+            limit(buffer, count * Integer.BYTES);
+            readFully(channel, buffer);
+            flip(buffer);
+            buffer.asIntBuffer().get(keys, off, count);
+            for (int i = off; i < off + count; i++) {
+                if (keys[i] != 0) {
+                    used++;
+                }
+            }
+            off += count;
+        }
+        for (int off = 0; off < capacity; ) {
+            int count = Math.min(capacity - off, CHUNK_BYTES / Long.BYTES);
+            buffer.clear();
+            limit(buffer, count * Long.BYTES);
+            readFully(channel, buffer);
+            flip(buffer);
+            buffer.asLongBuffer().get(values, off, count);
+            off += count;
+        }
+
+        if (used != size) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_BODY_PATTERN, used + " keys of " + size));
+        }
+
+        return new IntLongHashMapOpenAddr(loadFactor, multiplier, noEntryValue, hashStrategy, powerOfTwoCapacity,
+                keys, values, size, nullEntry, nullValue);
+    }
+
+    private static IntLongHashMapOpenAddr readCompact(ReadableByteChannel channel, ByteBuffer buffer, int size,
+                                                      long bodyBytes, float loadFactor, float multiplier,
+                                                      long noEntryValue, IntHashStrategy hashStrategy,
+                                                      boolean powerOfTwoCapacity, boolean nullEntry, long nullValue)
+            throws IOException {
+        // The size is checked before the table for it is allocated
+        if (size > bodyBytes / MIN_ENTRY_BYTES) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_BODY_PATTERN,
+                    size + " entries in " + bodyBytes + " bytes"));
+        }
+
+        long initialCapacity = Math.min((long) Math.ceil(size / (double) loadFactor) + 1, MAXIMUM_CAPACITY);
+        IntLongHashMapOpenAddr result = new IntLongHashMapOpenAddr((int) initialCapacity, loadFactor, multiplier,
+                noEntryValue, hashStrategy, powerOfTwoCapacity);
+        if (nullEntry) {
+            result.put(0, nullValue);
+        }
+
+        long unread = bodyBytes;
+        buffer.clear();
+        limit(buffer, 0);
+        long previous = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            if (buffer.remaining() < MAX_ENTRY_BYTES && unread > 0) {
+                buffer.compact();
+                int count = (int) Math.min(buffer.remaining(), unread);
+                limit(buffer, buffer.position() + count);
+                readFully(channel, buffer);
+                flip(buffer);
+                unread -= count;
+            }
+
+            // The keys are written in ascending order, so only the first difference can be 0 (for Integer.MIN_VALUE)
+            long delta = getVarLong(buffer);
+            if (delta < 0 || (delta == 0 && i > 0)) {
+                throw new IllegalArgumentException(String.format(ILLEGAL_BODY_PATTERN, "key difference " + delta));
+            }
+            long key = previous + delta;
+            if (key == 0 || key > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format(ILLEGAL_BODY_PATTERN, "key " + key));
+            }
+            result.put((int) key, unZigZag(getVarLong(buffer)));
+            previous = key;
+        }
+
+        if (unread != 0 || buffer.hasRemaining()) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_BODY_PATTERN, "length " + bodyBytes));
+        }
+
+        return result;
+    }
+
+    private static void writeHeader(WritableByteChannel channel, ByteBuffer buffer, byte format,
+                                    IntLongHashMapOpenAddr map, int capacity, long bodyBytes) throws IOException {
+        IntHashStrategy strategy = map.hashStrategy();
+        byte strategyCode = (strategy == IntHashStrategy.IDENTITY) ? HASH_STRATEGY_IDENTITY :
+                (strategy == IntHashStrategy.MURMUR3) ? HASH_STRATEGY_MURMUR3 : HASH_STRATEGY_CUSTOM;
+        boolean nullEntry = map.containsKey(0);
+
+        writeHeader(channel, buffer, format, map.loadFactor(), map.multiplier(), strategyCode,
+                map.isPowerOfTwoCapacity(), map.getNoEntryValue(), nullEntry,
+                nullEntry ? map.get(0) : map.getNoEntryValue(), capacity,
+                nullEntry ? map.size() - 1 : map.size(), bodyBytes);
+    }
+
+    private static void writeHeader(WritableByteChannel channel, ByteBuffer buffer, byte format, float loadFactor,
+                                    float multiplier, byte hashStrategy, boolean powerOfTwoCapacity,
+                                    long noEntryValue, boolean nullEntry, long nullValue, int capacity, int size,
+                                    long bodyBytes) throws IOException {
+        buffer.clear();
+        for (int i = 0; i < HEADER_BYTES; i += Long.BYTES) {
+            buffer.putLong(i, 0);
+        }
+        buffer.putLong(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.put(FORMAT_OFFSET, format);
+        buffer.put(HASH_STRATEGY_OFFSET, hashStrategy);
+        buffer.put(FLAGS_OFFSET, (byte) ((nullEntry ? NULL_KEY_FLAG : 0) |
+                (powerOfTwoCapacity ? POWER_OF_TWO_CAPACITY_FLAG : 0)));
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putInt(SIZE_OFFSET, size);
+        buffer.putFloat(LOAD_FACTOR_OFFSET, loadFactor);
+        buffer.putFloat(MULTIPLIER_OFFSET, multiplier);
+        buffer.putLong(NO_ENTRY_VALUE_OFFSET, noEntryValue);
+        buffer.putLong(NULL_VALUE_OFFSET, nullValue);
+        buffer.putLong(BODY_BYTES_OFFSET, bodyBytes);
+
+        limit(buffer, HEADER_BYTES);
+        writeFully(channel, buffer);
+    }
+
+    private static IntHashStrategy hashStrategyFor(byte code, IntHashStrategy customStrategy) {
+        IntHashStrategy result;
+        if (code == HASH_STRATEGY_IDENTITY) {
+            result = IntHashStrategy.IDENTITY;
+        } else if (code == HASH_STRATEGY_MURMUR3) {
+            result = IntHashStrategy.MURMUR3;
+        } else if (code == HASH_STRATEGY_CUSTOM) {
+            if (customStrategy == null) {
+                throw new IllegalArgumentException(ILLEGAL_HASH_STRATEGY);
+            }
+            result = customStrategy;
+        } else {
+            throw new IllegalArgumentException(String.format(ILLEGAL_HEADER_PATTERN, "hash strategy " + code));
+        }
+
+        return result;
+    }
+
+    // The methods of Buffer are called through Buffer: ByteBuffer overrides them since Java 9 only
+
+    private static void limit(ByteBuffer buffer, int limit) {
+        ((Buffer) buffer).limit(limit);
+    }
+
+    private static void flip(ByteBuffer buffer) {
+        ((Buffer) buffer).flip();
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException(TRUNCATED_MAP);
+            }
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // Varint encoding: 7 bits per byte, the high bit is set in all the bytes except the last one
+    // ----------------------------------------------------------------------------------------------------------------
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int varLongBytes(long value) {
+        // 1 byte for 0, and a byte for every started group of 7 significant bits
+        return Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(value) + 6) / 7);
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        long rest = value;
+        while ((rest & ~0x7FL) != 0) {
+            buffer.put((byte) (rest | 0x80));
+            rest >>>= 7;
+        }
+        buffer.put((byte) rest);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long result = 0;
+        int shift = 0;
+        byte current;
+        do {
+            if (!buffer.hasRemaining() || shift >= Long.SIZE) {
+                throw new IllegalArgumentException(String.format(ILLEGAL_BODY_PATTERN, "varint"));
+            }
+            current = buffer.get();
+            result |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+
+        return result;
+    }
+}
@@ -0,0 +1,572 @@
+package com.company.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * {@link IntLongHashMap} implementation for the maps which can outgrow the heap: the keys are split into 64
+ * partitions by the high bits of their Murmur3 hash codes, and the tables of the partitions on the heap
+ * ({@link IntLongHashMapOpenAddr} with power-of-two capacity) take at most <b>heapBudget</b> bytes. When a partition
+ * on the heap should grow past the budget, the coldest partitions on the heap are spilled to memory-mapped files
+ * ({@link IntLongHashMapOffHeap}) in the given directory, and are served from there; the operating system keeps
+ * the pages of the files in its page cache while there is free memory, and reads them back from the disk otherwise.
+ * So the map slows down to the speed of the page cache (or of the disk) instead of throwing {@link OutOfMemoryError}.
+ *
+ * <p>Every operation counts the accesses of its partition, and the counters are halved every 65536 operations,
+ * so they measure the recent use of the partitions. At that moment the hottest spilled partition is loaded back to
+ * the heap if it is used more than twice as often as the coldest partition on the heap, which is spilled in turn if
+ * the budget requires it (and if the hottest one fits the budget then). The operation which comes at that moment
+ * makes the move, so a read can copy a partition between the heap and a file too.
+ *
+ * <p>The map should be closed by {@link #close()}: it unmaps and deletes the files of the spilled partitions.
+ * The failures of the file operations are thrown as {@link UncheckedIOException}.
+ */
+
+public class IntLongHashMapSpilling implements IntLongHashMap, Closeable {
+    private static final int PARTITION_BITS = 6;
+    private static final int PARTITION_COUNT = 1 << PARTITION_BITS;
+    private static final int PARTITION_SHIFT = Integer.SIZE - PARTITION_BITS;
+    private static final int PARTITION_INIT_CAPACITY = 16;
+    // The minimal number of the keys which fit a file of a spilled partition
+    private static final int SPILLED_INIT_SIZE = 1024;
+    private static final int SLOT_BYTES = Integer.BYTES + Long.BYTES;
+
+    private static final int AGING_PERIOD = 1 << 16;
+    private static final int PROMOTION_RATIO = 2;
+
+    private static final float LOAD_FACTOR_DEFAULT_VALUE = 0.75f;
+    private static final long NO_ENTRY_VALUE_DEFAULT_VALUE = Long.MIN_VALUE;
+
+    private static final String ILLEGAL_HEAP_BUDGET_PATTERN = "Illegal heap budget: %d";
+    private static final String ILLEGAL_LOAD_FACTOR_PATTERN = "Illegal load factor: : %f";
+    private static final String ILLEGAL_DIRECTORY_PATTERN = "Not a directory: %s";
+    private static final String PARTITION_FILE_PATTERN = "partition-%d-%d.map";
+
+    private final Path directory;
+    private final long heapBudget;
+    private final float loadFactor;
+    private final long noEntryValue;
+    private final IntHashStrategy hashStrategy = IntHashStrategy.MURMUR3;
+
+    // IntLongHashMapOpenAddr on the heap, or IntLongHashMapOffHeap in a file
+    private final IntLongHashMap[] partitions = new IntLongHashMap[PARTITION_COUNT];
+    // The number of the keys which fit the file of a spilled partition, <0> for a partition on the heap
+    private final int[] spilledSizes = new int[PARTITION_COUNT];
+    private final Path[] files = new Path[PARTITION_COUNT];
+    // The bytes of the table of a partition on the heap, as they are accounted in <heapBytes>
+    private final long[] partitionBytes = new long[PARTITION_COUNT];
+    private final long[] accesses = new long[PARTITION_COUNT];
+    private long heapBytes;
+    private int operations;
+    private long fileCount;
+
+    /**
+     * Constructs an empty <b>IntLongHashMapSpilling</b> with the specified directory for the files of the spilled
+     * partitions, heap budget, load factor and long value that represents a null value in this map.
+     *
+     * @param  directory    the existing directory for the files of the spilled partitions
+     * @param  heapBudget   the maximum number of bytes of the tables of the partitions on the heap
+     * @param  loadFactor   the load factor
+     * @param  noEntryValue a long value that represents a null value in this map
+     * @throws IllegalArgumentException if the directory does not exist or the heap budget is negative
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapSpilling(Path directory, long heapBudget, float loadFactor, long noEntryValue) {
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_DIRECTORY_PATTERN, directory));
+        }
+        if (heapBudget < 0) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_HEAP_BUDGET_PATTERN, heapBudget));
+        }
+        if (Float.isNaN(loadFactor) || loadFactor <= 0 || loadFactor > 1.0) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_LOAD_FACTOR_PATTERN, loadFactor));
+        }
+
+        this.directory = directory;
+        this.heapBudget = heapBudget;
+        this.loadFactor = loadFactor;
+        this.noEntryValue = noEntryValue;
+
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            partitions[i] = newHeapPartition(PARTITION_INIT_CAPACITY);
+            account(i);
+        }
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapSpilling</b> with the specified directory for the files of the spilled
+     * partitions and heap budget, the default load factor (<b>0.75</b>) and default long value that represents
+     * a null value in this map (<b>-9223372036854775808</b>).
+     *
+     * @param  directory  the existing directory for the files of the spilled partitions
+     * @param  heapBudget the maximum number of bytes of the tables of the partitions on the heap
+     * @throws IllegalArgumentException if the directory does not exist or the heap budget is negative
+     */
+    public IntLongHashMapSpilling(Path directory, long heapBudget) {
+        this(directory, heapBudget, LOAD_FACTOR_DEFAULT_VALUE, NO_ENTRY_VALUE_DEFAULT_VALUE);
+    }
+
+    /**
+     * Returns the value that will be returned from {@link #get(int)} or {@link #put(int, long)} if no entry exists for a given key.
+     * The default value is <b>-9223372036854775808</b>, but can be changed during construction of the map.
+     *
+     * @return the value that represents a null value in this map
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    /**
+     * Returns the number of bytes of the tables of the partitions on the heap, which is not more than the heap
+     * budget (unless the budget is less than the tables of the empty partitions).
+     *
+     * @return the number of bytes of the tables on the heap
+     */
+    public long getHeapBytes() {
+        return heapBytes;
+    }
+
+    /**
+     * Returns the number of the partitions which are spilled to the files (of <b>64</b>).
+     *
+     * @return the number of the spilled partitions
+     */
+    public int getSpilledPartitionCount() {
+        int result = 0;
+        for (int size : spilledSizes) {
+            if (size > 0) {
+                result++;
+            }
+        }
+
+        return result;
+    }
+
+    // Whether the partition of the keys with the given high bits of the hash codes is spilled (for tests)
+    boolean isSpilled(int partition) {
+        return spilledSizes[partition] > 0;
+    }
+
+    private IntLongHashMapOpenAddr newHeapPartition(int initialCapacity) {
+        return new IntLongHashMapOpenAddr(initialCapacity, loadFactor, 2.0f, noEntryValue, hashStrategy, true);
+    }
+
+    private int heapCapacity(int partition) {
+        return ((IntLongHashMapOpenAddr) partitions[partition]).keyTable().length;
+    }
+
+    // Brings <heapBytes> up to date with the table of the partition, which can be grown by the last write
+    private void account(int partition) {
+        long bytes = (spilledSizes[partition] > 0) ? 0 : (long) heapCapacity(partition) * SLOT_BYTES;
+        heapBytes += bytes - partitionBytes[partition];
+        partitionBytes[partition] = bytes;
+    }
+
+    private int partitionFor(int key) {
+        int result = hashStrategy.hash(key) >>> PARTITION_SHIFT;
+
+        if (++operations == AGING_PERIOD) {
+            operations = 0;
+            age();
+        }
+        accesses[result]++;
+
+        return result;
+    }
+
+    // Halves the counters of the accesses, and moves the hottest spilled partition to the heap if it is much hotter
+    // than the coldest partition on the heap
+    private void age() {
+        int hottest = -1;
+        int coldest = -1;
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            if (spilledSizes[i] > 0) {
+                if (hottest < 0 || accesses[i] > accesses[hottest]) {
+                    hottest = i;
+                }
+            } else if (coldest < 0 || accesses[i] < accesses[coldest]) {
+                coldest = i;
+            }
+        }
+
+        if (hottest >= 0 && (coldest < 0 || accesses[hottest] > PROMOTION_RATIO * accesses[coldest])) {
+            long bytes = (long) IntLongHashMapOpenAddr.capacityFor(partitions[hottest].size(), loadFactor, true)
+                    * SLOT_BYTES;
+            // The coldest partition is not spilled in vain, if the hottest one would not fit anyway
+            if (coldest >= 0 && heapBytes + bytes > heapBudget &&
+                    heapBytes - partitionBytes[coldest] + bytes <= heapBudget) {
+                spill(coldest);
+            }
+            if (heapBytes + bytes <= heapBudget) {
+                load(hottest);
+            }
+        }
+
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            accesses[i] >>>= 1;
+        }
+    }
+
+    private Path newFile(int partition) {
+        return directory.resolve(String.format(PARTITION_FILE_PATTERN, partition, fileCount++));
+    }
+
+    // Copies the entries of the partition to a new file which fits <expectedSize> keys
+    private void moveToFile(int partition, int expectedSize) {
+        IntLongHashMap source = partitions[partition];
+        Path file = newFile(partition);
+        try {
+            IntLongHashMapOffHeap target = IntLongHashMapOffHeap.create(file, expectedSize, loadFactor, noEntryValue);
+            source.forEach(target::put);
+            partitions[partition] = target;
+            spilledSizes[partition] = expectedSize;
+            deleteFile(partition, source);
+            files[partition] = file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteFile(int partition, IntLongHashMap source) throws IOException {
+        if (source instanceof IntLongHashMapOffHeap) {
+            ((IntLongHashMapOffHeap) source).close();
+            Files.delete(files[partition]);
+        }
+    }
+
+    private void spill(int partition) {
+        moveToFile(partition, Math.max(SPILLED_INIT_SIZE, 2 * partitions[partition].size()));
+        account(partition);
+    }
+
+    private void load(int partition) {
+        IntLongHashMap source = partitions[partition];
+        IntLongHashMapOpenAddr target = newHeapPartition(
+                IntLongHashMapOpenAddr.capacityFor(source.size(), loadFactor, true));
+        source.forEach(target::put);
+        partitions[partition] = target;
+        spilledSizes[partition] = 0;
+        account(partition);
+        try {
+            deleteFile(partition, source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        files[partition] = null;
+    }
+
+    // Makes room for one more key in the partition: a full partition on the heap is doubled by the next write (the
+    // same condition as in IntLongHashMapOpenAddr, the "null key" counted as well), so the coldest partitions are
+    // spilled first if the doubling does not fit the budget; a full spilled partition is moved to a file twice as big
+    private IntLongHashMap writablePartition(int partition) {
+        IntLongHashMap result = partitions[partition];
+
+        if (spilledSizes[partition] > 0) {
+            if (result.size() >= spilledSizes[partition]) {
+                moveToFile(partition, 2 * spilledSizes[partition]);
+                result = partitions[partition];
+            }
+        } else {
+            int capacity = heapCapacity(partition);
+            if (result.size() >= Math.min((int) (capacity * loadFactor), capacity - 1)) {
+                while (heapBytes + partitionBytes[partition] > heapBudget && spilledSizes[partition] == 0) {
+                    spill(coldestHeapPartition(partition));
+                }
+                result = partitions[partition];
+            }
+        }
+
+        return result;
+    }
+
+    // The coldest partition on the heap, or <partition> itself if it is the only one or the coldest
+    private int coldestHeapPartition(int partition) {
+        int result = partition;
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            if (spilledSizes[i] == 0 && accesses[i] < accesses[result]) {
+                result = i;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or the value which is returned by {@link #getNoEntryValue()} if this map contains no mapping for the key.
+     *
+     * <p>A return {@link #getNoEntryValue()} value does not <i>necessarily</i>
+     * indicate that the map contains no mapping for the key; it's also
+     * possible that the map explicitly maps the key to {@link #getNoEntryValue()}.
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@link #getNoEntryValue()} if this map contains no mapping for the key
+     * @throws UncheckedIOException if a partition can not be moved between the heap and a file (every operation
+     *         can move a partition, see the description of the class)
+     * @see #getNoEntryValue
+     * @see #put(int, long)
+     */
+    @Override
+    public long get(int key) {
+        return partitions[partitionFor(key)].get(key);
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old value is replaced by the specified value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @throws UncheckedIOException if a partition can not be moved between the heap and a file
+     * @see #getNoEntryValue
+     * @see #get(int)
+     */
+    @Override
+    public long put(int key, long value) {
+        int partition = partitionFor(key);
+        long result = writablePartition(partition).put(key, value);
+        account(partition);
+
+        return result;
+    }
+
+    /**
+     * Returns <b>true</b> if this map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return <b>true</b> if this map contains a mapping for the specified key
+     * @throws UncheckedIOException if a partition can not be moved between the heap and a file (every operation
+     *         can move a partition, see the description of the class)
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return partitions[partitionFor(key)].containsKey(key);
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @throws UncheckedIOException if a partition can not be moved between the heap and a file (every operation
+     *         can move a partition, see the description of the class)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long remove(int key) {
+        return partitions[partitionFor(key)].remove(key);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     * no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the value to return if this map contains no mapping for the key
+     * @return the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     *         no mapping for the key
+     * @throws UncheckedIOException if a partition can not be moved between the heap and a file (every operation
+     *         can move a partition, see the description of the class)
+     */
+    @Override
+    public long getOrDefault(int key, long defaultValue) {
+        return partitions[partitionFor(key)].getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map, if the key is not already associated
+     * with a value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the current value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key (and the value is associated now)
+     * @throws UncheckedIOException if a partition can not be moved between the heap and a file
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long putIfAbsent(int key, long value) {
+        int partition = partitionFor(key);
+        long result = writablePartition(partition).putIfAbsent(key, value);
+        account(partition);
+
+        return result;
+    }
+
+    /**
+     * Adds the increment to the value associated with the specified key. If there is no mapping for the key,
+     * the key is associated with the increment (as if it was associated with <b>0</b>).
+     *
+     * @param key key with which the value is associated
+     * @param increment the value to add
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key
+     * @throws UncheckedIOException if a partition can not be moved between the heap and a file
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long addTo(int key, long increment) {
+        int partition = partitionFor(key);
+        long result = writablePartition(partition).addTo(key, increment);
+        account(partition);
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the specified value if there is no mapping for the key, otherwise
+     * replaces the associated value with the result of <b>remappingFunction</b> applied to the associated value
+     * and the specified value.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be associated if there is no mapping for the key
+     * @param remappingFunction the function to combine the associated value and the specified value
+     * @return the new value associated with the specified key
+     * @throws UncheckedIOException if a partition can not be moved between the heap and a file
+     */
+    @Override
+    public long merge(int key, long value, LongBinaryOperator remappingFunction) {
+        int partition = partitionFor(key);
+        long result = writablePartition(partition).merge(key, value, remappingFunction);
+        account(partition);
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the result of <b>remappingFunction</b> applied to the value which is
+     * associated with the key, or to {@link #getNoEntryValue()} if there is no mapping for the key.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param remappingFunction the function to compute the value
+     * @return the new value associated with the specified key
+     * @throws UncheckedIOException if a partition can not be moved between the heap and a file
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long compute(int key, LongUnaryOperator remappingFunction) {
+        int partition = partitionFor(key);
+        long result = writablePartition(partition).compute(key, remappingFunction);
+        account(partition);
+
+        return result;
+    }
+
+    /**
+     * Returns a new cursor over the entries of this map, the entry with the key <b>0</b> included. The cursor moves
+     * over the partitions one by one, and does not create any objects within a partition.
+     *
+     * @return a cursor over the entries of this map
+     */
+    @Override
+    public IntLongCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Performs the given action for each entry of this map, the entry with the key <b>0</b> included, in unspecified
+     * order. The result is unspecified if the action modifies the map.
+     *
+     * @param action the action to be performed for each entry
+     */
+    @Override
+    public void forEach(IntLongConsumer action) {
+        for (IntLongHashMap partition : partitions) {
+            partition.forEach(action);
+        }
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map, or <b>Integer.MAX_VALUE</b> if there are more of them.
+     *
+     * @return the number of key-value mappings in this map, up to <b>Integer.MAX_VALUE</b>
+     * @see #longSize()
+     */
+    @Override
+    public int size() {
+        return IntLongHashMapSegmented.saturatedSize(longSize());
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map, which can be more than <b>Integer.MAX_VALUE</b>: every
+     * partition holds up to <b>Integer.MAX_VALUE</b> entries.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public long longSize() {
+        long result = 0;
+        for (IntLongHashMap partition : partitions) {
+            result += partition.size();
+        }
+
+        return result;
+    }
+
+    /**
+     * Unmaps and deletes the files of the spilled partitions, and empties the map.
+     *
+     * @throws IOException if a file can not be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            deleteFile(i, partitions[i]);
+            files[i] = null;
+            spilledSizes[i] = 0;
+            partitions[i] = newHeapPartition(PARTITION_INIT_CAPACITY);
+        }
+
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            account(i);
+        }
+    }
+
+    private final class Cursor implements IntLongCursor {
+        private int partition;
+        private IntLongCursor current;
+
+        Cursor() {
+            reset();
+        }
+
+        @Override
+        public boolean advance() {
+            boolean result = current.advance();
+
+            while (!result && partition < PARTITION_COUNT - 1) {
+                current = partitions[++partition].cursor();
+                result = current.advance();
+            }
+
+            return result;
+        }
+
+        @Override
+        public int key() {
+            return current.key();
+        }
+
+        @Override
+        public long value() {
+            return current.value();
+        }
+
+        @Override
+        public void reset() {
+            partition = 0;
+            current = partitions[0].cursor();
+        }
+    }
+}
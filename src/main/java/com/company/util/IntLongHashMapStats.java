@@ -0,0 +1,186 @@
+package com.company.util;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of the statistics of an {@link IntLongHashMap}: the histograms of the probe lengths of the
+ * lookups which found their key ("hits") and which did not ("misses"), the number and the total time of the table
+ * rebuildings, the longest cluster of the table, the load and the memory taken by the tables.
+ *
+ * <p>The probe length of a lookup is the number of slots it has read; the element <b>i</b> of a histogram is
+ * the number of the lookups with the probe length <b>i + 1</b>, the last element counts all the longer ones too.
+ * The counters are collected only while the statistics are enabled, the rest values are calculated by the snapshot.
+ *
+ * @see IntLongHashMap#getStats()
+ */
+public final class IntLongHashMapStats implements IntLongHashMapStatsMXBean {
+    private static final String ILLEGAL_MAP_PATTERN = "The map does not support statistics: %s";
+
+    private final long[] hitProbeLengths;
+    private final long[] missProbeLengths;
+    private final long resizeCount;
+    private final long resizeTimeNanos;
+    private final int maxClusterLength;
+    private final int size;
+    private final int capacity;
+    private final long memoryBytes;
+
+    IntLongHashMapStats(long[] hitProbeLengths, long[] missProbeLengths, long resizeCount, long resizeTimeNanos,
+                        int maxClusterLength, int size, int capacity, long memoryBytes) {
+        this.hitProbeLengths = hitProbeLengths;
+        this.missProbeLengths = missProbeLengths;
+        this.resizeCount = resizeCount;
+        this.resizeTimeNanos = resizeTimeNanos;
+        this.maxClusterLength = maxClusterLength;
+        this.size = size;
+        this.capacity = capacity;
+        this.memoryBytes = memoryBytes;
+    }
+
+    @Override
+    public long[] getHitProbeLengths() {
+        return hitProbeLengths.clone();
+    }
+
+    @Override
+    public long[] getMissProbeLengths() {
+        return missProbeLengths.clone();
+    }
+
+    @Override
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    @Override
+    public long getResizeTimeNanos() {
+        return resizeTimeNanos;
+    }
+
+    @Override
+    public int getMaxClusterLength() {
+        return maxClusterLength;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public double getLoad() {
+        return (capacity == 0) ? 0 : (double) size / capacity;
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "IntLongHashMapStats{" +
+                "hitProbeLengths=" + Arrays.toString(hitProbeLengths) +
+                ", missProbeLengths=" + Arrays.toString(missProbeLengths) +
+                ", resizeCount=" + resizeCount +
+                ", resizeTimeNanos=" + resizeTimeNanos +
+                ", maxClusterLength=" + maxClusterLength +
+                ", size=" + size +
+                ", capacity=" + capacity +
+                ", load=" + getLoad() +
+                ", memoryBytes=" + memoryBytes +
+                '}';
+    }
+
+    /**
+     * Registers the statistics of the map in the platform MBean server under the name
+     * <b>com.company.util:type=IntLongHashMap,name=&lt;name&gt;</b>. Every attribute is read from a snapshot of
+     * the statistics which is taken by {@link IntLongHashMap#getStats()} at the moment, so every attribute costs
+     * a pass over the table (for the longest cluster). The snapshots are taken by the JMX threads without
+     * synchronization with the writers of the map, so they are approximate while the map is modified, and the
+     * longest cluster can be measured over a table which is being filled or replaced at the moment.
+     *
+     * @param name the name of the map
+     * @param map the map
+     * @return the name of the registered MBean
+     * @throws IllegalArgumentException if the map does not support statistics (its {@link IntLongHashMap#getStats()}
+     *         returns <b>null</b>)
+     * @throws JMException if the MBean can not be registered (for example, the name is already taken)
+     */
+    public static ObjectName register(String name, IntLongHashMap map) throws JMException {
+        if (map.getStats() == null) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_MAP_PATTERN, map.getClass().getName()));
+        }
+
+        ObjectName objectName = new ObjectName("com.company.util:type=IntLongHashMap,name=" + ObjectName.quote(name));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(new StandardMBean(new LiveStats(map), IntLongHashMapStatsMXBean.class, true),
+                objectName);
+
+        return objectName;
+    }
+
+    // The attributes which are read from the snapshots of the map at the moment, each of them separately
+    private static final class LiveStats implements IntLongHashMapStatsMXBean {
+        private final IntLongHashMap map;
+
+        LiveStats(IntLongHashMap map) {
+            this.map = map;
+        }
+
+        @Override
+        public long[] getHitProbeLengths() {
+            return map.getStats().getHitProbeLengths();
+        }
+
+        @Override
+        public long[] getMissProbeLengths() {
+            return map.getStats().getMissProbeLengths();
+        }
+
+        @Override
+        public long getResizeCount() {
+            return map.getStats().getResizeCount();
+        }
+
+        @Override
+        public long getResizeTimeNanos() {
+            return map.getStats().getResizeTimeNanos();
+        }
+
+        @Override
+        public int getMaxClusterLength() {
+            return map.getStats().getMaxClusterLength();
+        }
+
+        @Override
+        public int getSize() {
+            return map.getStats().getSize();
+        }
+
+        @Override
+        public int getCapacity() {
+            return map.getStats().getCapacity();
+        }
+
+        @Override
+        public double getLoad() {
+            return map.getStats().getLoad();
+        }
+
+        @Override
+        public long getMemoryBytes() {
+            return map.getStats().getMemoryBytes();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.company.util;
+
+/**
+ * Management interface of the statistics of an {@link IntLongHashMap}, see {@link IntLongHashMapStats} for the
+ * meaning of the attributes. A map is published by {@link IntLongHashMapStats#register(String, IntLongHashMap)};
+ * every attribute is read from the map at the moment and on its own, without synchronization with the writers
+ * of the map.
+ */
+public interface IntLongHashMapStatsMXBean {
+    long[] getHitProbeLengths();
+
+    long[] getMissProbeLengths();
+
+    long getResizeCount();
+
+    long getResizeTimeNanos();
+
+    // Makes a pass over the table, which races with the writers of the map
+    int getMaxClusterLength();
+
+    int getSize();
+
+    int getCapacity();
+
+    double getLoad();
+
+    long getMemoryBytes();
+}
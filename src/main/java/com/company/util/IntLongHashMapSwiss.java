@@ -0,0 +1,746 @@
+package com.company.util;
+
+import java.util.Arrays;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link IntLongHashMap} implementation in the style of SwissTable: open addressing over groups of 8 slots with
+ * a control byte per slot.
+ *
+ * <p>The control byte of a full slot holds the low 7 bits of the hash of its key, the high bit marks an "empty"
+ * or "deleted" slot. The control bytes of a group are packed into a single <b>long</b>, so a group is probed at once
+ * by a few arithmetic operations on the long (SWAR, "SIMD within a register"): the slots whose 7-bit fragment
+ * matches the hash of the key are found without reading their keys, and only those keys are compared. A lookup
+ * stops at the first group which has an "empty" slot, so a miss usually reads one control word and (with
+ * probability about 1/16 per group) one key. It keeps misses cheap at load factors up to <b>0.875</b> (the
+ * default). The groups are probed in the triangular sequence, which visits every group of a power-of-two table.
+ *
+ * <p>A removed entry leaves a "deleted" mark only if its group has never had an "empty" slot since the last
+ * rebuilding (so some probe sequences may go through it); the marks are counted in the load and dropped by the
+ * rebuilding, which keeps the capacity if most of the used slots are marks.
+ */
+
+public class IntLongHashMapSwiss implements IntLongHashMap {
+    private static final int GROUP_SIZE = 8;
+    private static final int GROUP_SHIFT = 3;
+    private static final int MINIMUM_CAPACITY = GROUP_SIZE;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private static final int INIT_CAPACITY_DEFAULT_VALUE = 16;
+    private static final float LOAD_FACTOR_DEFAULT_VALUE = 0.875f;
+    private static final long NO_ENTRY_VALUE_DEFAULT_VALUE = Long.MIN_VALUE;
+
+    // Control bytes: a full slot has the high bit clear and the 7-bit hash fragment in the low bits
+    private static final int EMPTY = 0x80;
+    private static final int DELETED = 0xFE;
+    private static final int FRAGMENT_MASK = 0x7F;
+
+    // Masks of the lowest and the highest bits of every byte of a control word
+    private static final long LSBS = 0x0101010101010101L;
+    private static final long MSBS = 0x8080808080808080L;
+    private static final long EMPTY_GROUP = EMPTY * LSBS;
+
+    private static final String ILLEGAL_INITIAL_CAPACITY_PATTERN = "Illegal initial capacity: %d";
+    private static final String ILLEGAL_LOAD_FACTOR_PATTERN = "Illegal load factor: : %f";
+    private static final String ILLEGAL_HASH_STRATEGY = "Illegal hash strategy: null";
+
+    private int capacity;
+    private final float loadFactor;
+    private final long noEntryValue;
+    private final IntHashStrategy hashStrategy;
+
+    private long[] controls;
+    private int[] keys;
+    private long[] values;
+    private int size;
+    // Full and "deleted" slots, which are not available for the new keys without a rebuilding
+    private int used;
+    private int limit;
+    private int groupMask;
+    private boolean entryWithNullKeyIsAssociated;
+    private long nullValue;
+
+    /**
+     * Constructs an empty <b>IntLongHashMapSwiss</b> with the specified initial capacity, load factor,
+     * long value that represents a null value in this map and hash strategy.
+     * The initial capacity is rounded up to the nearest power of two, which is not less than <b>8</b>.
+     *
+     * <p>The low 7 bits of the hash code select a slot in the group and the rest ones select the group, so the hash
+     * strategy should mix all the bits of the key, like {@link IntHashStrategy#MURMUR3}.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  noEntryValue    a long value that represents a null value in this map
+     * @param  hashStrategy    the hash strategy of the keys
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     *         or the hash strategy is null
+     */
+    public IntLongHashMapSwiss(int initialCapacity, float loadFactor, long noEntryValue, IntHashStrategy hashStrategy) {
+        if (initialCapacity < 1 || initialCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_INITIAL_CAPACITY_PATTERN, initialCapacity));
+        }
+        if (Float.isNaN(loadFactor) || loadFactor <= 0 || loadFactor > 1.0) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_LOAD_FACTOR_PATTERN, loadFactor));
+        }
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException(ILLEGAL_HASH_STRATEGY);
+        }
+
+        this.loadFactor = loadFactor;
+        this.noEntryValue = noEntryValue;
+        this.hashStrategy = hashStrategy;
+        nullValue = noEntryValue;
+
+        allocTables(tableSizeFor(initialCapacity));
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapSwiss</b> with the specified initial capacity, load factor and
+     * long value that represents a null value in this map, and Murmur3 hash strategy.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  noEntryValue    a long value that represents a null value in this map
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapSwiss(int initialCapacity, float loadFactor, long noEntryValue) {
+        this(initialCapacity, loadFactor, noEntryValue, IntHashStrategy.MURMUR3);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapSwiss</b> with the specified initial capacity and load factor,
+     * Murmur3 hash strategy and the default long value that represents a null value in
+     * this map (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     *         or the load factor is non-positive or the load factor is more than <b>1.0</b>
+     */
+    public IntLongHashMapSwiss(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, NO_ENTRY_VALUE_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapSwiss</b> with the specified initial capacity,
+     * the default load factor (<b>0.875</b>), Murmur3 hash strategy and default
+     * long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is less than <b>1</b> or more than <b>1073741824</b>
+     */
+    public IntLongHashMapSwiss(int initialCapacity) {
+        this(initialCapacity, LOAD_FACTOR_DEFAULT_VALUE);
+    }
+
+    /**
+     * Constructs an empty <b>IntLongHashMapSwiss</b> with the default initial capacity (<b>16</b>),
+     * default load factor (<b>0.875</b>), Murmur3 hash strategy and default
+     * long value that represents a null value in this map (<b>-9223372036854775808</b>).
+     *
+     */
+    public IntLongHashMapSwiss() {
+        this(INIT_CAPACITY_DEFAULT_VALUE);
+    }
+
+    /**
+     * Returns the value that will be returned from {@link #get(int)} or {@link #put(int, long)} if no entry exists for a given key.
+     * The default value is <b>-9223372036854775808</b>, but can be changed during construction of the map.
+     *
+     * @return the value that represents a null value in this map
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    // The smallest power of two which is not less than <value> and <MINIMUM_CAPACITY>
+    private static int tableSizeFor(int value) {
+        return Math.max(LinearProbing.tableSizeFor(value), MINIMUM_CAPACITY);
+    }
+
+    private void allocTables(int capacity) {
+        this.capacity = capacity;
+        this.groupMask = (capacity >>> GROUP_SHIFT) - 1;
+        this.limit = LinearProbing.limitFor(capacity, loadFactor);
+
+        controls = new long[capacity >>> GROUP_SHIFT];
+        Arrays.fill(controls, EMPTY_GROUP);
+        keys = new int[capacity];
+        values = new long[capacity];
+        size = 0;
+        used = 0;
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // SWAR operations on a control word: the result has the high bit set in every byte which satisfies the condition
+    // ----------------------------------------------------------------------------------------------------------------
+
+    // Full slots with the given hash fragment. A false positive is possible (a borrow from a lower matching byte),
+    // which is harmless as the keys are compared anyway; a false negative is not
+    private static long matchFragment(long group, int fragment) {
+        long x = group ^ (fragment * LSBS);
+
+        return (x - LSBS) & ~x & MSBS;
+    }
+
+    // "Empty" slots: the high bit is set and bit 1 is clear (it is set in "deleted")
+    private static long matchEmpty(long group) {
+        return group & ~(group << 6) & MSBS;
+    }
+
+    // "Empty" or "deleted" slots: the high bit is set and bit 0 is clear
+    private static long matchEmptyOrDeleted(long group) {
+        return group & ~(group << 7) & MSBS;
+    }
+
+    // The index of the slot of the lowest matching byte of <matches> in the given group
+    private static int slotOf(int group, long matches) {
+        return (group << GROUP_SHIFT) | (Long.numberOfTrailingZeros(matches) >>> 3);
+    }
+
+    private int groupFor(int hash) {
+        return (hash >>> 7) & groupMask;
+    }
+
+    private void setControl(int index, int control) {
+        int shift = (index & (GROUP_SIZE - 1)) << 3;
+        int group = index >>> GROUP_SHIFT;
+        controls[group] = (controls[group] & ~(0xFFL << shift)) | ((long) control << shift);
+    }
+
+    private int getControl(int index) {
+        return (int) (controls[index >>> GROUP_SHIFT] >>> ((index & (GROUP_SIZE - 1)) << 3)) & 0xFF;
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // Table operations
+    // ----------------------------------------------------------------------------------------------------------------
+
+    private int getIndex(int key) {
+        int result = -1;
+
+        int hash = hashStrategy.hash(key);
+        int fragment = hash & FRAGMENT_MASK;
+        int group = groupFor(hash);
+        boolean probing = true;
+        for (int step = 1; probing; step++) {
+            long control = controls[group];
+
+            long matches = matchFragment(control, fragment);
+            while (matches != 0 && probing) {
+                int index = slotOf(group, matches);
+                if (keys[index] == key) {
+                    result = index;
+                    probing = false;
+                }
+                matches &= matches - 1;
+            }
+
+            // The key would have been put into the "empty" slot of this group, if it had reached it
+            if (matchEmpty(control) != 0) {
+                probing = false;
+            }
+            group = (group + step) & groupMask;
+        }
+
+        return result;
+    }
+
+    // Single probe for the modifying operations: returns the index of the key if it is present, or
+    // <-(index of the first "empty" or "deleted" slot of the probe sequence) - 1>
+    private int getInsertionIndex(int key) {
+        int result = 0;
+
+        int hash = hashStrategy.hash(key);
+        int fragment = hash & FRAGMENT_MASK;
+        int group = groupFor(hash);
+        int insertionIndex = -1;
+        boolean probing = true;
+        for (int step = 1; probing; step++) {
+            long control = controls[group];
+
+            long matches = matchFragment(control, fragment);
+            while (matches != 0 && probing) {
+                int index = slotOf(group, matches);
+                if (keys[index] == key) {
+                    result = index;
+                    probing = false;
+                }
+                matches &= matches - 1;
+            }
+
+            if (probing) {
+                long free = matchEmptyOrDeleted(control);
+                if (insertionIndex < 0 && free != 0) {
+                    insertionIndex = slotOf(group, free);
+                }
+                if (matchEmpty(control) != 0) {
+                    result = -insertionIndex - 1;
+                    probing = false;
+                }
+            }
+            group = (group + step) & groupMask;
+        }
+
+        return result;
+    }
+
+    // The first "empty" or "deleted" slot of the probe sequence of the key which is known to be absent
+    private int findFreeIndex(int hash) {
+        int group = groupFor(hash);
+        long free = matchEmptyOrDeleted(controls[group]);
+        for (int step = 1; free == 0; step++) {
+            group = (group + step) & groupMask;
+            free = matchEmptyOrDeleted(controls[group]);
+        }
+
+        return slotOf(group, free);
+    }
+
+    private void insert(int insertionIndex, int key, long value) {
+        int index = -insertionIndex - 1;
+
+        // A "deleted" slot is reused without the growth of the load
+        if (getControl(index) == EMPTY) {
+            if (used >= limit) {
+                reAllocTables();
+                index = findFreeIndex(hashStrategy.hash(key));
+            }
+            used++;
+        }
+
+        setControl(index, hashStrategy.hash(key) & FRAGMENT_MASK);
+        keys[index] = key;
+        values[index] = value;
+        size++;
+    }
+
+    // Doubles the capacity, or only drops the "deleted" marks if they take more than a half of the used slots
+    private void reAllocTables() {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+
+        allocTables((size >= used / 2) ? Math.min(capacity << 1, MAXIMUM_CAPACITY) : capacity);
+
+        // The keys of "empty" and "deleted" slots are 0
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int hash = hashStrategy.hash(oldKeys[i]);
+                int index = findFreeIndex(hash);
+                setControl(index, hash & FRAGMENT_MASK);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                size++;
+                used++;
+            }
+        }
+    }
+
+    private void rawRemove(int index) {
+        // No probe sequence has gone through a group which has an "empty" slot, so the slot can become "empty" too
+        if (matchEmpty(controls[index >>> GROUP_SHIFT]) != 0) {
+            setControl(index, EMPTY);
+            used--;
+        } else {
+            setControl(index, DELETED);
+        }
+
+        keys[index] = 0;
+        values[index] = 0;
+        size--;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or the value which is returned by {@link #getNoEntryValue()} if this map contains no mapping for the key.
+     *
+     * <p>A return {@link #getNoEntryValue()} value does not <i>necessarily</i>
+     * indicate that the map contains no mapping for the key; it's also
+     * possible that the map explicitly maps the key to {@link #getNoEntryValue()}.
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@link #getNoEntryValue()} if this map contains no mapping for the key
+     * @see #getNoEntryValue
+     * @see #put(int, long)
+     */
+    @Override
+    public long get(int key) {
+        long result = noEntryValue;
+
+        // Separately check for "null key", the same way as IntLongHashMapOpenAddr does
+        if (key == 0) {
+            result = nullValue;
+        } else {
+            int index = getIndex(key);
+            if (index >= 0) {
+                result = values[index];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old value is replaced by the specified value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     * @see #get(int)
+     */
+    @Override
+    public long put(int key, long value) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = value;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = values[index];
+                values[index] = value;
+            } else {
+                insert(index, key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns <b>true</b> if this map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return <b>true</b> if this map contains a mapping for the specified key
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return (key == 0) ? entryWithNullKeyIsAssociated : getIndex(key) >= 0;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key.
+     *         (A {@link #getNoEntryValue()} return can also indicate that the map
+     *         previously associated {@link #getNoEntryValue()} with key)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long remove(int key) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            result = nullValue;
+            nullValue = noEntryValue;
+            entryWithNullKeyIsAssociated = false;
+        } else {
+            int index = getIndex(key);
+            if (index >= 0) {
+                result = values[index];
+                rawRemove(index);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     * no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the value to return if this map contains no mapping for the key
+     * @return the value to which the specified key is mapped, or <b>defaultValue</b> if this map contains
+     *         no mapping for the key
+     */
+    @Override
+    public long getOrDefault(int key, long defaultValue) {
+        long result = defaultValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+            }
+        } else {
+            int index = getIndex(key);
+            if (index >= 0) {
+                result = values[index];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map, if the key is not already associated
+     * with a value. The table is probed once.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the current value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key (and the value is associated now)
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long putIfAbsent(int key, long value) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+            } else {
+                nullValue = value;
+                entryWithNullKeyIsAssociated = true;
+            }
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = values[index];
+            } else {
+                insert(index, key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds the increment to the value associated with the specified key. If there is no mapping for the key, the key
+     * is associated with the increment (as if it was associated with <b>0</b>). The table is probed once.
+     *
+     * @param key key with which the value is associated
+     * @param increment the value to add
+     * @return the previous value associated with key, or
+     *         {@link #getNoEntryValue()} if there was no mapping for key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long addTo(int key, long increment) {
+        long result = noEntryValue;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = nullValue;
+                nullValue += increment;
+            } else {
+                nullValue = increment;
+                entryWithNullKeyIsAssociated = true;
+            }
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = values[index];
+                values[index] += increment;
+            } else {
+                insert(index, key, increment);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the specified value if there is no mapping for the key, otherwise replaces
+     * the associated value with the result of <b>remappingFunction</b> applied to the associated value and the
+     * specified value. The table is probed once.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be associated if there is no mapping for the key
+     * @param remappingFunction the function to combine the associated value and the specified value
+     * @return the new value associated with the specified key
+     */
+    @Override
+    public long merge(int key, long value, LongBinaryOperator remappingFunction) {
+        long result = value;
+
+        if (key == 0) {
+            if (entryWithNullKeyIsAssociated) {
+                result = remappingFunction.applyAsLong(nullValue, value);
+            }
+            nullValue = result;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = remappingFunction.applyAsLong(values[index], value);
+                values[index] = result;
+            } else {
+                insert(index, key, value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates the specified key with the result of <b>remappingFunction</b> applied to the value which is
+     * associated with the key, or to {@link #getNoEntryValue()} if there is no mapping for the key. The table is
+     * probed once.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param remappingFunction the function to compute the value
+     * @return the new value associated with the specified key
+     * @see #getNoEntryValue
+     */
+    @Override
+    public long compute(int key, LongUnaryOperator remappingFunction) {
+        long result;
+
+        if (key == 0) {
+            result = remappingFunction.applyAsLong(nullValue);
+            nullValue = result;
+            entryWithNullKeyIsAssociated = true;
+        } else {
+            int index = getInsertionIndex(key);
+            if (index >= 0) {
+                result = remappingFunction.applyAsLong(values[index]);
+                values[index] = result;
+            } else {
+                result = remappingFunction.applyAsLong(noEntryValue);
+                insert(index, key, result);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a new cursor over the entries of this map, the entry with the key <b>0</b> included. The cursor reads
+     * the tables directly and does not create any objects while it moves over the entries.
+     *
+     * @return a cursor over the entries of this map
+     */
+    @Override
+    public IntLongCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Performs the given action for each entry of this map, the entry with the key <b>0</b> included, in unspecified
+     * order. No objects are created by the iteration. The result is unspecified if the action modifies the map.
+     *
+     * @param action the action to be performed for each entry
+     */
+    @Override
+    public void forEach(IntLongConsumer action) {
+        // The keys of "empty" and "deleted" slots are 0
+        int[] keys = this.keys;
+        long[] values = this.values;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+
+        if (entryWithNullKeyIsAssociated) {
+            action.accept(0, nullValue);
+        }
+    }
+
+    /**
+     * Returns a sequential stream of the keys of this map, the key <b>0</b> included if it is mapped. The underlying
+     * spliterator splits the table in halves, so the stream made parallel by {@link IntStream#parallel()} is processed
+     * efficiently by the fork-join pool.
+     *
+     * @return a stream of the keys of this map
+     */
+    @Override
+    public IntStream keyStream() {
+        return StreamSupport.intStream(new TableSpliterator.OfKeys(keys, values, entryWithNullKeyIsAssociated,
+                nullValue, size()), false);
+    }
+
+    /**
+     * Returns a sequential stream of the values of this map, the value of the key <b>0</b> included if it is mapped.
+     * The underlying spliterator splits the table in halves, so the stream made parallel by
+     * {@link LongStream#parallel()} is processed efficiently by the fork-join pool.
+     *
+     * @return a stream of the values of this map
+     */
+    @Override
+    public LongStream valueStream() {
+        return StreamSupport.longStream(new TableSpliterator.OfValues(keys, values, entryWithNullKeyIsAssociated,
+                nullValue, size()), false);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    @Override
+    public int size() {
+        return entryWithNullKeyIsAssociated ? size + 1 : size;
+    }
+
+    // Cursor over the tables which are current at its creation (or reset); the "null key" entry goes last
+    private final class Cursor implements IntLongCursor {
+        private int[] cursorKeys;
+        private long[] cursorValues;
+        private int index;
+        private boolean nullEntry;
+        private int key;
+        private long value;
+
+        Cursor() {
+            reset();
+        }
+
+        @Override
+        public boolean advance() {
+            boolean result = false;
+
+            while (!result && index < cursorKeys.length) {
+                if (cursorKeys[index] != 0) {
+                    key = cursorKeys[index];
+                    value = cursorValues[index];
+                    result = true;
+                }
+                index++;
+            }
+
+            if (!result && nullEntry) {
+                nullEntry = false;
+                key = 0;
+                value = nullValue;
+                result = true;
+            }
+
+            return result;
+        }
+
+        @Override
+        public int key() {
+            return key;
+        }
+
+        @Override
+        public long value() {
+            return value;
+        }
+
+        @Override
+        public void reset() {
+            cursorKeys = keys;
+            cursorValues = values;
+            index = 0;
+            nullEntry = entryWithNullKeyIsAssociated;
+        }
+    }
+}
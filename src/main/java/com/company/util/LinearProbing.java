@@ -0,0 +1,57 @@
+package com.company.util;
+
+/**
+ * The rules of the open-addressing tables with linear probing and power-of-two capacity (the power-of-two mode of
+ * {@link IntLongHashMapOpenAddr}, and the tables which follow it): the rounding of the capacity, the size at which
+ * a table grows, and the backward-shift deletion. The tables keep their slots in different layouts, so they move the
+ * entries themselves, by these rules.
+ */
+final class LinearProbing {
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private LinearProbing() {
+    }
+
+    /**
+     * Returns the smallest power of two which is not less than the value, up to <b>1073741824</b>.
+     *
+     * @param value the required capacity
+     * @return the capacity of the table
+     */
+    static int tableSizeFor(int value) {
+        int result = Integer.highestOneBit(value);
+        if (result < value) {
+            result <<= 1;
+        }
+
+        return Math.min(result, MAXIMUM_CAPACITY);
+    }
+
+    /**
+     * Returns the number of the keys at which the table grows. At least one "empty" slot is kept, so that probing
+     * always stops.
+     *
+     * @param capacity   the capacity of the table
+     * @param loadFactor the load factor
+     * @return the maximum number of the keys in the table
+     */
+    static int limitFor(int capacity, float loadFactor) {
+        return Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    /**
+     * Returns whether the entry of the cluster, which follows the gap left by a removed entry, should be moved back
+     * to the gap: it should, if the gap lies on its probe path (from its home slot to its slot), otherwise the
+     * lookups would stop at the gap before they reach it. Moving the entries back this way (backward-shift
+     * deletion) leaves no "deleted" marks in the table.
+     *
+     * @param gap     the slot of the gap
+     * @param home    the home slot of the entry (its hash code masked)
+     * @param current the slot of the entry
+     * @param mask    the capacity of the table minus one
+     * @return whether the entry should be moved to the gap
+     */
+    static boolean isOnProbePath(int gap, int home, int current, int mask) {
+        return ((current - home) & mask) >= ((current - gap) & mask);
+    }
+}
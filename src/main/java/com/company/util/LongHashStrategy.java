@@ -0,0 +1,20 @@
+package com.company.util;
+
+/**
+ * Strategy of calculation of the hash code of a long key, the same as {@link IntHashStrategy} for the int keys.
+ */
+interface LongHashStrategy {
+    /**
+     * The low 32 bits of Murmur3 64-bit finalizer (fmix64): all the bits of the key affect the low bits of the hash
+     * code.
+     */
+    LongHashStrategy MURMUR3 = LongHashing::hash;
+
+    /**
+     * Calculates the hash code of the key.
+     *
+     * @param key the key
+     * @return the hash code of the key
+     */
+    int hash(long key);
+}
@@ -0,0 +1,27 @@
+package com.company.util;
+
+/**
+ * Hash code of a long key for the tables with power-of-two capacity (which use only the low bits of the hash code):
+ * Murmur3 64-bit finalizer (fmix64), so all the bits of the key affect the low bits of the hash code.
+ */
+final class LongHashing {
+    private LongHashing() {
+    }
+
+    /**
+     * Calculates the hash code of the key: the low 32 bits of Murmur3 64-bit finalizer of the key.
+     *
+     * @param key the key
+     * @return the hash code of the key
+     */
+    static int hash(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+
+        return (int) h;
+    }
+}
@@ -0,0 +1,200 @@
+package com.company.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Builds the tables of {@link IntLongHashMapOpenAddr} from the arrays of keys and values by the tasks of a
+ * {@link ForkJoinPool}.
+ *
+ * <p>The table is split into regions of consecutive slots, and the entries are partitioned by the region of their
+ * home slot (the high bits of the index): the entries are counted and scattered by chunks of the input in parallel,
+ * keeping their order within a region. Then the regions are filled in parallel, every task probes only the slots of
+ * its own region, so no synchronization is needed. An entry whose probing runs past the end of its region is
+ * deferred, and the deferred entries (a small part, as clusters are short) are put one by one at the end. The
+ * result is the same table that a sequence of <b>put</b> calls builds, up to the order of the colliding keys: the
+ * later of the equal keys wins.
+ */
+final class ParallelTableBuilder {
+    // The smallest region, so that the deferred entries stay rare
+    private static final int MIN_REGION_SLOTS = 1 << 12;
+    private static final int REGIONS_PER_THREAD = 8;
+
+    private static final String ILLEGAL_LENGTHS_PATTERN = "Illegal array lengths: %d keys and %d values";
+    private static final String ILLEGAL_SIZE_PATTERN = "Too many keys for the load factor %f: %d";
+
+    private ParallelTableBuilder() {
+    }
+
+    static IntLongHashMapOpenAddr build(int[] keys, long[] values, float loadFactor, float multiplier,
+                                        long noEntryValue, IntHashStrategy hashStrategy, boolean powerOfTwoCapacity,
+                                        ForkJoinPool pool) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_LENGTHS_PATTERN, keys.length, values.length));
+        }
+
+        // The map validates the parameters and allocates the tables of the final capacity
+        int capacity = IntLongHashMapOpenAddr.capacityFor(keys.length, loadFactor, powerOfTwoCapacity);
+        IntLongHashMapOpenAddr template = new IntLongHashMapOpenAddr(capacity, loadFactor, multiplier, noEntryValue,
+                hashStrategy, powerOfTwoCapacity);
+        int[] tableKeys = template.keyTable();
+        long[] tableValues = template.valueTable();
+        capacity = tableKeys.length;
+        if (keys.length >= capacity) {
+            throw new IllegalArgumentException(String.format(ILLEGAL_SIZE_PATTERN, loadFactor, keys.length));
+        }
+
+        int regions = Math.max(1, Math.min(pool.getParallelism() * REGIONS_PER_THREAD, capacity / MIN_REGION_SLOTS));
+        int chunks = regions;
+        int tableCapacity = capacity;
+
+        // 1. The number of the entries of every region in every chunk of the input; the "null key" is left aside
+        int[][] counts = new int[chunks][regions];
+        runAll(pool, chunks, chunk -> {
+            int[] chunkCounts = counts[chunk];
+            for (int i = chunkStart(chunk, chunks, keys.length); i < chunkStart(chunk + 1, chunks, keys.length); i++) {
+                if (keys[i] != 0) {
+                    chunkCounts[regionOf(homeOf(keys[i], hashStrategy, tableCapacity, powerOfTwoCapacity),
+                            regions, tableCapacity)]++;
+                }
+            }
+        });
+
+        // 2. Where every chunk writes the entries of every region: regions one after another, chunks in their order
+        int[] regionStarts = new int[regions + 1];
+        int[][] offsets = new int[chunks][regions];
+        int position = 0;
+        for (int region = 0; region < regions; region++) {
+            regionStarts[region] = position;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                offsets[chunk][region] = position;
+                position += counts[chunk][region];
+            }
+        }
+        regionStarts[regions] = position;
+
+        // 3. The entries partitioned by the regions, in the order of the input within a region
+        int[] partitionedKeys = new int[position];
+        long[] partitionedValues = new long[position];
+        runAll(pool, chunks, chunk -> {
+            int[] chunkOffsets = offsets[chunk];
+            for (int i = chunkStart(chunk, chunks, keys.length); i < chunkStart(chunk + 1, chunks, keys.length); i++) {
+                if (keys[i] != 0) {
+                    int region = regionOf(homeOf(keys[i], hashStrategy, tableCapacity, powerOfTwoCapacity), regions,
+                            tableCapacity);
+                    int offset = chunkOffsets[region]++;
+                    partitionedKeys[offset] = keys[i];
+                    partitionedValues[offset] = values[i];
+                }
+            }
+        });
+
+        // 4. Every region is filled by its own task; the deferred entries are moved to the start of its partition
+        int[] regionSizes = new int[regions];
+        int[] deferredCounts = new int[regions];
+        runAll(pool, regions, region -> {
+            int regionEnd = slotStart(region + 1, regions, tableCapacity);
+            int deferred = regionStarts[region];
+            int size = 0;
+            for (int i = regionStarts[region]; i < regionStarts[region + 1]; i++) {
+                int key = partitionedKeys[i];
+                int index = homeOf(key, hashStrategy, tableCapacity, powerOfTwoCapacity);
+                while (index < regionEnd && tableKeys[index] != 0 && tableKeys[index] != key) {
+                    index++;
+                }
+
+                if (index == regionEnd) {
+                    partitionedKeys[deferred] = key;
+                    partitionedValues[deferred] = partitionedValues[i];
+                    deferred++;
+                } else {
+                    if (tableKeys[index] == 0) {
+                        tableKeys[index] = key;
+                        size++;
+                    }
+                    tableValues[index] = partitionedValues[i];
+                }
+            }
+            regionSizes[region] = size;
+            deferredCounts[region] = deferred - regionStarts[region];
+        });
+
+        // 5. The deferred entries are probed through the whole table
+        int size = 0;
+        for (int region = 0; region < regions; region++) {
+            size += regionSizes[region];
+            for (int i = regionStarts[region]; i < regionStarts[region] + deferredCounts[region]; i++) {
+                int key = partitionedKeys[i];
+                int index = homeOf(key, hashStrategy, capacity, powerOfTwoCapacity);
+                while (tableKeys[index] != 0 && tableKeys[index] != key) {
+                    index = (index + 1 == capacity) ? 0 : index + 1;
+                }
+                if (tableKeys[index] == 0) {
+                    tableKeys[index] = key;
+                    size++;
+                }
+                tableValues[index] = partitionedValues[i];
+            }
+        }
+
+        // The last of the "null keys" wins, as with <put>
+        boolean nullEntry = false;
+        long nullValue = noEntryValue;
+        for (int i = keys.length - 1; i >= 0 && !nullEntry; i--) {
+            if (keys[i] == 0) {
+                nullEntry = true;
+                nullValue = values[i];
+            }
+        }
+
+        return new IntLongHashMapOpenAddr(loadFactor, multiplier, noEntryValue, hashStrategy, powerOfTwoCapacity,
+                tableKeys, tableValues, size, nullEntry, nullValue);
+    }
+
+    private static int homeOf(int key, IntHashStrategy hashStrategy, int capacity, boolean powerOfTwoCapacity) {
+        return IntLongHashMapOpenAddr.indexFor(hashStrategy.hash(key), capacity, powerOfTwoCapacity);
+    }
+
+    // Slots [slotStart(region), slotStart(region + 1)) belong to the region
+    private static int slotStart(int region, int regions, int capacity) {
+        return (int) (((long) region * capacity + regions - 1) / regions);
+    }
+
+    private static int regionOf(int index, int regions, int capacity) {
+        return (int) ((long) index * regions / capacity);
+    }
+
+    private static int chunkStart(int chunk, int chunks, int length) {
+        return (int) ((long) chunk * length / chunks);
+    }
+
+    // Runs the action for every index in [0, count) by the tasks of the pool and waits for all of them
+    private static void runAll(ForkJoinPool pool, int count, IntConsumer action) {
+        pool.invoke(new RangeAction(0, count, action));
+    }
+
+    private static final class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        RangeAction(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                action.accept(from);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeAction(from, middle, action), new RangeAction(middle, to, action));
+            }
+        }
+    }
+}
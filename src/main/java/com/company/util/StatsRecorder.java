@@ -0,0 +1,119 @@
+package com.company.util;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * Counters of the statistics of a map, which exist only while the statistics are enabled (so a disabled map pays for
+ * a null check per operation). The counters are striped ({@link LongAdder}), so the maps which are shared between
+ * threads do not contend on them.
+ *
+ * @see IntLongHashMapStats
+ */
+final class StatsRecorder {
+    static final int HISTOGRAM_SIZE = 32;
+    // Approximate size of the header of an array object
+    static final int ARRAY_HEADER_BYTES = 16;
+    // Approximate size of a reference (compressed)
+    static final int REFERENCE_BYTES = 4;
+
+    private final LongAdder[] hitProbeLengths = newHistogram();
+    private final LongAdder[] missProbeLengths = newHistogram();
+    private final LongAdder resizeCount = new LongAdder();
+    private final LongAdder resizeTimeNanos = new LongAdder();
+
+    private static LongAdder[] newHistogram() {
+        LongAdder[] result = new LongAdder[HISTOGRAM_SIZE];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new LongAdder();
+        }
+
+        return result;
+    }
+
+    private static long[] sum(LongAdder[] histogram) {
+        long[] result = new long[histogram.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = histogram[i].sum();
+        }
+
+        return result;
+    }
+
+    static long[] emptyHistogram() {
+        return new long[HISTOGRAM_SIZE];
+    }
+
+    static long arrayBytes(int length, int elementBytes) {
+        return ARRAY_HEADER_BYTES + (long) length * elementBytes;
+    }
+
+    // The snapshot of the counters (empty ones while the statistics are disabled) and of the calculated values
+    static IntLongHashMapStats snapshot(StatsRecorder recorder, int maxClusterLength, int size, int capacity,
+                                        long memoryBytes) {
+        return new IntLongHashMapStats(
+                (recorder != null) ? recorder.hitProbeLengths() : emptyHistogram(),
+                (recorder != null) ? recorder.missProbeLengths() : emptyHistogram(),
+                (recorder != null) ? recorder.resizeCount() : 0,
+                (recorder != null) ? recorder.resizeTimeNanos() : 0,
+                maxClusterLength, size, capacity, memoryBytes);
+    }
+
+    // The longest run of the non-empty slots of a linear probing table, the runs wrap around the end of the table
+    static int maxClusterLength(int[] keys) {
+        return maxClusterLength(keys.length, index -> keys[index] != 0);
+    }
+
+    // The same for a table of <capacity> slots of any layout, whose slot is non-empty if <occupied> says so
+    static int maxClusterLength(int capacity, IntPredicate occupied) {
+        int result = 0;
+
+        // The run which starts at the beginning of the table is continued by the one at the end
+        int head = 0;
+        while (head < capacity && occupied.test(head)) {
+            head++;
+        }
+
+        if (head == capacity) {
+            result = capacity;
+        } else {
+            int run = 0;
+            for (int i = head; i < capacity; i++) {
+                run = occupied.test(i) ? run + 1 : 0;
+                result = Math.max(result, run);
+            }
+            result = Math.max(result, run + head);
+        }
+
+        return result;
+    }
+
+    void recordHit(int probeLength) {
+        hitProbeLengths[Math.min(probeLength, HISTOGRAM_SIZE) - 1].increment();
+    }
+
+    void recordMiss(int probeLength) {
+        missProbeLengths[Math.min(probeLength, HISTOGRAM_SIZE) - 1].increment();
+    }
+
+    void recordResize(long nanos) {
+        resizeCount.increment();
+        resizeTimeNanos.add(nanos);
+    }
+
+    long[] hitProbeLengths() {
+        return sum(hitProbeLengths);
+    }
+
+    long[] missProbeLengths() {
+        return sum(missProbeLengths);
+    }
+
+    long resizeCount() {
+        return resizeCount.sum();
+    }
+
+    long resizeTimeNanos() {
+        return resizeTimeNanos.sum();
+    }
+}
@@ -0,0 +1,216 @@
+package com.company.util;
+
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Splittable spliterators over the keys and the values of an open addressing table: a pair of <b>int[]</b> keys and
+ * <b>long[]</b> values where the key <b>0</b> marks an empty slot, and the entry with the "null key" which is stored
+ * separately.
+ *
+ * <p>A spliterator is split by halving its range of slots, so that the stream views of a map can be processed in
+ * parallel. The "null key" entry stays with the spliterator which is split, and is reported after its slots. The
+ * spliterators are not fail-fast: the result is unspecified if the map is structurally modified during the traversal.
+ */
+abstract class TableSpliterator {
+    final int[] keys;
+    final long[] values;
+    final long nullValue;
+    int index;
+    final int fence;
+    boolean nullEntry;
+    // The exact number of the remaining entries until the first split, an estimation after it
+    long estimate;
+    boolean exact;
+
+    TableSpliterator(int[] keys, long[] values, int origin, int fence, boolean nullEntry, long nullValue,
+                     long estimate, boolean exact) {
+        this.keys = keys;
+        this.values = values;
+        this.index = origin;
+        this.fence = fence;
+        this.nullEntry = nullEntry;
+        this.nullValue = nullValue;
+        this.estimate = estimate;
+        this.exact = exact;
+    }
+
+    // Cuts off the first half of the remaining slots and returns its origin, or <-1> if the range is too small
+    int split() {
+        int result = -1;
+
+        int middle = (index + fence) >>> 1;
+        if (middle > index) {
+            result = index;
+            index = middle;
+            estimate >>>= 1;
+            exact = false;
+        }
+
+        return result;
+    }
+
+    // The index of the next non-empty slot (or <fence>) starting from <index>
+    int nextSlot() {
+        int result = index;
+        while (result < fence && keys[result] == 0) {
+            result++;
+        }
+
+        return result;
+    }
+
+    void advanced() {
+        if (exact) {
+            estimate--;
+        }
+    }
+
+    void finished() {
+        index = fence;
+        nullEntry = false;
+        estimate = 0;
+    }
+
+    public long estimateSize() {
+        return estimate;
+    }
+
+    int sizeCharacteristics() {
+        return exact ? Spliterator.SIZED : 0;
+    }
+
+    static final class OfKeys extends TableSpliterator implements Spliterator.OfInt {
+        OfKeys(int[] keys, long[] values, boolean nullEntry, long nullValue, long size) {
+            this(keys, values, 0, keys.length, nullEntry, nullValue, size, true);
+        }
+
+        private OfKeys(int[] keys, long[] values, int origin, int fence, boolean nullEntry, long nullValue,
+                       long estimate, boolean exact) {
+            super(keys, values, origin, fence, nullEntry, nullValue, estimate, exact);
+        }
+
+        @Override
+        public OfKeys trySplit() {
+            OfKeys result = null;
+
+            int origin = split();
+            if (origin >= 0) {
+                result = new OfKeys(keys, values, origin, index, false, nullValue, estimate, false);
+            }
+
+            return result;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            boolean result = false;
+
+            int slot = nextSlot();
+            if (slot < fence) {
+                index = slot + 1;
+                action.accept(keys[slot]);
+                result = true;
+            } else {
+                index = fence;
+                if (nullEntry) {
+                    nullEntry = false;
+                    action.accept(0);
+                    result = true;
+                }
+            }
+            if (result) {
+                advanced();
+            }
+
+            return result;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int[] keys = this.keys;
+            for (int i = index; i < fence; i++) {
+                if (keys[i] != 0) {
+                    action.accept(keys[i]);
+                }
+            }
+            if (nullEntry) {
+                action.accept(0);
+            }
+            finished();
+        }
+
+        @Override
+        public int characteristics() {
+            return sizeCharacteristics() | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+    }
+
+    static final class OfValues extends TableSpliterator implements Spliterator.OfLong {
+        OfValues(int[] keys, long[] values, boolean nullEntry, long nullValue, long size) {
+            this(keys, values, 0, keys.length, nullEntry, nullValue, size, true);
+        }
+
+        private OfValues(int[] keys, long[] values, int origin, int fence, boolean nullEntry, long nullValue,
+                         long estimate, boolean exact) {
+            super(keys, values, origin, fence, nullEntry, nullValue, estimate, exact);
+        }
+
+        @Override
+        public OfValues trySplit() {
+            OfValues result = null;
+
+            int origin = split();
+            if (origin >= 0) {
+                result = new OfValues(keys, values, origin, index, false, nullValue, estimate, false);
+            }
+
+            return result;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            boolean result = false;
+
+            int slot = nextSlot();
+            if (slot < fence) {
+                index = slot + 1;
+                action.accept(values[slot]);
+                result = true;
+            } else {
+                index = fence;
+                if (nullEntry) {
+                    nullEntry = false;
+                    action.accept(nullValue);
+                    result = true;
+                }
+            }
+            if (result) {
+                advanced();
+            }
+
+            return result;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            int[] keys = this.keys;
+            long[] values = this.values;
+            for (int i = index; i < fence; i++) {
+                if (keys[i] != 0) {
+                    action.accept(values[i]);
+                }
+            }
+            if (nullEntry) {
+                action.accept(nullValue);
+            }
+            finished();
+        }
+
+        @Override
+        public int characteristics() {
+            return sizeCharacteristics() | Spliterator.NONNULL;
+        }
+    }
+}
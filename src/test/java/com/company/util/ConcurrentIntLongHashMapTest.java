@@ -0,0 +1,249 @@
+package com.company.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The same tests for {@link ConcurrentIntLongHashMap}, and the tests of concurrent modifications.
+ */
+
+public class ConcurrentIntLongHashMapTest extends IntLongHashMapTest {
+    private static final int THREAD_QUANTITY = 4;
+    private static final int OPERATION_QUANTITY = 200000;
+    private static final int COUNTER_KEY_BOUND = 500;
+    private static final int KEY_RANGE = 50000;
+
+    private static final String COUNTER_PATTERN = "Counter of the key %d";
+    private static final String TOTAL_MESSAGE = "Sum of the added values";
+    private static final String KEY_PATTERN = "Key %d";
+    private static final String REPORTED_KEY_PATTERN = "Reported key %d";
+
+    @Override
+    protected IntLongHashMap createIntLongHashMap() {
+        return new ConcurrentIntLongHashMap(1);
+    }
+
+    // Runs the tasks in separate threads and rethrows the first failure of them
+    private static void runConcurrently(List<Runnable> tasks) throws Throwable {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (Runnable task : tasks) {
+            Thread thread = new Thread(task);
+            thread.setUncaughtExceptionHandler((t, e) -> failure.compareAndSet(null, e));
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void concurrentAddAndGetTest() throws Throwable {
+        ConcurrentIntLongHashMap map = new ConcurrentIntLongHashMap(1);
+        long[][] expectedCounters = new long[THREAD_QUANTITY][2 * COUNTER_KEY_BOUND + 1];
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < THREAD_QUANTITY; t++) {
+            long[] counters = expectedCounters[t];
+            Random random = new Random(t);
+            tasks.add(() -> {
+                for (int i = 0; i < OPERATION_QUANTITY; i++) {
+                    int key = random.nextInt(2 * COUNTER_KEY_BOUND + 1) - COUNTER_KEY_BOUND;
+                    long delta = random.nextInt(10) + 1;
+                    map.addAndGet(key, delta);
+                    counters[key + COUNTER_KEY_BOUND] += delta;
+                }
+            });
+        }
+        runConcurrently(tasks);
+
+        for (int key = -COUNTER_KEY_BOUND; key <= COUNTER_KEY_BOUND; key++) {
+            long expected = 0;
+            for (long[] counters : expectedCounters) {
+                expected += counters[key + COUNTER_KEY_BOUND];
+            }
+            if (expected == 0) {
+                assertFalse(String.format(KEY_PATTERN, key), map.containsKey(key));
+            } else {
+                assertEquals(String.format(COUNTER_PATTERN, key), expected, map.get(key));
+            }
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void concurrentAddToRemoveTest() throws Throwable {
+        ConcurrentIntLongHashMap map = new ConcurrentIntLongHashMap(1);
+        long[] added = new long[THREAD_QUANTITY - 1];
+        long[] removed = new long[1];
+
+        // The increments and decrements race with the removals of the same keys, and every removal leaves a "dead"
+        // slot, so the table is rebuilt all the time: every added value should be either removed or left in the map
+        AtomicInteger adding = new AtomicInteger(THREAD_QUANTITY - 1);
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < THREAD_QUANTITY - 1; t++) {
+            int thread = t;
+            Random random = new Random(t);
+            tasks.add(() -> {
+                try {
+                    for (int i = 0; i < OPERATION_QUANTITY; i++) {
+                        int key = random.nextInt(COUNTER_KEY_BOUND) + 1;
+                        long delta = random.nextBoolean() ? 1 : -1;
+                        map.addTo(key, delta);
+                        added[thread] += delta;
+                    }
+                } finally {
+                    adding.decrementAndGet();
+                }
+            });
+        }
+        tasks.add(() -> {
+            Random random = new Random(THREAD_QUANTITY);
+            while (adding.get() > 0) {
+                long value = map.remove(random.nextInt(COUNTER_KEY_BOUND) + 1);
+                if (value != map.getNoEntryValue()) {
+                    removed[0] += value;
+                }
+            }
+        });
+        runConcurrently(tasks);
+
+        long expected = 0;
+        for (long value : added) {
+            expected += value;
+        }
+        long actual = removed[0];
+        for (int key = 1; key <= COUNTER_KEY_BOUND; key++) {
+            actual += map.getOrDefault(key, 0);
+        }
+        assertEquals(TOTAL_MESSAGE, expected, actual);
+    }
+
+    @Test(timeout = 20000)
+    public void concurrentResizeUnderHotKeyTest() throws Throwable {
+        ConcurrentIntLongHashMap map = new ConcurrentIntLongHashMap(1);
+
+        // The writers of a single key hold its slot most of the time, while the table grows many times: the slot is
+        // moved to every new table by the writers themselves, and no increment should be lost on the way
+        AtomicBoolean growing = new AtomicBoolean(true);
+        long[] added = new long[THREAD_QUANTITY - 1];
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < THREAD_QUANTITY - 1; t++) {
+            int thread = t;
+            tasks.add(() -> {
+                while (growing.get()) {
+                    map.addTo(1, 1);
+                    added[thread]++;
+                }
+            });
+        }
+        tasks.add(() -> {
+            try {
+                for (int key = 2; key <= KEY_RANGE; key++) {
+                    map.put(key, -key);
+                }
+            } finally {
+                growing.set(false);
+            }
+        });
+        runConcurrently(tasks);
+
+        long expected = 0;
+        for (long value : added) {
+            expected += value;
+        }
+        assertEquals(TOTAL_MESSAGE, expected, map.get(1));
+        for (int key = 2; key <= KEY_RANGE; key++) {
+            assertEquals(String.format(KEY_PATTERN, key), -key, map.get(key));
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void concurrentPutRemoveTest() throws Throwable {
+        ConcurrentIntLongHashMap map = new ConcurrentIntLongHashMap(1);
+
+        // Every thread puts its own range of keys, and removes every second key of the range twice (the key is
+        // put back after the first removal), while the table is growing and being rebuilt by all the threads
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < THREAD_QUANTITY; t++) {
+            int from = t * KEY_RANGE + 1;
+            tasks.add(() -> {
+                for (int key = from; key < from + KEY_RANGE; key++) {
+                    assertEquals(map.getNoEntryValue(), map.putIfAbsent(key, key));
+                    assertEquals(key, map.put(key, -key));
+                    if ((key & 1) == 0) {
+                        assertEquals(-key, map.remove(key));
+                        assertEquals(map.getNoEntryValue(), map.put(key, key));
+                        assertEquals(key, map.remove(key));
+                    }
+                }
+            });
+        }
+        runConcurrently(tasks);
+
+        assertEquals(THREAD_QUANTITY * KEY_RANGE / 2, map.size());
+        for (int key = 1; key <= THREAD_QUANTITY * KEY_RANGE; key++) {
+            assertEquals(String.format(KEY_PATTERN, key), ((key & 1) == 0) ? map.getNoEntryValue() : -key,
+                    map.get(key));
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void concurrentIterationTest() throws Throwable {
+        ConcurrentIntLongHashMap map = new ConcurrentIntLongHashMap(1);
+        for (int key = 1; key <= KEY_RANGE; key++) {
+            map.put(key, -key);
+        }
+
+        // The stable keys are iterated while the other threads insert new keys, so the table is rebuilt many times
+        // during the iteration: every stable key should be reported exactly once and with its own value
+        AtomicBoolean iterating = new AtomicBoolean(true);
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < THREAD_QUANTITY - 1; t++) {
+            int from = (t + 1) * KEY_RANGE + 1;
+            tasks.add(() -> {
+                for (int key = from; key < from + KEY_RANGE && iterating.get(); key++) {
+                    map.put(key, -key);
+                }
+            });
+        }
+        tasks.add(() -> {
+            try {
+                for (int pass = 0; pass < 10; pass++) {
+                    boolean[] reported = new boolean[KEY_RANGE + 1];
+                    IntLongCursor cursor = map.cursor();
+                    while (cursor.advance()) {
+                        int key = cursor.key();
+                        assertEquals(String.format(REPORTED_KEY_PATTERN, key), -key, cursor.value());
+                        if (key <= KEY_RANGE) {
+                            assertFalse(String.format(REPORTED_KEY_PATTERN, key), reported[key]);
+                            reported[key] = true;
+                        }
+                    }
+                    for (int key = 1; key <= KEY_RANGE; key++) {
+                        assertTrue(String.format(KEY_PATTERN, key), reported[key]);
+                    }
+                }
+            } finally {
+                iterating.set(false);
+            }
+        });
+        runConcurrently(tasks);
+    }
+}
@@ -0,0 +1,105 @@
+package com.company.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The same tests for {@link IntLongHashMapClockCache} large enough to never evict, and the tests of the eviction
+ * and of the counters.
+ */
+
+public class IntLongHashMapClockCacheTest extends IntLongHashMapTest {
+    private static final int MAXIMUM_SIZE = 1000;
+    private static final int QUANTITY = 100000;
+
+    private static final String KEY_PATTERN = "Key %d";
+
+    @Override
+    protected IntLongHashMap createIntLongHashMap() {
+        return new IntLongHashMapClockCache(1 << 16);
+    }
+
+    @Test(timeout = 5000)
+    public void boundedSizeTest() {
+        IntLongHashMapClockCache cache = new IntLongHashMapClockCache(MAXIMUM_SIZE, 0.9f, -1);
+
+        for (int key = 1; key <= QUANTITY; key++) {
+            cache.put(key, key);
+            assertEquals(String.format(KEY_PATTERN, key), Math.min(key, MAXIMUM_SIZE), cache.size());
+        }
+        assertEquals(QUANTITY - MAXIMUM_SIZE, cache.getEvictionCount());
+
+        // The survivors keep their values
+        long[] count = new long[1];
+        cache.forEach((key, value) -> {
+            assertEquals(String.format(KEY_PATTERN, key), key, value);
+            assertEquals(String.format(KEY_PATTERN, key), key, cache.get(key));
+            count[0]++;
+        });
+        assertEquals(MAXIMUM_SIZE, count[0]);
+    }
+
+    @Test(timeout = 5000)
+    public void secondChanceTest() {
+        IntLongHashMapClockCache cache = new IntLongHashMapClockCache(MAXIMUM_SIZE, 0.75f, -1);
+        for (int key = 1; key <= MAXIMUM_SIZE; key++) {
+            cache.put(key, key);
+        }
+
+        // The first eviction clears the reference bits of all the entries
+        cache.put(MAXIMUM_SIZE + 1, 1);
+
+        // The entries used after that are given a second chance: they survive while the hand evicts the other
+        // (unreferenced) old entries
+        int hot = 0;
+        for (int key = 1; key <= MAXIMUM_SIZE / 2; key++) {
+            if (cache.get(key) == key) {
+                hot++;
+            }
+        }
+        int unreferenced = MAXIMUM_SIZE - 1 - hot;
+        for (int key = MAXIMUM_SIZE + 2; key < MAXIMUM_SIZE + 1 + unreferenced; key++) {
+            cache.put(key, key);
+        }
+
+        int survivors = 0;
+        for (int key = 1; key <= MAXIMUM_SIZE / 2; key++) {
+            if (cache.containsKey(key)) {
+                survivors++;
+            }
+        }
+        assertEquals(hot, survivors);
+        assertEquals(MAXIMUM_SIZE, cache.size());
+    }
+
+    @Test(timeout = 5000)
+    public void countersTest() {
+        IntLongHashMapClockCache cache = new IntLongHashMapClockCache(2);
+        cache.put(1, 10);
+        cache.put(2, 20);
+
+        assertEquals(10, cache.get(1));
+        assertEquals(7, cache.getOrDefault(3, 7));
+        assertEquals(cache.getNoEntryValue(), cache.get(0));
+        assertTrue(cache.containsKey(2));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, cache.getEvictionCount());
+
+        cache.put(3, 30);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        cache.resetCounters();
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class, timeout = 5000)
+    public void illegalMaximumSizeTest() {
+        new IntLongHashMapClockCache(0);
+    }
+}
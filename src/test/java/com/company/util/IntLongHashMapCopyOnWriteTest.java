@@ -0,0 +1,111 @@
+package com.company.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The same tests for {@link IntLongHashMapCopyOnWrite}, and the tests of the snapshots.
+ */
+
+public class IntLongHashMapCopyOnWriteTest extends IntLongHashMapTest {
+    private static final int QUANTITY = 200000;
+    private static final int CHURN_QUANTITY = 100;
+
+    private static final String KEY_PATTERN = "Key %d";
+
+    @Override
+    protected IntLongHashMap createIntLongHashMap() {
+        return new IntLongHashMapCopyOnWrite(1);
+    }
+
+    private static void assertSameEntries(Map<Integer, Long> expected, IntLongHashMap actual) {
+        assertEquals(expected.size(), actual.size());
+        for (Map.Entry<Integer, Long> entry : expected.entrySet()) {
+            assertEquals(String.format(KEY_PATTERN, entry.getKey()), (long) entry.getValue(),
+                    actual.getOrDefault(entry.getKey(), -1));
+        }
+
+        long[] count = new long[1];
+        IntLongCursor cursor = actual.cursor();
+        while (cursor.advance()) {
+            assertEquals(String.format(KEY_PATTERN, cursor.key()), (long) expected.get(cursor.key()), cursor.value());
+            count[0]++;
+        }
+        assertEquals(expected.size(), count[0]);
+    }
+
+    @Test(timeout = 5000)
+    public void snapshotTest() {
+        IntLongHashMapCopyOnWrite map = new IntLongHashMapCopyOnWrite();
+        Map<Integer, Long> expected = new HashMap<>();
+        for (int key = 0; key < QUANTITY; key += 2) {
+            map.put(key, key);
+            expected.put(key, (long) key);
+        }
+
+        IntLongHashMap snapshot = map.snapshot();
+        Map<Integer, Long> expectedSnapshot = new HashMap<>(expected);
+
+        // Updates, removals (with backward shifts) and a growth of the map
+        for (int key = 0; key < QUANTITY; key += 4) {
+            map.addTo(key, 1);
+            expected.put(key, key + 1L);
+        }
+        for (int key = 2; key < QUANTITY; key += 8) {
+            map.remove(key);
+            expected.remove(key);
+        }
+        for (int key = 1; key < 2 * QUANTITY; key += 2) {
+            map.put(key, key);
+            expected.put(key, (long) key);
+        }
+
+        IntLongHashMap secondSnapshot = map.snapshot();
+        map.remove(0);
+        map.put(-1, -1);
+
+        assertSameEntries(expectedSnapshot, snapshot);
+        assertSameEntries(expected, secondSnapshot);
+        assertFalse(snapshot.containsKey(1));
+        assertTrue(secondSnapshot.containsKey(0));
+        assertFalse(secondSnapshot.containsKey(-1));
+    }
+
+    @Test(timeout = 5000)
+    public void copyOnWriteTest() {
+        IntLongHashMapCopyOnWrite map = new IntLongHashMapCopyOnWrite(4 * QUANTITY);
+        for (int key = 1; key <= QUANTITY; key++) {
+            map.put(key, key);
+        }
+
+        // A snapshot does not copy anything, and a few writes copy a few pages
+        IntLongHashMap snapshot = map.snapshot();
+        assertEquals(0, map.copiedPages());
+        for (int key = 1; key <= CHURN_QUANTITY; key++) {
+            map.put(key, -key);
+        }
+        assertTrue(map.copiedPages() <= CHURN_QUANTITY);
+
+        // Once copied, a page is written in place until the next snapshot
+        long copiedPages = map.copiedPages();
+        for (int key = 1; key <= CHURN_QUANTITY; key++) {
+            map.put(key, key);
+        }
+        assertEquals(copiedPages, map.copiedPages());
+
+        for (int key = 1; key <= QUANTITY; key++) {
+            assertEquals(String.format(KEY_PATTERN, key), key, snapshot.get(key));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class, timeout = 5000)
+    public void readOnlySnapshotTest() {
+        new IntLongHashMapCopyOnWrite().snapshot().put(1, 1);
+    }
+}
@@ -0,0 +1,153 @@
+package com.company.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The copies made by {@link IntLongHashMap#freeze()} should contain exactly the entries of the source maps, and
+ * should reject the modifications.
+ */
+
+public class IntLongHashMapFrozenTest {
+    private static final int QUANTITY = 100000;
+    private static final long NO_ENTRY_VALUE = -1L;
+
+    private static final String KEY_PATTERN = "Key %d";
+
+    private static void assertSameEntries(IntLongHashMap expected, IntLongHashMap actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getNoEntryValue(), actual.getNoEntryValue());
+        expected.forEach((key, value) -> {
+            assertTrue(String.format(KEY_PATTERN, key), actual.containsKey(key));
+            assertEquals(String.format(KEY_PATTERN, key), value, actual.get(key));
+        });
+
+        long[] count = new long[1];
+        actual.forEach((key, value) -> {
+            assertEquals(String.format(KEY_PATTERN, key), expected.get(key), value);
+            count[0]++;
+        });
+        assertEquals(expected.size(), count[0]);
+    }
+
+    @Test(timeout = 5000)
+    public void freezeTest() {
+        IntLongHashMap map = new IntLongHashMapOpenAddr(16, 0.75f, 2.0f, NO_ENTRY_VALUE, IntHashStrategy.MURMUR3,
+                true);
+        Random random = new Random(1);
+        for (int i = 0; i < QUANTITY; i++) {
+            map.put(random.nextInt(), random.nextLong());
+        }
+        for (int key = 1; key <= QUANTITY; key++) {
+            map.put(key, key);
+        }
+        map.put(0, 42);
+
+        IntLongHashMap frozen = map.freeze();
+        assertSameEntries(map, frozen);
+        assertSame(frozen, frozen.freeze());
+
+        // Misses, and the copy is independent of the source
+        map.remove(0);
+        map.put(-1, 1);
+        for (int key = QUANTITY + 1; key <= 2 * QUANTITY; key++) {
+            if (!map.containsKey(key)) {
+                assertFalse(String.format(KEY_PATTERN, key), frozen.containsKey(key));
+                assertEquals(String.format(KEY_PATTERN, key), NO_ENTRY_VALUE, frozen.get(key));
+                assertEquals(String.format(KEY_PATTERN, key), 7, frozen.getOrDefault(key, 7));
+            }
+        }
+        assertEquals(42, frozen.get(0));
+    }
+
+    @Test(timeout = 5000)
+    public void smallMapsTest() {
+        IntLongHashMap map = new IntLongHashMapOpenAddr();
+        assertSameEntries(map, map.freeze());
+        assertFalse(map.freeze().containsKey(0));
+        assertFalse(map.freeze().containsKey(1));
+
+        map.put(0, 1);
+        assertSameEntries(map, map.freeze());
+
+        for (int key = 1; key <= 10; key++) {
+            map.put(key * 1000, key);
+            assertSameEntries(map, map.freeze());
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class, timeout = 5000)
+    public void immutabilityTest() {
+        IntLongHashMap map = new IntLongHashMapOpenAddr();
+        map.put(1, 1);
+
+        map.freeze().put(1, 2);
+    }
+
+    @Test(timeout = 5000)
+    public void inexactSizeTest() {
+        // The size of a huge or concurrent map is not the number of its entries
+        IntLongHashMap map = new IntLongHashMapOpenAddr() {
+            @Override
+            public int size() {
+                return 1;
+            }
+        };
+        for (int key = 0; key < QUANTITY; key++) {
+            map.put(key, key);
+        }
+
+        IntLongHashMap frozen = map.freeze();
+        assertEquals(QUANTITY, frozen.size());
+        for (int key = 0; key < QUANTITY; key++) {
+            assertEquals(String.format(KEY_PATTERN, key), key, frozen.get(key));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class, timeout = 5000)
+    public void duplicateKeyTest() {
+        // The cursor of a concurrent map can report a key which is removed and put back twice
+        IntLongHashMap map = new IntLongHashMapOpenAddr() {
+            @Override
+            public IntLongCursor cursor() {
+                IntLongCursor cursor = super.cursor();
+                return new IntLongCursor() {
+                    private boolean repeated;
+
+                    @Override
+                    public boolean advance() {
+                        boolean result = repeated || cursor.advance();
+                        repeated = !repeated && result;
+                        return result;
+                    }
+
+                    @Override
+                    public int key() {
+                        return cursor.key();
+                    }
+
+                    @Override
+                    public long value() {
+                        return cursor.value();
+                    }
+
+                    @Override
+                    public void reset() {
+                        cursor.reset();
+                        repeated = false;
+                    }
+                };
+            }
+        };
+        map.put(1, 1);
+        map.put(2, 2);
+
+        map.freeze();
+    }
+}
@@ -0,0 +1,13 @@
+package com.company.util;
+
+/**
+ * The same tests for {@link IntLongHashMapIncremental}. The small initial capacity makes the migration to be
+ * in progress for the most of the test.
+ */
+
+public class IntLongHashMapIncrementalTest extends IntLongHashMapTest {
+    @Override
+    protected IntLongHashMap createIntLongHashMap() {
+        return new IntLongHashMapIncremental(1);
+    }
+}
@@ -0,0 +1,12 @@
+package com.company.util;
+
+/**
+ * The same tests for {@link IntLongHashMapInterleaved}.
+ */
+
+public class IntLongHashMapInterleavedTest extends IntLongHashMapTest {
+    @Override
+    protected IntLongHashMap createIntLongHashMap() {
+        return new IntLongHashMapInterleaved(1);
+    }
+}
@@ -0,0 +1,171 @@
+package com.company.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The same tests for {@link IntLongHashMapOffHeap} in direct memory, and the tests of the file-backed map.
+ */
+
+public class IntLongHashMapOffHeapTest extends IntLongHashMapTest {
+    private static final int FILE_MAP_SIZE = 100000;
+    private static final long NO_ENTRY_VALUE = -1L;
+
+    // The offsets of the fields of the file header
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int SIZE_OFFSET = 16;
+    private static final int LOAD_FACTOR_OFFSET = 40;
+
+    private static final String KEY_PATTERN = "Key %d";
+    private static final String ILLEGAL_HEADER_PATTERN = "Header field at %d: %s";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Override
+    protected IntLongHashMap createIntLongHashMap() {
+        return new IntLongHashMapOffHeap(1);
+    }
+
+    @Test(timeout = 5000)
+    public void fileRoundTripTest() throws IOException {
+        Path file = folder.newFile().toPath();
+
+        try (IntLongHashMapOffHeap map = IntLongHashMapOffHeap.create(file, FILE_MAP_SIZE, 0.75f, NO_ENTRY_VALUE)) {
+            for (int key = 0; key < FILE_MAP_SIZE; key++) {
+                map.put(key, key * 3L);
+            }
+            for (int key = 0; key < FILE_MAP_SIZE; key += 2) {
+                map.remove(key);
+            }
+        }
+
+        try (IntLongHashMapOffHeap map = IntLongHashMapOffHeap.open(file, false)) {
+            assertEquals(FILE_MAP_SIZE / 2, map.size());
+            assertEquals(NO_ENTRY_VALUE, map.getNoEntryValue());
+            for (int key = 0; key < FILE_MAP_SIZE; key++) {
+                if (key % 2 == 0) {
+                    assertFalse(String.format(KEY_PATTERN, key), map.containsKey(key));
+                } else {
+                    assertEquals(String.format(KEY_PATTERN, key), key * 3L, map.get(key));
+                }
+            }
+
+            long[] sum = new long[1];
+            map.forEach((key, value) -> sum[0] += value - key * 3L);
+            assertEquals(0, sum[0]);
+        }
+
+        try (IntLongHashMapOffHeap map = IntLongHashMapOffHeap.open(file, true)) {
+            map.put(0, 42);
+            assertEquals(NO_ENTRY_VALUE, map.get(2));
+        }
+
+        try (IntLongHashMapOffHeap map = IntLongHashMapOffHeap.open(file, false)) {
+            assertTrue(map.containsKey(0));
+            assertEquals(42, map.get(0));
+            assertEquals(FILE_MAP_SIZE / 2 + 1, map.size());
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class, timeout = 5000)
+    public void readOnlyTest() throws IOException {
+        Path file = folder.newFile().toPath();
+        IntLongHashMapOffHeap.create(file, 1, 0.75f, NO_ENTRY_VALUE).close();
+
+        try (IntLongHashMapOffHeap map = IntLongHashMapOffHeap.open(file, false)) {
+            map.put(1, 1);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class, timeout = 5000)
+    public void fullFileMapTest() throws IOException {
+        Path file = folder.newFile().toPath();
+
+        try (IntLongHashMapOffHeap map = IntLongHashMapOffHeap.create(file, 10, 0.75f, NO_ENTRY_VALUE)) {
+            for (int key = 1; key <= FILE_MAP_SIZE; key++) {
+                map.put(key, key);
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class, timeout = 5000)
+    public void closedMapTest() {
+        IntLongHashMapOffHeap map = new IntLongHashMapOffHeap();
+        map.put(1, 1);
+        map.close();
+
+        map.get(1);
+    }
+
+    @Test(expected = IllegalStateException.class, timeout = 5000)
+    public void closedMapSizeTest() {
+        IntLongHashMapOffHeap map = new IntLongHashMapOffHeap();
+        map.close();
+
+        map.size();
+    }
+
+    @Test(expected = IllegalStateException.class, timeout = 5000)
+    public void closedMapNoEntryValueTest() {
+        IntLongHashMapOffHeap map = new IntLongHashMapOffHeap();
+        map.close();
+
+        map.getNoEntryValue();
+    }
+
+    @Test(expected = IllegalArgumentException.class, timeout = 5000)
+    public void illegalFileTest() throws IOException {
+        IntLongHashMapOffHeap.open(folder.newFile().toPath(), false);
+    }
+
+    @Test(timeout = 5000)
+    public void illegalHeaderTest() throws IOException {
+        Path file = folder.newFile().toPath();
+        try (IntLongHashMapOffHeap map = IntLongHashMapOffHeap.create(file, 100, 0.75f, NO_ENTRY_VALUE)) {
+            map.put(1, 1);
+        }
+
+        // The table of 256 slots fits the file, the broken fields describe illegal tables
+        checkIllegalHeader(file, CAPACITY_OFFSET, -256);
+        checkIllegalHeader(file, CAPACITY_OFFSET, 0);
+        checkIllegalHeader(file, CAPACITY_OFFSET, 100);
+        checkIllegalHeader(file, SIZE_OFFSET, -1);
+        checkIllegalHeader(file, SIZE_OFFSET, 256);
+        checkIllegalHeader(file, LOAD_FACTOR_OFFSET, Float.floatToIntBits(0.0f));
+        checkIllegalHeader(file, LOAD_FACTOR_OFFSET, Float.floatToIntBits(1.5f));
+        checkIllegalHeader(file, LOAD_FACTOR_OFFSET, Float.floatToIntBits(Float.NaN));
+    }
+
+    // Opens a copy of the file with the given int written at the given offset of the header
+    private void checkIllegalHeader(Path file, int offset, int value) throws IOException {
+        Path copy = folder.newFile().toPath();
+        Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+        try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, value);
+            channel.write(buffer, offset);
+        }
+
+        try (IntLongHashMapOffHeap ignored = IntLongHashMapOffHeap.open(copy, false)) {
+            fail(String.format(ILLEGAL_HEADER_PATTERN, offset, value));
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+}
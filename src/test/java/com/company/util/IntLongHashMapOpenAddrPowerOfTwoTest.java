@@ -0,0 +1,12 @@
+package com.company.util;
+
+/**
+ * The same tests for {@link IntLongHashMapOpenAddr} with power-of-two capacity and Murmur3 hash strategy.
+ */
+
+public class IntLongHashMapOpenAddrPowerOfTwoTest extends IntLongHashMapTest {
+    @Override
+    protected IntLongHashMap createIntLongHashMap() {
+        return new IntLongHashMapOpenAddr(10, 0.75f, 1.5f, Long.MIN_VALUE, IntHashStrategy.MURMUR3, true);
+    }
+}
@@ -0,0 +1,72 @@
+package com.company.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+/**
+ * The same tests for {@link IntLongHashMapRobinHood} with a high load factor, and the tests of the probe distances
+ * which can not be stored at the maximum capacity.
+ */
+
+public class IntLongHashMapRobinHoodTest extends IntLongHashMapTest {
+    // All the keys have the same home slot, so the probe distance grows by one with every key
+    private static final IntHashStrategy SAME_SLOT = key -> 0;
+    // The largest probe distance which is stored, plus one for the home slot
+    private static final int FITTING_KEYS = 127;
+
+    private static final String KEY_PATTERN = "Key %d";
+
+    @Override
+    protected IntLongHashMap createIntLongHashMap() {
+        return new IntLongHashMapRobinHood(1, 0.95f);
+    }
+
+    @Test(timeout = 5000)
+    public void probeDistanceAtMaximumCapacityTest() {
+        IntLongHashMapRobinHood map = new IntLongHashMapRobinHood(256, 1.0f, -1, SAME_SLOT, 256);
+        for (int key = 1; key <= FITTING_KEYS; key++) {
+            map.put(key, key);
+        }
+
+        try {
+            map.put(FITTING_KEYS + 1, 0);
+            fail();
+        } catch (IllegalStateException e) {
+            // The key which does not fit is not put, the map is not modified
+            assertEquals(FITTING_KEYS, map.size());
+            assertFalse(map.containsKey(FITTING_KEYS + 1));
+            for (int key = 1; key <= FITTING_KEYS; key++) {
+                assertEquals(String.format(KEY_PATTERN, key), key, map.get(key));
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class, timeout = 5000)
+    public void probeDistanceGrowthTest() {
+        // The table grows up to the maximum capacity, which does not help the keys of the same home slot
+        IntLongHashMapRobinHood map = new IntLongHashMapRobinHood(16, 1.0f, -1, SAME_SLOT, 1024);
+        for (int key = 1; key <= FITTING_KEYS + 1; key++) {
+            map.put(key, key);
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void fullAtMaximumCapacityTest() {
+        IntLongHashMapRobinHood map = new IntLongHashMapRobinHood(16, 1.0f, -1, IntHashStrategy.MURMUR3, 16);
+        // One slot is always kept empty
+        for (int key = 1; key <= 15; key++) {
+            map.put(key, key);
+        }
+
+        try {
+            map.put(16, 16);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals(15, map.size());
+            assertFalse(map.containsKey(16));
+        }
+    }
+}
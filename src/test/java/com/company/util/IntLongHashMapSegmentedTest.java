@@ -0,0 +1,92 @@
+package com.company.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The same tests for {@link IntLongHashMapSegmented}, and the tests of the growth of the segments and of the
+ * long-sized capacity.
+ */
+
+public class IntLongHashMapSegmentedTest extends IntLongHashMapTest {
+    private static final int QUANTITY = 300000;
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_SHIFT = Integer.SIZE - SEGMENT_BITS;
+
+    private static final String KEY_PATTERN = "Key %d";
+    private static final String TOP_BITS_PATTERN = "Top bits %d";
+
+    @Override
+    protected IntLongHashMap createIntLongHashMap() {
+        return new IntLongHashMapSegmented(1);
+    }
+
+    @Test(timeout = 5000)
+    public void growthTest() {
+        IntLongHashMapSegmented map = new IntLongHashMapSegmented(1, 0.9f, -1);
+
+        // Every segment grows many times from the minimal capacity
+        for (int key = -QUANTITY; key <= QUANTITY; key++) {
+            map.put(key, key);
+        }
+        assertEquals(2 * QUANTITY + 1, map.longSize());
+        assertEquals(2 * QUANTITY + 1, map.size());
+
+        for (int key = -QUANTITY; key <= QUANTITY; key += 2) {
+            assertEquals(String.format(KEY_PATTERN, key), key, map.remove(key));
+        }
+        assertEquals(QUANTITY, map.longSize());
+        for (int key = -QUANTITY; key <= QUANTITY; key++) {
+            if ((key & 1) == 0) {
+                assertFalse(String.format(KEY_PATTERN, key), map.containsKey(key));
+                assertEquals(String.format(KEY_PATTERN, key), -1, map.get(key));
+            } else {
+                assertEquals(String.format(KEY_PATTERN, key), key, map.get(key));
+            }
+        }
+
+        long[] count = new long[1];
+        map.forEach((key, value) -> {
+            assertEquals(String.format(KEY_PATTERN, key), key, value);
+            count[0]++;
+        });
+        assertEquals(map.longSize(), count[0]);
+    }
+
+    @Test(timeout = 5000)
+    public void saturatedSizeTest() {
+        assertEquals(0, IntLongHashMapSegmented.saturatedSize(0));
+        assertEquals(Integer.MAX_VALUE - 1, IntLongHashMapSegmented.saturatedSize(Integer.MAX_VALUE - 1L));
+        assertEquals(Integer.MAX_VALUE, IntLongHashMapSegmented.saturatedSize(Integer.MAX_VALUE));
+        assertEquals(Integer.MAX_VALUE, IntLongHashMapSegmented.saturatedSize(Integer.MAX_VALUE + 1L));
+        assertEquals(Integer.MAX_VALUE, IntLongHashMapSegmented.saturatedSize(1L << 32));
+    }
+
+    @Test(timeout = 5000)
+    public void segmentSlotsSpreadTest() {
+        // The keys of one segment in the largest segment: the top bits of their home slots should take all the
+        // values, not only the ones left by the bits which chose the segment
+        int mask = LinearProbing.MAXIMUM_CAPACITY - 1;
+        int topShift = Integer.numberOfTrailingZeros(LinearProbing.MAXIMUM_CAPACITY) - SEGMENT_BITS;
+        boolean[] topBits = new boolean[SEGMENT_COUNT];
+        for (int key = 1; key <= QUANTITY; key++) {
+            if (IntHashStrategy.fmix32(key) >>> SEGMENT_SHIFT == 0) {
+                int home = IntLongHashMapSegmented.SEGMENT_HASH_STRATEGY.hash(key) & mask;
+                topBits[home >>> topShift] = true;
+            }
+        }
+
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            assertTrue(String.format(TOP_BITS_PATTERN, i), topBits[i]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class, timeout = 5000)
+    public void tooLargeCapacityTest() {
+        new IntLongHashMapSegmented((1L << 36) + 1);
+    }
+}
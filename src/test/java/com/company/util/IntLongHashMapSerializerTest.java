@@ -0,0 +1,176 @@
+package com.company.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Round trips of the maps through both formats of {@link IntLongHashMapSerializer}, and the rejection of the data
+ * which is not a map.
+ */
+
+public class IntLongHashMapSerializerTest {
+    private static final int QUANTITY = 100000;
+    private static final long NO_ENTRY_VALUE = -1L;
+
+    private static final String KEY_PATTERN = "Key %d";
+
+    private static void fill(IntLongHashMap map, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < QUANTITY; i++) {
+            map.put(random.nextInt(), random.nextLong());
+        }
+        map.put(0, 42);
+    }
+
+    private static void assertSameEntries(IntLongHashMap expected, IntLongHashMap actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getNoEntryValue(), actual.getNoEntryValue());
+        expected.forEach((key, value) -> {
+            assertTrue(String.format(KEY_PATTERN, key), actual.containsKey(key));
+            assertEquals(String.format(KEY_PATTERN, key), value, actual.get(key));
+        });
+    }
+
+    private static ReadableByteChannel channelOf(byte[] bytes) {
+        return Channels.newChannel(new ByteArrayInputStream(bytes));
+    }
+
+    @Test(timeout = 5000)
+    public void rawRoundTripTest() throws IOException {
+        IntLongHashMapOpenAddr identity = new IntLongHashMapOpenAddr(16, 0.75f, 2.0f, NO_ENTRY_VALUE);
+        IntLongHashMapOpenAddr murmur3 = new IntLongHashMapOpenAddr(16, 0.5f, 2.0f, NO_ENTRY_VALUE,
+                IntHashStrategy.MURMUR3, true);
+        fill(identity, 1);
+        fill(murmur3, 2);
+
+        // Two maps one after another in the same stream
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(bytes);
+        IntLongHashMapSerializer.writeRaw(identity, channel);
+        IntLongHashMapSerializer.writeRaw(murmur3, channel);
+
+        ReadableByteChannel input = channelOf(bytes.toByteArray());
+        IntLongHashMapOpenAddr identityCopy = IntLongHashMapSerializer.read(input);
+        IntLongHashMapOpenAddr murmur3Copy = IntLongHashMapSerializer.read(input);
+        assertSameEntries(identity, identityCopy);
+        assertSameEntries(murmur3, murmur3Copy);
+        assertEquals(identity.getStats().getCapacity(), identityCopy.getStats().getCapacity());
+
+        // The copy is a usable map
+        murmur3Copy.remove(0);
+        for (int key = 1; key <= QUANTITY; key++) {
+            murmur3Copy.put(key, key);
+        }
+        for (int key = 1; key <= QUANTITY; key++) {
+            assertEquals(String.format(KEY_PATTERN, key), key, murmur3Copy.get(key));
+        }
+        assertEquals(NO_ENTRY_VALUE, murmur3Copy.get(0));
+    }
+
+    @Test(timeout = 5000)
+    public void compactRoundTripTest() throws IOException {
+        IntLongHashMapOpenAddr openAddr = new IntLongHashMapOpenAddr(16, 0.75f, 2.0f, NO_ENTRY_VALUE);
+        IntLongHashMapSwiss swiss = new IntLongHashMapSwiss();
+        IntLongHashMapOpenAddr dense = new IntLongHashMapOpenAddr(16, 0.75f, 2.0f, NO_ENTRY_VALUE,
+                IntHashStrategy.MURMUR3, true);
+        fill(openAddr, 3);
+        fill(swiss, 4);
+        for (int key = -QUANTITY; key < QUANTITY; key++) {
+            dense.put(key, Math.abs(key % 50));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(bytes);
+        IntLongHashMapSerializer.writeCompact(openAddr, channel);
+        IntLongHashMapSerializer.writeCompact(swiss, channel);
+        int before = bytes.size();
+        IntLongHashMapSerializer.writeCompact(dense, channel);
+
+        // Dense keys and small values take 2 bytes per entry (and 64 bytes of the header)
+        assertTrue(bytes.size() - before < 3 * dense.size());
+
+        ReadableByteChannel input = channelOf(bytes.toByteArray());
+        assertSameEntries(openAddr, IntLongHashMapSerializer.read(input));
+        assertSameEntries(swiss, IntLongHashMapSerializer.read(input));
+        assertSameEntries(dense, IntLongHashMapSerializer.read(input));
+    }
+
+    @Test(timeout = 5000)
+    public void customHashStrategyTest() throws IOException {
+        IntHashStrategy seeded = IntHashStrategy.seeded(12345);
+        IntLongHashMapOpenAddr map = new IntLongHashMapOpenAddr(16, 0.75f, 2.0f, NO_ENTRY_VALUE, seeded, true);
+        fill(map, 5);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        IntLongHashMapSerializer.writeRaw(map, Channels.newChannel(bytes));
+
+        assertSameEntries(map, IntLongHashMapSerializer.read(channelOf(bytes.toByteArray()), seeded));
+        try {
+            IntLongHashMapSerializer.read(channelOf(bytes.toByteArray()));
+            throw new AssertionError("The custom hash strategy is required");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test(expected = EOFException.class, timeout = 5000)
+    public void truncatedMapTest() throws IOException {
+        IntLongHashMapOpenAddr map = new IntLongHashMapOpenAddr();
+        fill(map, 6);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        IntLongHashMapSerializer.writeRaw(map, Channels.newChannel(bytes));
+
+        IntLongHashMapSerializer.read(channelOf(Arrays.copyOf(bytes.toByteArray(), bytes.size() - 1)));
+    }
+
+    // The compact form of the map of the keys 5 and 6 with the values 0: the body ends with the difference of the
+    // second key (1) and its value (0)
+    private static byte[] compactBytes() throws IOException {
+        IntLongHashMapOpenAddr map = new IntLongHashMapOpenAddr();
+        map.put(5, 0);
+        map.put(6, 0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        IntLongHashMapSerializer.writeCompact(map, Channels.newChannel(bytes));
+
+        return bytes.toByteArray();
+    }
+
+    @Test(expected = IllegalArgumentException.class, timeout = 5000)
+    public void compactDuplicateKeyTest() throws IOException {
+        byte[] bytes = compactBytes();
+        bytes[bytes.length - 2] = 0;
+
+        IntLongHashMapSerializer.read(channelOf(bytes));
+    }
+
+    @Test(expected = IllegalArgumentException.class, timeout = 5000)
+    public void compactTooLargeSizeTest() throws IOException {
+        // The table for the size would take gigabytes, it should not be allocated for a body of a few bytes
+        byte[] bytes = compactBytes();
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(IntLongHashMapSerializer.SIZE_OFFSET,
+                Integer.MAX_VALUE);
+
+        IntLongHashMapSerializer.read(channelOf(bytes));
+    }
+
+    @Test(expected = IllegalArgumentException.class, timeout = 5000)
+    public void illegalFormatTest() throws IOException {
+        IntLongHashMapSerializer.read(channelOf(new byte[128]));
+    }
+}
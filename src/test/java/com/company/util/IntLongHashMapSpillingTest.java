@@ -0,0 +1,147 @@
+package com.company.util;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The same tests for {@link IntLongHashMapSpilling} with a small heap budget (so most of the partitions are spilled),
+ * and the tests of the spilling and the loading back of the partitions.
+ */
+
+public class IntLongHashMapSpillingTest extends IntLongHashMapTest {
+    private static final long SMALL_HEAP_BUDGET = 16 * 1024;
+    private static final long HEAP_BUDGET = 1024 * 1024;
+    private static final int QUANTITY = 500000;
+    private static final int HOT_ACCESS_QUANTITY = 1 << 18;
+    private static final int PARTITION_BITS = 6;
+    private static final int PARTITION_SHIFT = Integer.SIZE - PARTITION_BITS;
+
+    private static final String KEY_PATTERN = "Key %d";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private IntLongHashMapSpilling map;
+
+    @Override
+    protected IntLongHashMap createIntLongHashMap() {
+        map = new IntLongHashMapSpilling(folder.getRoot().toPath(), SMALL_HEAP_BUDGET);
+
+        return map;
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        map.close();
+    }
+
+    private static int partitionFor(int key) {
+        return IntHashStrategy.fmix32(key) >>> PARTITION_SHIFT;
+    }
+
+    @Test(timeout = 5000)
+    public void spillTest() throws IOException {
+        map.close();
+        map = new IntLongHashMapSpilling(folder.getRoot().toPath(), HEAP_BUDGET, 0.75f, -1);
+
+        for (int key = 1; key <= QUANTITY; key++) {
+            map.put(key, key);
+            assertTrue(String.format(KEY_PATTERN, key), map.getHeapBytes() <= HEAP_BUDGET);
+        }
+        assertEquals(QUANTITY, map.size());
+        assertEquals(QUANTITY, map.longSize());
+        assertTrue(map.getSpilledPartitionCount() > 0);
+        for (int key = 1; key <= QUANTITY; key += 2) {
+            assertEquals(String.format(KEY_PATTERN, key), key, map.remove(key));
+        }
+        for (int key = 1; key <= QUANTITY; key++) {
+            assertEquals(String.format(KEY_PATTERN, key), (key % 2 == 0) ? key : -1, map.get(key));
+        }
+
+        long[] count = new long[1];
+        map.forEach((key, value) -> {
+            assertEquals(String.format(KEY_PATTERN, key), key, value);
+            count[0]++;
+        });
+        assertEquals(QUANTITY / 2, count[0]);
+
+        // The files of the spilled partitions are deleted on closing
+        map.close();
+        File[] files = folder.getRoot().listFiles();
+        assertEquals(0, files.length);
+        assertEquals(0, map.size());
+    }
+
+    @Test(timeout = 5000)
+    public void loadHotPartitionTest() throws IOException {
+        map.close();
+        map = new IntLongHashMapSpilling(folder.getRoot().toPath(), HEAP_BUDGET, 0.75f, -1);
+        for (int key = 1; key <= QUANTITY; key++) {
+            map.put(key, key);
+        }
+
+        int hotKey = 1;
+        while (!map.isSpilled(partitionFor(hotKey))) {
+            hotKey++;
+        }
+        int hotPartition = partitionFor(hotKey);
+
+        // The keys of a single spilled partition are read again and again, so it is loaded back to the heap
+        int key = 1;
+        for (int i = 0; i < HOT_ACCESS_QUANTITY; i++) {
+            do {
+                key = (key == QUANTITY) ? 1 : key + 1;
+            } while (partitionFor(key) != hotPartition);
+            assertEquals(String.format(KEY_PATTERN, key), key, map.get(key));
+        }
+
+        assertFalse(map.isSpilled(hotPartition));
+        assertTrue(map.getHeapBytes() <= HEAP_BUDGET);
+        assertEquals(QUANTITY, map.size());
+    }
+
+    @Test(timeout = 5000)
+    public void tooBigHotPartitionTest() throws IOException {
+        map.close();
+        map = new IntLongHashMapSpilling(folder.getRoot().toPath(), HEAP_BUDGET, 0.75f, -1);
+        for (int key = 1; key <= QUANTITY; key++) {
+            map.put(key, key);
+        }
+
+        int hotKey = 1;
+        while (!map.isSpilled(partitionFor(hotKey))) {
+            hotKey++;
+        }
+        int hotPartition = partitionFor(hotKey);
+
+        // The hot partition grows to several times the size of the others, so it does not fit the budget even if
+        // the coldest partition is spilled: the partitions on the heap should stay there
+        for (int key = QUANTITY + 1, added = 0; added < 3 * (QUANTITY >>> PARTITION_BITS); key++) {
+            if (partitionFor(key) == hotPartition) {
+                map.put(key, key);
+                added++;
+            }
+        }
+        int spilledPartitionCount = map.getSpilledPartitionCount();
+
+        int key = 1;
+        for (int i = 0; i < HOT_ACCESS_QUANTITY; i++) {
+            do {
+                key = (key == QUANTITY) ? 1 : key + 1;
+            } while (partitionFor(key) != hotPartition);
+            assertEquals(String.format(KEY_PATTERN, key), key, map.get(key));
+        }
+
+        assertTrue(map.isSpilled(hotPartition));
+        assertEquals(spilledPartitionCount, map.getSpilledPartitionCount());
+    }
+}
@@ -0,0 +1,171 @@
+package com.company.util;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The tests of the statistics of the maps which collect them and of their JMX publication.
+ */
+
+public class IntLongHashMapStatsTest {
+    private static final int KEY_QUANTITY = 1000;
+
+    @Test
+    public void disabledStatsTest() {
+        IntLongHashMapOpenAddr map = new IntLongHashMapOpenAddr(10);
+        for (int key = 1; key <= KEY_QUANTITY; key++) {
+            map.put(key, key);
+            map.get(key);
+        }
+
+        // The counters are not collected, the calculated values are
+        IntLongHashMapStats stats = map.getStats();
+        assertArrayEquals(new long[StatsRecorder.HISTOGRAM_SIZE], stats.getHitProbeLengths());
+        assertArrayEquals(new long[StatsRecorder.HISTOGRAM_SIZE], stats.getMissProbeLengths());
+        assertEquals(0, stats.getResizeCount());
+        assertEquals(KEY_QUANTITY, stats.getSize());
+        assertEquals((double) KEY_QUANTITY / stats.getCapacity(), stats.getLoad(), 0.0);
+        assertEquals(2 * StatsRecorder.ARRAY_HEADER_BYTES + 12L * stats.getCapacity(), stats.getMemoryBytes());
+    }
+
+    @Test
+    public void enabledStatsTest() {
+        IntLongHashMapOpenAddr map = new IntLongHashMapOpenAddr(10);
+        map.setStatsEnabled(true);
+        for (int key = 1; key <= KEY_QUANTITY; key++) {
+            map.put(key, key);
+        }
+        for (int key = 1; key <= KEY_QUANTITY; key++) {
+            map.get(key);
+            map.containsKey(-key);
+        }
+
+        IntLongHashMapStats stats = map.getStats();
+        assertEquals(KEY_QUANTITY, Arrays.stream(stats.getHitProbeLengths()).sum());
+        assertEquals(KEY_QUANTITY, Arrays.stream(stats.getMissProbeLengths()).sum());
+        assertTrue(stats.getResizeCount() > 0);
+        assertTrue(stats.getResizeTimeNanos() > 0);
+        assertTrue(stats.getMaxClusterLength() > 0);
+
+        // Sequential keys with the identity hash code are put to their own slots
+        assertEquals(KEY_QUANTITY, stats.getHitProbeLengths()[0]);
+
+        map.setStatsEnabled(false);
+        assertEquals(0, map.getStats().getResizeCount());
+    }
+
+    @Test
+    public void otherMapsStatsTest() {
+        IntLongHashMapInterleaved interleaved = new IntLongHashMapInterleaved(10);
+        interleaved.setStatsEnabled(true);
+        assertLookupsRecorded(interleaved, true);
+
+        IntLongHashMapCopyOnWrite copyOnWrite = new IntLongHashMapCopyOnWrite(10);
+        copyOnWrite.setStatsEnabled(true);
+        assertLookupsRecorded(copyOnWrite, true);
+
+        IntLongHashMapSegmented segmented = new IntLongHashMapSegmented(10);
+        segmented.setStatsEnabled(true);
+        assertLookupsRecorded(segmented, true);
+
+        // The table of the cache is never rebuilt
+        IntLongHashMapClockCache clockCache = new IntLongHashMapClockCache(KEY_QUANTITY);
+        clockCache.setStatsEnabled(true);
+        assertLookupsRecorded(clockCache, false);
+
+        try (IntLongHashMapOffHeap offHeap = new IntLongHashMapOffHeap(10)) {
+            offHeap.setStatsEnabled(true);
+            assertLookupsRecorded(offHeap, true);
+            assertEquals(16L * offHeap.getStats().getCapacity(), offHeap.getStats().getMemoryBytes());
+        }
+    }
+
+    // Every key is looked up once and missed once
+    private static void assertLookupsRecorded(IntLongHashMap map, boolean grows) {
+        for (int key = 1; key <= KEY_QUANTITY; key++) {
+            map.put(key, key);
+        }
+        for (int key = 1; key <= KEY_QUANTITY; key++) {
+            map.get(key);
+            map.containsKey(-key);
+        }
+
+        IntLongHashMapStats stats = map.getStats();
+        assertEquals(KEY_QUANTITY, Arrays.stream(stats.getHitProbeLengths()).sum());
+        assertEquals(KEY_QUANTITY, Arrays.stream(stats.getMissProbeLengths()).sum());
+        assertEquals(grows, stats.getResizeCount() > 0);
+        assertTrue(stats.getMaxClusterLength() > 0);
+        assertEquals(KEY_QUANTITY, stats.getSize());
+        assertTrue(stats.getCapacity() > KEY_QUANTITY);
+        assertTrue(stats.getMemoryBytes() > 12L * KEY_QUANTITY);
+    }
+
+    @Test
+    public void maxClusterLengthTest() {
+        assertEquals(0, StatsRecorder.maxClusterLength(new int[4]));
+        assertEquals(2, StatsRecorder.maxClusterLength(new int[]{0, 1, 1, 0, 1}));
+        // The cluster wraps around the end of the table
+        assertEquals(3, StatsRecorder.maxClusterLength(new int[]{1, 0, 1, 0, 1, 1}));
+        assertEquals(3, StatsRecorder.maxClusterLength(new int[]{1, 1, 1}));
+    }
+
+    @Test
+    public void unsupportedStatsTest() {
+        assertNull(new ConcurrentIntLongHashMap().getStats());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void jmxUnsupportedMapTest() throws Exception {
+        IntLongHashMapStats.register("jmxUnsupportedMapTest", new ConcurrentIntLongHashMap());
+    }
+
+    @Test
+    public void jmxOtherMapTest() throws Exception {
+        IntLongHashMapSegmented map = new IntLongHashMapSegmented();
+        map.put(1, 1);
+
+        ObjectName name = IntLongHashMapStats.register("jmxOtherMapTest", map);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(1, server.getAttribute(name, "Size"));
+            map.setStatsEnabled(true);
+            map.get(1);
+            assertEquals(1L, Arrays.stream((long[]) server.getAttribute(name, "HitProbeLengths")).sum());
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Test
+    public void jmxTest() throws Exception {
+        IntLongHashMapOpenAddr map = new IntLongHashMapOpenAddr();
+        map.put(1, 1);
+
+        ObjectName name = IntLongHashMapStats.register("jmxTest", map);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(1, server.getAttribute(name, "Size"));
+            map.put(2, 2);
+            assertEquals(2, server.getAttribute(name, "Size"));
+
+            // The counters are read from the map as they are at the moment
+            assertEquals(0L, server.getAttribute(name, "ResizeCount"));
+            map.setStatsEnabled(true);
+            map.get(1);
+            assertEquals(1L, ((long[]) server.getAttribute(name, "HitProbeLengths"))[0]);
+            assertEquals(map.getStats().getMaxClusterLength(), server.getAttribute(name, "MaxClusterLength"));
+            assertEquals(map.getStats().getMemoryBytes(), server.getAttribute(name, "MemoryBytes"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.company.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * The same tests for {@link IntLongHashMapSwiss} with the default (high) load factor, and the test of the "deleted"
+ * marks.
+ */
+
+public class IntLongHashMapSwissTest extends IntLongHashMapTest {
+    private static final int WINDOW = 1000;
+    private static final int CHURN_QUANTITY = 200000;
+
+    private static final String KEY_PATTERN = "Key %d";
+
+    @Override
+    protected IntLongHashMap createIntLongHashMap() {
+        return new IntLongHashMapSwiss(1);
+    }
+
+    @Test(timeout = 5000)
+    public void churnTest() {
+        IntLongHashMapSwiss map = new IntLongHashMapSwiss(1);
+
+        // A sliding window of keys: every key is removed soon after its insertion, so the table is filled with
+        // "deleted" marks, which have to be dropped by the rebuildings without the growth of the table
+        for (int key = 1; key <= CHURN_QUANTITY; key++) {
+            map.put(key, key);
+            if (key > WINDOW) {
+                assertEquals(String.format(KEY_PATTERN, key - WINDOW), key - WINDOW, map.remove(key - WINDOW));
+            }
+        }
+
+        assertEquals(WINDOW, map.size());
+        for (int key = 1; key <= CHURN_QUANTITY; key++) {
+            if (key <= CHURN_QUANTITY - WINDOW) {
+                assertFalse(String.format(KEY_PATTERN, key), map.containsKey(key));
+            } else {
+                assertEquals(String.format(KEY_PATTERN, key), key, map.get(key));
+            }
+        }
+    }
+}
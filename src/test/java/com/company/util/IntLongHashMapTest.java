@@ -1,13 +1,15 @@
 package com.company.util;
 
 import com.company.util.data.RandomDataGenerator;
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.junit.Test;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 /**
  * Implemented by Yevhen Khomiak on 21.06.2017.
@@ -20,16 +22,32 @@ public class IntLongHashMapTest {
     private static final String SIZE_METHOD_SIGNATURE = "size()";
     private static final String PUT_METHOD_PATTERN = "put(%d, %d)";
     private static final String GET_METHOD_PATTERN = "get(%d)";
+    private static final String REMOVE_METHOD_PATTERN = "remove(%d)";
+    private static final String CONTAINS_KEY_METHOD_PATTERN = "containsKey(%d)";
+    private static final String GET_OR_DEFAULT_METHOD_PATTERN = "getOrDefault(%d, %d)";
+    private static final String PUT_IF_ABSENT_METHOD_PATTERN = "putIfAbsent(%d, %d)";
+    private static final String ADD_TO_METHOD_PATTERN = "addTo(%d, %d)";
+    private static final String MERGE_METHOD_PATTERN = "merge(%d, %d, max)";
+    private static final String COMPUTE_METHOD_PATTERN = "compute(%d, negate)";
+    private static final String GET_ALL_METHOD_PATTERN = "getAll(...)[%d], key %d";
+    private static final String FOR_EACH_METHOD_SIGNATURE = "forEach(...)";
+    private static final String CURSOR_METHOD_SIGNATURE = "cursor()";
+    private static final String KEY_STREAM_METHOD_SIGNATURE = "keyStream()";
+    private static final String VALUE_STREAM_METHOD_SIGNATURE = "valueStream()";
     private static final String METHOD_FAILED_PATTERN = "The method %s.%s failed:";
     private static final String TESTING_ENTRY_PATTERN = "The testing entry N %d is: key: %d, value: %d";
     private static final String EMPTY_CARD_TEST_IS_OK = "Empty card test is ok!";
     private static final String NULL_KEY_TEST_IS_OK = "Null key test is ok!";
     private static final String NO_ENTRY_VALUE_TEST_IS_OK = "No entry value test is ok!";
     private static final String THRESHOLD_KEYS_TEST_IS_OK = "Threshold keys test is ok!";
+    private static final String REMOVE_TEST_IS_OK = "Remove test is ok!";
+    private static final String PRIMITIVE_OPERATIONS_TEST_IS_OK = "Primitive operations test is ok!";
+    private static final String BULK_OPERATIONS_TEST_IS_OK = "Bulk operations test is ok!";
+    private static final String ITERATION_TEST_IS_OK = "Iteration test is ok!";
 
-    private static Map<Integer, Long> expectedValueSupplier;
-    private static IntLongHashMap intLongHashMap;
-    private static long noEntryValue;
+    private Map<Integer, Long> expectedValueSupplier;
+    private IntLongHashMap intLongHashMap;
+    private long noEntryValue;
 
     // To have the ability to use predetermined "etalon" keys
 //    private int[] predeterminedKeys = {350, -746, -147, -346, 92, -902, -274, -530, 127, -20, -122, -543, 85, -981, -409, -374, 32};
@@ -38,13 +56,18 @@ public class IntLongHashMapTest {
 //    @Rule
 //    public TestRule benchmarkRun = new BenchmarkRule();
 
-    @BeforeClass
-    public static void setUpClass() throws Exception {
+    @Before
+    public void setUp() throws Exception {
         expectedValueSupplier = new HashMap<>();
-        intLongHashMap = new IntLongHashMapOpenAddr();
+        intLongHashMap = createIntLongHashMap();
         noEntryValue = intLongHashMap.getNoEntryValue();
     }
 
+    // To have the ability to test other implementations (or other modes of the same one) by the same test
+    protected IntLongHashMap createIntLongHashMap() {
+        return new IntLongHashMapOpenAddr();
+    }
+
     private int getRandomInteger() {
         return RandomDataGenerator.getRandomInteger(RANDOM_INT_UPPER_BOUND);
     }
@@ -84,6 +107,57 @@ public class IntLongHashMapTest {
                 (expectedPreviousValue == null) ? noEntryValue : expectedPreviousValue, intLongHashMap.put(key, value));
     }
 
+    private void removeTest(int key) {
+        Long expectedPreviousValue = expectedValueSupplier.remove(key);
+
+        assertEquals(getIncorrectMethodResultMessage(String.format(REMOVE_METHOD_PATTERN, key)),
+                (expectedPreviousValue == null) ? noEntryValue : expectedPreviousValue, intLongHashMap.remove(key));
+    }
+
+    private void containsKeyTest(int key) {
+        assertEquals(getIncorrectMethodResultMessage(String.format(CONTAINS_KEY_METHOD_PATTERN, key)),
+                expectedValueSupplier.containsKey(key), intLongHashMap.containsKey(key));
+    }
+
+    private void getOrDefaultTest(int key, long defaultValue) {
+        Long expectedValue = expectedValueSupplier.get(key);
+
+        assertEquals(getIncorrectMethodResultMessage(String.format(GET_OR_DEFAULT_METHOD_PATTERN, key, defaultValue)),
+                (expectedValue == null) ? defaultValue : expectedValue, intLongHashMap.getOrDefault(key, defaultValue));
+    }
+
+    private void putIfAbsentTest(int key, long value) {
+        Long expectedValue = expectedValueSupplier.putIfAbsent(key, value);
+
+        assertEquals(getIncorrectMethodResultMessage(String.format(PUT_IF_ABSENT_METHOD_PATTERN, key, value)),
+                (expectedValue == null) ? noEntryValue : expectedValue, intLongHashMap.putIfAbsent(key, value));
+    }
+
+    private void addToTest(int key, long increment) {
+        Long expectedPreviousValue = expectedValueSupplier.get(key);
+        expectedValueSupplier.merge(key, increment, Long::sum);
+
+        assertEquals(getIncorrectMethodResultMessage(String.format(ADD_TO_METHOD_PATTERN, key, increment)),
+                (expectedPreviousValue == null) ? noEntryValue : expectedPreviousValue,
+                intLongHashMap.addTo(key, increment));
+    }
+
+    private void mergeTest(int key, long value) {
+        long expectedValue = expectedValueSupplier.merge(key, value, Math::max);
+
+        assertEquals(getIncorrectMethodResultMessage(String.format(MERGE_METHOD_PATTERN, key, value)),
+                expectedValue, intLongHashMap.merge(key, value, Math::max));
+    }
+
+    private void computeTest(int key) {
+        Long previousValue = expectedValueSupplier.get(key);
+        long expectedValue = -((previousValue == null) ? noEntryValue : previousValue);
+        expectedValueSupplier.put(key, expectedValue);
+
+        assertEquals(getIncorrectMethodResultMessage(String.format(COMPUTE_METHOD_PATTERN, key)),
+                expectedValue, intLongHashMap.compute(key, value -> -value));
+    }
+
     private void emptyCardTest() throws Exception {
         assertEquals(getIncorrectMethodResultMessage(SIZE_METHOD_SIGNATURE), 0, intLongHashMap.size());
 
@@ -183,4 +257,175 @@ public class IntLongHashMapTest {
         // Threshold keys test again
         thresholdKeysTest();
     }
-}
\ No newline at end of file
+
+    @Test(timeout = 5000)
+    public void putRemoveTest() throws Exception {
+        int key;
+
+        // Null key and threshold keys, to be removed later
+        nullKeyTest();
+        thresholdKeysTest();
+
+        // Random mix of put and remove, so that clusters are built and broken many times
+        for (int index = 0; index < TEST_QUANTITY; index++) {
+            key = getRandomInteger();
+
+            containsKeyTest(key);
+            if (RandomDataGenerator.getRandomBoolean()) {
+                putTest(key, getRandomLong());
+            } else {
+                removeTest(key);
+            }
+            sizeTest();
+            containsKeyTest(key);
+            getTest(key);
+        }
+
+        // Null key removal
+        int nullKey = 0;
+        removeTest(nullKey);
+        sizeTest();
+        containsKeyTest(nullKey);
+        getTest(nullKey);
+        removeTest(nullKey);
+
+        // Remove all the remaining keys
+        for (Integer remainingKey : expectedValueSupplier.keySet().toArray(new Integer[0])) {
+            removeTest(remainingKey);
+        }
+        sizeTest();
+        for (int i = 0; i < TEST_QUANTITY; i++) {
+            key = getRandomInteger();
+            assertFalse(getIncorrectMethodResultMessage(String.format(CONTAINS_KEY_METHOD_PATTERN, key)),
+                    intLongHashMap.containsKey(key));
+        }
+        emptyCardTest();
+
+        System.out.println(REMOVE_TEST_IS_OK);
+    }
+
+    @Test(timeout = 5000)
+    public void primitiveOperationsTest() throws Exception {
+        emptyCardTest();
+
+        // Random mix of the single-probe operations, the null key included
+        for (int index = 0; index < TEST_QUANTITY; index++) {
+            int key = getRandomInteger() % 100;
+            long value = getRandomLong();
+
+            switch (index % 5) {
+                case 0:
+                    getOrDefaultTest(key, value);
+                    break;
+                case 1:
+                    putIfAbsentTest(key, value);
+                    break;
+                case 2:
+                    addToTest(key, value);
+                    break;
+                case 3:
+                    mergeTest(key, value);
+                    break;
+                default:
+                    computeTest(key);
+                    break;
+            }
+            sizeTest();
+            containsKeyTest(key);
+            getTest(key);
+        }
+
+        System.out.println(PRIMITIVE_OPERATIONS_TEST_IS_OK);
+    }
+
+    @Test(timeout = 5000)
+    public void bulkOperationsTest() throws Exception {
+        int offset = 3;
+        int[] keys = new int[TEST_QUANTITY + offset];
+        long[] values = new long[TEST_QUANTITY + offset];
+
+        // Repetitive keys and the null key are included, the entries before <offset> are not put
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = getRandomInteger();
+            values[i] = getRandomLong();
+            if (i >= offset) {
+                expectedValueSupplier.put(keys[i], values[i]);
+            }
+        }
+        intLongHashMap.putAll(keys, values, offset, TEST_QUANTITY);
+        sizeTest();
+
+        // Both present and absent keys
+        int[] lookupKeys = new int[TEST_QUANTITY];
+        for (int i = 0; i < lookupKeys.length; i++) {
+            lookupKeys[i] = getRandomInteger() * 2;
+        }
+        long[] out = new long[lookupKeys.length];
+        intLongHashMap.getAll(lookupKeys, out);
+        for (int i = 0; i < lookupKeys.length; i++) {
+            Long expectedValue = expectedValueSupplier.get(lookupKeys[i]);
+            assertEquals(getIncorrectMethodResultMessage(String.format(GET_ALL_METHOD_PATTERN, i, lookupKeys[i])),
+                    (expectedValue == null) ? noEntryValue : expectedValue, out[i]);
+        }
+
+        // A bulk put into a non-empty map
+        intLongHashMap.putAll(keys, values, 0, offset);
+        for (int i = 0; i < offset; i++) {
+            expectedValueSupplier.put(keys[i], values[i]);
+            getTest(keys[i]);
+        }
+        sizeTest();
+
+        System.out.println(BULK_OPERATIONS_TEST_IS_OK);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bulkOperationsIllegalRangeTest() {
+        intLongHashMap.putAll(new int[2], new long[1], 0, 2);
+    }
+
+    @Test(timeout = 5000)
+    public void iterationTest() throws Exception {
+        // The null key is included
+        int nullKey = 0;
+        long nullValue = getRandomLong();
+        putTest(nullKey, nullValue);
+        for (int index = 0; index < TEST_QUANTITY; index++) {
+            int key = getRandomInteger();
+            if (RandomDataGenerator.getRandomBoolean()) {
+                putTest(key, getRandomLong());
+            } else if (key != nullKey) {
+                removeTest(key);
+            }
+        }
+
+        Map<Integer, Long> actualEntries = new HashMap<>();
+        intLongHashMap.forEach((key, value) -> assertEquals(getIncorrectMethodResultMessage(FOR_EACH_METHOD_SIGNATURE),
+                null, actualEntries.put(key, value)));
+        assertEquals(getIncorrectMethodResultMessage(FOR_EACH_METHOD_SIGNATURE), expectedValueSupplier, actualEntries);
+
+        // The second pass goes after the reset of the same cursor
+        IntLongCursor cursor = intLongHashMap.cursor();
+        for (int pass = 0; pass < 2; pass++) {
+            actualEntries.clear();
+            while (cursor.advance()) {
+                assertEquals(getIncorrectMethodResultMessage(CURSOR_METHOD_SIGNATURE), null,
+                        actualEntries.put(cursor.key(), cursor.value()));
+            }
+            assertEquals(getIncorrectMethodResultMessage(CURSOR_METHOD_SIGNATURE), expectedValueSupplier, actualEntries);
+            cursor.reset();
+        }
+
+        assertEquals(getIncorrectMethodResultMessage(KEY_STREAM_METHOD_SIGNATURE), expectedValueSupplier.keySet(),
+                intLongHashMap.keyStream().parallel().boxed().collect(Collectors.toSet()));
+        assertEquals(getIncorrectMethodResultMessage(KEY_STREAM_METHOD_SIGNATURE), expectedValueSupplier.size(),
+                intLongHashMap.keyStream().parallel().count());
+        assertEquals(getIncorrectMethodResultMessage(VALUE_STREAM_METHOD_SIGNATURE),
+                expectedValueSupplier.values().stream().mapToLong(Long::longValue).sum(),
+                intLongHashMap.valueStream().parallel().sum());
+        assertEquals(getIncorrectMethodResultMessage(VALUE_STREAM_METHOD_SIGNATURE), expectedValueSupplier.size(),
+                intLongHashMap.valueStream().count());
+
+        System.out.println(ITERATION_TEST_IS_OK);
+    }
+}
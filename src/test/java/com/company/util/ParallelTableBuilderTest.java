@@ -0,0 +1,118 @@
+package com.company.util;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The maps built by {@link IntLongHashMapOpenAddr#build} should be equal to the maps built by <b>put</b> of the same
+ * entries, including the repeated keys, the "null key" and the clusters which cross the borders of the regions.
+ */
+
+public class ParallelTableBuilderTest {
+    private static final int QUANTITY = 150000;
+    private static final int PARALLELISM = 4;
+    private static final long NO_ENTRY_VALUE = -1L;
+    // The capacity of the table for about QUANTITY keys with power-of-two capacity and load factor 0.75
+    private static final int CAPACITY = 1 << 18;
+    private static final int REGION = CAPACITY / (PARALLELISM * 8);
+    private static final int BORDER_KEYS = 64;
+    private static final int FILLER_KEYS = 4560;
+    private static final int REMOVED_KEYS = 1000;
+
+    private static final String KEY_PATTERN = "Key %d";
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM);
+
+    @AfterClass
+    public static void tearDown() {
+        POOL.shutdown();
+    }
+
+    private static void assertSameAsPut(int[] keys, long[] values, IntHashStrategy hashStrategy,
+                                        boolean powerOfTwoCapacity) {
+        // Without the growth, which makes the clusters of the identity hash codes long
+        IntLongHashMapOpenAddr expected = new IntLongHashMapOpenAddr((int) (keys.length / 0.75f) + 1, 0.75f, 2.0f,
+                NO_ENTRY_VALUE, hashStrategy, powerOfTwoCapacity);
+        for (int i = 0; i < keys.length; i++) {
+            expected.put(keys[i], values[i]);
+        }
+
+        IntLongHashMapOpenAddr actual = IntLongHashMapOpenAddr.build(keys, values, 0.75f, 2.0f, NO_ENTRY_VALUE,
+                hashStrategy, powerOfTwoCapacity, POOL);
+
+        assertEquals(expected.size(), actual.size());
+        expected.forEach((key, value) -> {
+            assertTrue(String.format(KEY_PATTERN, key), actual.containsKey(key));
+            assertEquals(String.format(KEY_PATTERN, key), value, actual.get(key));
+        });
+
+        // The built map is a usable map
+        for (int i = 0; i < REMOVED_KEYS; i++) {
+            actual.remove(keys[i]);
+            expected.remove(keys[i]);
+        }
+        assertEquals(expected.size(), actual.size());
+    }
+
+    @Test(timeout = 5000)
+    public void randomKeysTest() {
+        Random random = new Random(1);
+        int[] keys = new int[QUANTITY];
+        long[] values = new long[QUANTITY];
+        for (int i = 0; i < QUANTITY; i++) {
+            // Every key is repeated twice on average, the "null key" included
+            keys[i] = random.nextInt(QUANTITY / 2) - QUANTITY / 4;
+            values[i] = random.nextLong();
+        }
+
+        assertSameAsPut(keys, values, IntHashStrategy.MURMUR3, true);
+        assertSameAsPut(keys, values, IntHashStrategy.IDENTITY, false);
+    }
+
+    @Test(timeout = 5000)
+    public void crossRegionClustersTest() {
+        // With identity hash codes and power-of-two capacity keys i + j * CAPACITY share the home slot i: such
+        // groups around every border of the regions (PARALLELISM * 8 regions of REGION slots) form the clusters which
+        // cross the borders, and the other keys fill the middles of the regions
+        int regions = PARALLELISM * 8;
+        int[] keys = new int[regions * (BORDER_KEYS + FILLER_KEYS)];
+        long[] values = new long[keys.length];
+        int index = 0;
+        for (int region = 0; region < regions; region++) {
+            int border = region * REGION;
+            // 16 home slots around the border, 4 keys for every one of them
+            for (int i = 0; i < BORDER_KEYS; i++) {
+                int home = border - 8 + i % 16;
+                keys[index++] = home + (i / 16 + 1) * CAPACITY;
+            }
+            for (int i = 0; i < FILLER_KEYS; i++) {
+                keys[index++] = border + REGION / 4 + i;
+            }
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+
+        assertSameAsPut(keys, values, IntHashStrategy.IDENTITY, true);
+    }
+
+    @Test(timeout = 5000)
+    public void emptyTest() {
+        IntLongHashMapOpenAddr map = IntLongHashMapOpenAddr.build(new int[0], new long[0]);
+
+        assertEquals(0, map.size());
+        map.put(1, 1);
+        assertEquals(1, map.get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class, timeout = 5000)
+    public void illegalLengthsTest() {
+        IntLongHashMapOpenAddr.build(new int[2], new long[1]);
+    }
+}
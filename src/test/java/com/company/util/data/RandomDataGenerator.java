@@ -15,4 +15,8 @@ public class RandomDataGenerator {
     public static long getRandomLong() {
         return random.nextLong();
     }
+
+    public static boolean getRandomBoolean() {
+        return random.nextBoolean();
+    }
 }